@@ -0,0 +1,72 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Volatile, ordered and CAS access to a single byte, done on the 4-byte word containing it.
+ * <p>
+ * The word is the one aligned to 4 bytes from the start of the store, so it doesn't cross a cache
+ * line.  A CAS which fails because a neighbouring byte changed is retried.  boolForBinding and
+ * int8forBinding put the byte last in its word, so the word is within what was written.
+ */
+enum AtomicBytes {
+    ;
+
+    static byte readVolatileByte(@NotNull BytesStore bytes, long offset) {
+        return (byte) (bytes.readVolatileInt(offset & ~3L) >>> shift(offset));
+    }
+
+    static void writeOrderedByte(@NotNull BytesStore bytes, long offset, byte value) {
+        long word = offset & ~3L;
+        int shift = shift(offset);
+        for (; ; ) {
+            int current = bytes.readVolatileInt(word);
+            int next = (current & ~(0xFF << shift)) | ((value & 0xFF) << shift);
+            if (bytes.compareAndSwapInt(word, current, next))
+                return;
+        }
+    }
+
+    static boolean compareAndSwapByte(@NotNull BytesStore bytes, long offset, byte expected, byte value) {
+        long word = offset & ~3L;
+        int shift = shift(offset);
+        for (; ; ) {
+            int current = bytes.readVolatileInt(word);
+            if ((byte) (current >>> shift) != expected)
+                return false;
+            int next = (current & ~(0xFF << shift)) | ((value & 0xFF) << shift);
+            if (bytes.compareAndSwapInt(word, current, next))
+                return true;
+        }
+    }
+
+    /**
+     * Pad so the byte written after the next {@code before} bytes is the last in its word.
+     */
+    static void padToLastInWord(@NotNull WireOut wire, int before) {
+        int pad = (int) ((3 - before - wire.bytes().writePosition()) & 3);
+        if (pad > 0)
+            wire.addPadding(pad);
+    }
+
+    private static int shift(long offset) {
+        int index = (int) (offset & 3);
+        return (TextNumbers.LITTLE_ENDIAN ? index : 3 - index) << 3;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+import static net.openhft.chronicle.wire.BinaryWireCode.FALSE;
+import static net.openhft.chronicle.wire.BinaryWireCode.TRUE;
+
+/**
+ * This class acts as a Binary boolean, the TRUE or FALSE code itself. c.f. TextBooleanReference
+ */
+public class BinaryBooleanReference implements BooleanValue, Byteable {
+    private BytesStore bytes;
+    private long offset;
+
+    @Override
+    public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
+        if (length != maxSize()) throw new IllegalArgumentException();
+        int code = bytes.readUnsignedByte(offset);
+        if (code != TRUE && code != FALSE)
+            throw new IllegalArgumentException("Not a boolean, code=" + BinaryWireCode.stringForCode(code));
+        this.bytes = bytes.bytesStore();
+        this.offset = offset;
+    }
+
+    @Override
+    public long maxSize() {
+        return 1;
+    }
+
+    @NotNull
+    public String toString() {
+        return "value: " + getValue();
+    }
+
+    @Override
+    public boolean getValue() {
+        return bytes.readUnsignedByte(offset) == TRUE;
+    }
+
+    @Override
+    public void setValue(boolean value) {
+        bytes.writeByte(offset, (byte) (value ? TRUE : FALSE));
+    }
+
+    @Override
+    public boolean getVolatileValue() {
+        return (AtomicBytes.readVolatileByte(bytes, offset) & 0xFF) == TRUE;
+    }
+
+    @Override
+    public void setOrderedValue(boolean value) {
+        AtomicBytes.writeOrderedByte(bytes, offset, (byte) (value ? TRUE : FALSE));
+    }
+
+    @Override
+    public boolean compareAndSwapValue(boolean expected, boolean value) {
+        return AtomicBytes.compareAndSwapByte(bytes, offset,
+                (byte) (expected ? TRUE : FALSE), (byte) (value ? TRUE : FALSE));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class acts as a Binary 8-bit value. c.f. TextByteReference
+ */
+public class BinaryByteReference implements ByteValue, Byteable {
+    private BytesStore bytes;
+    private long offset;
+
+    @Override
+    public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
+        if (length != maxSize()) throw new IllegalArgumentException();
+        this.bytes = bytes.bytesStore();
+        this.offset = offset;
+    }
+
+    @Override
+    public long maxSize() {
+        return 1;
+    }
+
+    @NotNull
+    public String toString() {
+        return "value: " + getValue();
+    }
+
+    @Override
+    public byte getValue() {
+        return bytes.readByte(offset);
+    }
+
+    @Override
+    public void setValue(byte value) {
+        bytes.writeByte(offset, value);
+    }
+
+    @Override
+    public byte getVolatileValue() {
+        return AtomicBytes.readVolatileByte(bytes, offset);
+    }
+
+    @Override
+    public void setOrderedValue(byte value) {
+        AtomicBytes.writeOrderedByte(bytes, offset, value);
+    }
+
+    @Override
+    public byte addValue(byte delta) {
+        for (; ; ) {
+            byte value = getVolatileValue();
+            byte next = (byte) (value + delta);
+            if (compareAndSwapValue(value, next))
+                return next;
+        }
+    }
+
+    @Override
+    public boolean compareAndSwapValue(byte expected, byte value) {
+        return AtomicBytes.compareAndSwapByte(bytes, offset, expected, value);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class acts a Binary array of 64-bit floating point values. c.f. BinaryLongArrayReference
+ * <p>
+ * The values are stored as their raw long bits so the volatile and compare and set operations
+ * are those of the long array.
+ */
+public class BinaryDoubleArrayReference implements Byteable {
+    private static final long VALUES = 8;
+    private BytesStore bytes;
+    private long offset;
+    private long length = VALUES;
+
+    public static void write(@NotNull Bytes bytes, long capacity) {
+        BinaryLongArrayReference.write(bytes, capacity);
+    }
+
+    public static void lazyWrite(@NotNull Bytes bytes, long capacity) {
+        BinaryLongArrayReference.lazyWrite(bytes, capacity);
+    }
+
+    public static long peakLength(@NotNull BytesStore bytes, long offset) {
+        return BinaryLongArrayReference.peakLength(bytes, offset);
+    }
+
+    public long getCapacity() {
+        return (length - VALUES) >>> 3;
+    }
+
+    public double getValueAt(long index) {
+        return Double.longBitsToDouble(bytes.readLong(VALUES + offset + (index << 3)));
+    }
+
+    public void setValueAt(long index, double value) {
+        bytes.writeLong(VALUES + offset + (index << 3), Double.doubleToRawLongBits(value));
+    }
+
+    public double getVolatileValueAt(long index) {
+        return Double.longBitsToDouble(bytes.readVolatileLong(VALUES + offset + (index << 3)));
+    }
+
+    public void setOrderedValueAt(long index, double value) {
+        bytes.writeOrderedLong(VALUES + offset + (index << 3), Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Compares the raw bits, so NaN matches NaN and -0.0 doesn't match 0.0
+     */
+    public boolean compareAndSet(long index, double expected, double value) {
+        return bytes.compareAndSwapLong(VALUES + offset + (index << 3),
+                Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(value));
+    }
+
+    public double addValueAt(long index, double delta) {
+        long address = VALUES + offset + (index << 3);
+        for (; ; ) {
+            long bits = bytes.readVolatileLong(address);
+            double value = Double.longBitsToDouble(bits) + delta;
+            if (bytes.compareAndSwapLong(address, bits, Double.doubleToRawLongBits(value)))
+                return value;
+        }
+    }
+
+    /**
+     * Copy len values starting at from into dst.
+     */
+    public void getValues(@NotNull double[] dst, long from, int len) {
+        if (from < 0 || len < 0 || len > dst.length || from + len > getCapacity())
+            throw new IndexOutOfBoundsException("from: " + from + ", len: " + len + ", capacity: " + getCapacity());
+        long address = VALUES + offset + (from << 3);
+        for (int i = 0; i < len; i++, address += 8)
+            dst[i] = Double.longBitsToDouble(bytes.readLong(address));
+    }
+
+    @Override
+    public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
+        if (length != peakLength(bytes, offset))
+            throw new IllegalArgumentException(length + " != " + peakLength(bytes, offset));
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public long maxSize() {
+        return length;
+    }
+
+    @NotNull
+    public String toString() {
+        return "value: " + getValueAt(0) + " ...";
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class acts as a Binary 64-bit floating point value. c.f. TextDoubleReference
+ */
+public class BinaryDoubleReference implements DoubleValue, Byteable {
+    private BytesStore bytes;
+    private long offset;
+
+    @Override
+    public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
+        if (length != maxSize()) throw new IllegalArgumentException();
+        this.bytes = bytes.bytesStore();
+        this.offset = offset;
+    }
+
+    @Override
+    public long maxSize() {
+        return 8;
+    }
+
+    @NotNull
+    public String toString() {
+        return "value: " + getValue();
+    }
+
+    @Override
+    public double getValue() {
+        return Double.longBitsToDouble(bytes.readLong(offset));
+    }
+
+    @Override
+    public void setValue(double value) {
+        bytes.writeLong(offset, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public double getVolatileValue() {
+        return Double.longBitsToDouble(bytes.readVolatileLong(offset));
+    }
+
+    @Override
+    public void setOrderedValue(double value) {
+        bytes.writeOrderedLong(offset, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public double addValue(double delta) {
+        for (; ; ) {
+            long bits = bytes.readVolatileLong(offset);
+            double value = Double.longBitsToDouble(bits) + delta;
+            if (bytes.compareAndSwapLong(offset, bits, Double.doubleToRawLongBits(value)))
+                return value;
+        }
+    }
+
+    @Override
+    public boolean compareAndSwapValue(double expected, double value) {
+        return bytes.compareAndSwapLong(offset, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(value));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.values.IntValue;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class acts a Binary array of 32-bit values. c.f. BinaryLongArrayReference
+ */
+public class BinaryIntArrayReference implements Byteable {
+    private static final long VALUES = 8;
+    private BytesStore bytes;
+    private long offset;
+    private long length = VALUES;
+
+    public static void write(@NotNull Bytes bytes, long capacity) {
+        bytes.writeLong(capacity);
+        long start = bytes.writePosition();
+        bytes.zeroOut(start, start + (capacity << 2));
+        bytes.writeSkip(capacity << 2);
+    }
+
+    public static void lazyWrite(@NotNull Bytes bytes, long capacity) {
+        bytes.writeLong(capacity);
+        bytes.writeSkip(capacity << 2);
+    }
+
+    public static long peakLength(@NotNull BytesStore bytes, long offset) {
+        final long capacity = bytes.readLong(offset);
+        assert capacity > 0 : "capacity too small";
+        return (capacity << 2) + VALUES;
+    }
+
+    public long getCapacity() {
+        return (length - VALUES) >>> 2;
+    }
+
+    public int getValueAt(long index) {
+        return bytes.readInt(VALUES + offset + (index << 2));
+    }
+
+    public void setValueAt(long index, int value) {
+        bytes.writeInt(VALUES + offset + (index << 2), value);
+    }
+
+    public int getVolatileValueAt(long index) {
+        return bytes.readVolatileInt(VALUES + offset + (index << 2));
+    }
+
+    public void setOrderedValueAt(long index, int value) {
+        bytes.writeOrderedInt(VALUES + offset + (index << 2), value);
+    }
+
+    public int addValueAt(long index, int delta) {
+        return bytes.addAndGetInt(VALUES + offset + (index << 2), delta);
+    }
+
+    public boolean compareAndSet(long index, int expected, int value) {
+        return bytes.compareAndSwapInt(VALUES + offset + (index << 2), expected, value);
+    }
+
+    public void bindValueAt(long index, @NotNull IntValue value) {
+        ((BinaryIntReference) value).bytesStore(bytes, VALUES + offset + (index << 2), 4);
+    }
+
+    /**
+     * Copy len values starting at from into dst.
+     */
+    public void getValues(@NotNull int[] dst, long from, int len) {
+        checkRange(from, len, dst.length);
+        long address = VALUES + offset + (from << 2);
+        for (int i = 0; i < len; i++, address += 4)
+            dst[i] = bytes.readInt(address);
+    }
+
+    private void checkRange(long from, int len, int dstLength) {
+        if (from < 0 || len < 0 || len > dstLength || from + len > getCapacity())
+            throw new IndexOutOfBoundsException("from: " + from + ", len: " + len + ", capacity: " + getCapacity());
+    }
+
+    @Override
+    public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
+        if (length != peakLength(bytes, offset))
+            throw new IllegalArgumentException(length + " != " + peakLength(bytes, offset));
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public long maxSize() {
+        return length;
+    }
+
+    @NotNull
+    public String toString() {
+        return "value: " + getValueAt(0) + " ...";
+    }
+}
@@ -86,6 +86,17 @@ public class BinaryLongArrayReference implements Byteable, LongArrayValues {
         return bytes.compareAndSwapLong(VALUES + offset + (index << 3), expected, value);
     }
 
+    /**
+     * Copy len values starting at from into dst.
+     */
+    public void getValues(@NotNull long[] dst, long from, int len) {
+        if (from < 0 || len < 0 || len > dst.length || from + len > getCapacity())
+            throw new IndexOutOfBoundsException("from: " + from + ", len: " + len + ", capacity: " + getCapacity());
+        long address = VALUES + offset + (from << 3);
+        for (int i = 0; i < len; i++, address += 8)
+            dst[i] = bytes.readLong(address);
+    }
+
     @Override
     public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
         if (length != peakLength(bytes, offset))
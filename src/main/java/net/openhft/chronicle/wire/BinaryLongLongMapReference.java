@@ -0,0 +1,206 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A fixed capacity map of 64-bit keys to 64-bit values in Binary, using open addressing with
+ * linear probing.  c.f. BinaryLongArrayReference
+ * <p>
+ * The layout is the capacity, a power of 2, the number of entries, then a key and a value for each
+ * slot.  Keys and values are stored xor Long.MIN_VALUE so zeroed memory is an empty map, which
+ * makes Long.MIN_VALUE unusable as a key or a value.
+ * <p>
+ * A key is inserted by a CAS on an empty key slot and its value is then written with an ordered
+ * write, so lookups are lock free and don't allocate.  A key which has been claimed but whose value
+ * isn't visible yet reads as absent.  Entries can't be removed, and a put fails once the map is
+ * full.
+ */
+public class BinaryLongLongMapReference implements Byteable {
+    public static final long NO_ENTRY = Long.MIN_VALUE;
+    private static final long SIZE = 8;
+    private static final long ENTRIES = 16;
+
+    private BytesStore bytes;
+    private long offset;
+    private long length = ENTRIES;
+    private long mask;
+
+    public static void write(@NotNull Bytes bytes, long capacity) {
+        checkCapacity(capacity);
+        bytes.writeLong(capacity);
+        long start = bytes.writePosition();
+        bytes.zeroOut(start, start + 8 + (capacity << 4));
+        bytes.writeSkip(8 + (capacity << 4));
+    }
+
+    public static void lazyWrite(@NotNull Bytes bytes, long capacity) {
+        checkCapacity(capacity);
+        bytes.writeLong(capacity);
+        bytes.writeSkip(8 + (capacity << 4));
+    }
+
+    public static long peakLength(@NotNull BytesStore bytes, long offset) {
+        final long capacity = bytes.readLong(offset);
+        assert capacity > 0 : "capacity too small";
+        return (capacity << 4) + ENTRIES;
+    }
+
+    static void checkCapacity(long capacity) {
+        if (capacity < 1 || capacity > 1L << 40 || Long.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("capacity must be a power of 2, was " + capacity);
+    }
+
+    static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    public long getCapacity() {
+        return mask + 1;
+    }
+
+    public long size() {
+        return bytes.readVolatileLong(offset + SIZE);
+    }
+
+    public boolean containsKey(long key) {
+        return get(key, NO_ENTRY) != NO_ENTRY;
+    }
+
+    /**
+     * @return the value for the key, or defaultValue if there isn't one.
+     */
+    public long get(long key, long defaultValue) {
+        long stored = stored(key);
+        long slot = hash(key) & mask;
+        for (long i = 0; i <= mask; i++, slot = (slot + 1) & mask) {
+            long address = keyAddress(slot);
+            long k = bytes.readVolatileLong(address);
+            if (k == stored) {
+                long v = bytes.readVolatileLong(address + 8);
+                return v == 0 ? defaultValue : v ^ NO_ENTRY;
+            }
+            if (k == 0)
+                return defaultValue;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * @return false if the key is new and the map is full.
+     */
+    public boolean put(long key, long value) {
+        long v = stored(value);
+        long address = claim(key);
+        if (address < 0)
+            return false;
+        bytes.writeOrderedLong(address + 8, v);
+        return true;
+    }
+
+    /**
+     * @return the existing value, or NO_ENTRY if the value was added or the map is full.
+     */
+    public long putIfAbsent(long key, long value) {
+        long v = stored(value);
+        long address = claim(key);
+        if (address < 0)
+            return NO_ENTRY;
+        if (bytes.compareAndSwapLong(address + 8, 0, v))
+            return NO_ENTRY;
+        // values are never reset to 0, so the CAS failed because there is one.
+        return bytes.readVolatileLong(address + 8) ^ NO_ENTRY;
+    }
+
+    /**
+     * Replaces the value if the key is present with the expected value.
+     */
+    public boolean compareAndSwapValue(long key, long expected, long value) {
+        long stored = stored(key);
+        long slot = hash(key) & mask;
+        for (long i = 0; i <= mask; i++, slot = (slot + 1) & mask) {
+            long address = keyAddress(slot);
+            long k = bytes.readVolatileLong(address);
+            if (k == stored)
+                return bytes.compareAndSwapLong(address + 8, stored(expected), stored(value));
+            if (k == 0)
+                return false;
+        }
+        return false;
+    }
+
+    /**
+     * @return the address of the key's slot, adding the key if needed, or -1 if the map is full.
+     */
+    private long claim(long key) {
+        long stored = stored(key);
+        long slot = hash(key) & mask;
+        for (long i = 0; i <= mask; i++, slot = (slot + 1) & mask) {
+            long address = keyAddress(slot);
+            long k = bytes.readVolatileLong(address);
+            if (k == 0) {
+                if (bytes.compareAndSwapLong(address, 0, stored)) {
+                    bytes.addAndGetLong(offset + SIZE, 1);
+                    return address;
+                }
+                k = bytes.readVolatileLong(address);
+            }
+            if (k == stored)
+                return address;
+        }
+        return -1;
+    }
+
+    private static long stored(long keyOrValue) {
+        if (keyOrValue == NO_ENTRY)
+            throw new IllegalArgumentException("Long.MIN_VALUE is reserved");
+        return keyOrValue ^ NO_ENTRY;
+    }
+
+    private long keyAddress(long slot) {
+        return offset + ENTRIES + (slot << 4);
+    }
+
+    @Override
+    public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
+        if (length != peakLength(bytes, offset))
+            throw new IllegalArgumentException(length + " != " + peakLength(bytes, offset));
+        long capacity = bytes.readLong(offset);
+        checkCapacity(capacity);
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public long maxSize() {
+        return length;
+    }
+
+    @NotNull
+    public String toString() {
+        return "size: " + size() + ", capacity: " + getCapacity();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An append only array of 64-bit values in Binary with a count of the entries used.
+ * c.f. BinaryLongArrayReference
+ * <p>
+ * The layout is the capacity, the number used, then the values.  A producer claims the next entry
+ * with a CAS on the number used and then publishes its value with an ordered write, so any number
+ * of threads or processes can append.  Values are stored xor Long.MIN_VALUE so a zeroed entry is
+ * one which has been claimed but not published yet, which makes Long.MIN_VALUE unusable as a value.
+ */
+public class BinaryLongQueueReference implements Byteable {
+    public static final long NOT_PUBLISHED = Long.MIN_VALUE;
+    private static final long USED = 8;
+    private static final long VALUES = 16;
+    private BytesStore bytes;
+    private long offset;
+    private long length = VALUES;
+
+    public static void write(@NotNull Bytes bytes, long capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity: " + capacity);
+        bytes.writeLong(capacity);
+        long start = bytes.writePosition();
+        bytes.zeroOut(start, start + 8 + (capacity << 3));
+        bytes.writeSkip(8 + (capacity << 3));
+    }
+
+    public static long peakLength(@NotNull BytesStore bytes, long offset) {
+        final long capacity = bytes.readLong(offset);
+        assert capacity > 0 : "capacity too small";
+        return (capacity << 3) + VALUES;
+    }
+
+    public long getCapacity() {
+        return (length - VALUES) >>> 3;
+    }
+
+    /**
+     * @return the number of entries claimed, some of which may not be published yet.
+     */
+    public long getUsed() {
+        return bytes.readVolatileLong(offset + USED);
+    }
+
+    /**
+     * @return the index appended to, or -1 if the queue is full.
+     */
+    public long append(long value) {
+        if (value == NOT_PUBLISHED)
+            throw new IllegalArgumentException("Long.MIN_VALUE is reserved");
+        long capacity = getCapacity();
+        for (; ; ) {
+            long used = getUsed();
+            if (used >= capacity)
+                return -1;
+            if (bytes.compareAndSwapLong(offset + USED, used, used + 1)) {
+                bytes.writeOrderedLong(VALUES + offset + (used << 3), value ^ NOT_PUBLISHED);
+                return used;
+            }
+        }
+    }
+
+    /**
+     * @return the value at index, or NOT_PUBLISHED if it hasn't been published yet.
+     */
+    public long getVolatileValueAt(long index) {
+        if (index < 0 || index >= getCapacity())
+            throw new IndexOutOfBoundsException("index: " + index + ", capacity: " + getCapacity());
+        long stored = bytes.readVolatileLong(VALUES + offset + (index << 3));
+        return stored == 0 ? NOT_PUBLISHED : stored ^ NOT_PUBLISHED;
+    }
+
+    public boolean isPublished(long index) {
+        return getVolatileValueAt(index) != NOT_PUBLISHED;
+    }
+
+    /**
+     * Copy up to len published values starting at from into dst, stopping at the first which
+     * isn't published.
+     *
+     * @return the number of values copied.
+     */
+    public int getValues(@NotNull long[] dst, long from, int len) {
+        if (from < 0 || len < 0 || len > dst.length)
+            throw new IndexOutOfBoundsException("from: " + from + ", len: " + len);
+        int count = (int) Math.max(0, Math.min(len, getUsed() - from));
+        long address = VALUES + offset + (from << 3);
+        for (int i = 0; i < count; i++, address += 8) {
+            long stored = bytes.readVolatileLong(address);
+            if (stored == 0)
+                return i;
+            dst[i] = stored ^ NOT_PUBLISHED;
+        }
+        return count;
+    }
+
+    @Override
+    public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
+        if (length != peakLength(bytes, offset))
+            throw new IllegalArgumentException(length + " != " + peakLength(bytes, offset));
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public long maxSize() {
+        return length;
+    }
+
+    @NotNull
+    public String toString() {
+        return "used: " + getUsed() + ", capacity: " + getCapacity();
+    }
+}
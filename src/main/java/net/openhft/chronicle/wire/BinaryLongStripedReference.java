@@ -0,0 +1,130 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A counter split over a number of stripes, each on its own cache line, c.f. LongAdder.
+ * <p>
+ * Threads add to the stripe for their thread and only move to another stripe when they find it
+ * contended, so many threads can count without sharing a cache line.  The value is the sum of
+ * the stripes, which is not a snapshot while adds are happening.
+ * <p>
+ * The stripes are stored as an int64array of stripes * 8 values, written with
+ * {@link ValueOut#int64striped(int)} and bound with {@link ValueIn#int64striped}.  The writer pads
+ * before the array so the values start on a 64 byte boundary of the underlying bytes.
+ */
+public class BinaryLongStripedReference implements Byteable {
+    // one stripe every 64 bytes.
+    static final int STRIDE = 8;
+    static final long VALUES = 8;
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() ->
+            new int[]{mix((int) Thread.currentThread().getId())});
+
+    private BytesStore bytes;
+    private long offset;
+    private long length = VALUES;
+    private int mask;
+
+    /**
+     * @param stripes the number of stripes, a power of 2.
+     * @return the capacity of the int64array to write.
+     */
+    public static long capacityFor(int stripes) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1)
+            throw new IllegalArgumentException("stripes must be a power of 2, was " + stripes);
+        return (long) stripes * STRIDE;
+    }
+
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return (h ^ h >>> 16) | 1;
+    }
+
+    public int stripes() {
+        return mask + 1;
+    }
+
+    public void add(long delta) {
+        int[] probe = PROBE.get();
+        long address = stripe(probe[0]);
+        long value = bytes.readVolatileLong(address);
+        if (bytes.compareAndSwapLong(address, value, value + delta))
+            return;
+        // contended, move this thread to another stripe.
+        int h = probe[0];
+        h ^= h << 13;
+        h ^= h >>> 17;
+        h ^= h << 5;
+        probe[0] = h;
+        bytes.addAndGetLong(stripe(h), delta);
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++)
+            sum += bytes.readVolatileLong(VALUES + offset + ((long) i * STRIDE << 3));
+        return sum;
+    }
+
+    /**
+     * Sets all the stripes to zero, adds happening at the same time may be lost.
+     */
+    public void reset() {
+        for (int i = 0; i <= mask; i++)
+            bytes.writeOrderedLong(VALUES + offset + ((long) i * STRIDE << 3), 0L);
+    }
+
+    private long stripe(int h) {
+        return VALUES + offset + ((long) (h & mask) * STRIDE << 3);
+    }
+
+    @Override
+    public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
+        long expected = BinaryLongArrayReference.peakLength(bytes, offset);
+        if (length != expected)
+            throw new IllegalArgumentException(length + " != " + expected);
+        long stripes = ((length - VALUES) >>> 3) / STRIDE;
+        if (stripes < 1 || stripes > 1 << 30 || Long.bitCount(stripes) != 1)
+            throw new IllegalArgumentException("Not a striped counter, capacity: " + ((length - VALUES) >>> 3));
+        if (((offset + VALUES) & 63) != 0)
+            throw new IllegalArgumentException("Stripes are not aligned to a cache line, offset: " + offset);
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.mask = (int) stripes - 1;
+    }
+
+    @Override
+    public long maxSize() {
+        return length;
+    }
+
+    @NotNull
+    public String toString() {
+        return "sum: " + sum();
+    }
+}
@@ -60,6 +60,8 @@ public class BinaryWire implements Wire, InternalWireIn {
     private final boolean numericFields;
     private final boolean fieldLess;
     private boolean ready;
+    @NotNull
+    private InstanceProvider instanceProvider = InstanceProvider.NEW_INSTANCE;
 
     public BinaryWire(Bytes bytes) {
         this(bytes, false, false, false);
@@ -89,6 +91,17 @@ public class BinaryWire implements Wire, InternalWireIn {
         this.ready = ready;
     }
 
+    @NotNull
+    @Override
+    public InstanceProvider instanceProvider() {
+        return instanceProvider;
+    }
+
+    @Override
+    public void instanceProvider(@NotNull InstanceProvider instanceProvider) {
+        this.instanceProvider = instanceProvider;
+    }
+
     @Override
     public void copyTo(@NotNull WireOut wire) {
         while (bytes.readRemaining() > 0) {
@@ -136,7 +149,11 @@ public class BinaryWire implements Wire, InternalWireIn {
                             wire.writeValue().bytes(bytes);
                             break outerSwitch;
 
+                        case I32_ARRAY:
                         case I64_ARRAY:
+                        case F64_ARRAY:
+                        case I64_MAP:
+                        case I64_QUEUE:
                             // no supported.
                             break;
 
@@ -222,6 +239,32 @@ public class BinaryWire implements Wire, InternalWireIn {
         return valueIn;
     }
 
+    @Nullable
+    @Override
+    public Consumer<ValueIn> readEventHandler(@NotNull WireParser parser) {
+        consumeSpecial();
+        int peekCode = peekCode();
+        switch (peekCode >> 4) {
+            case BinaryWireHighCode.FIELD0:
+            case BinaryWireHighCode.FIELD1: {
+                // look up the name in place rather than copy it.
+                int length = peekCode & 0x1f;
+                long offset = bytes.readPosition() + 1;
+                bytes.readSkip(1 + length);
+                return parser.lookup(bytes, offset, length);
+            }
+            case BinaryWireHighCode.SPECIAL:
+                if (peekCode == FIELD_NUMBER) {
+                    bytes.readSkip(1);
+                    return parser.lookup(Maths.toInt32(bytes.readStopBit()));
+                }
+                break;
+        }
+        StringBuilder sb = Wires.SBP.acquireStringBuilder();
+        readField(peekCode, ANY_CODE_MATCH, sb);
+        return parser.lookup(sb);
+    }
+
     @NotNull
     @Override
     public ValueIn getValueIn() {
@@ -988,6 +1031,91 @@ public class BinaryWire implements Wire, InternalWireIn {
             return BinaryWire.this;
         }
 
+        @NotNull
+        @Override
+        public WireOut int64striped(int stripes) {
+            long capacity = BinaryLongStripedReference.capacityFor(stripes);
+            // pad so the values after the code and header start on a cache line.
+            int padding = (int) (-(bytes.writePosition() + 1 + BinaryLongStripedReference.VALUES) & 63);
+            if (padding > 0)
+                addPadding(padding);
+            writeCode(I64_ARRAY);
+            BinaryLongArrayReference.lazyWrite(bytes, capacity);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int64queue(long capacity) {
+            writeCode(I64_QUEUE);
+            BinaryLongQueueReference.write(bytes, capacity);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int64queue(long capacity, @NotNull BinaryLongQueueReference queue) {
+            writeCode(I64_QUEUE);
+            long pos = bytes.writePosition();
+            BinaryLongQueueReference.write(bytes, capacity);
+            queue.bytesStore(bytes, pos, bytes.writePosition() - pos);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int64map(long capacity) {
+            writeCode(I64_MAP);
+            BinaryLongLongMapReference.write(bytes, capacity);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int64map(long capacity, @NotNull BinaryLongLongMapReference map) {
+            writeCode(I64_MAP);
+            long pos = bytes.writePosition();
+            BinaryLongLongMapReference.write(bytes, capacity);
+            map.bytesStore(bytes, pos, bytes.writePosition() - pos);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int32array(long capacity) {
+            writeCode(I32_ARRAY);
+            BinaryIntArrayReference.lazyWrite(bytes, capacity);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int32array(long capacity, @NotNull BinaryIntArrayReference values) {
+            writeCode(I32_ARRAY);
+            long pos = bytes.writePosition();
+            BinaryIntArrayReference.lazyWrite(bytes, capacity);
+            values.bytesStore(bytes, pos, bytes.writePosition() - pos);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut float64array(long capacity) {
+            writeCode(F64_ARRAY);
+            BinaryDoubleArrayReference.lazyWrite(bytes, capacity);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut float64array(long capacity, @NotNull BinaryDoubleArrayReference values) {
+            writeCode(F64_ARRAY);
+            long pos = bytes.writePosition();
+            BinaryDoubleArrayReference.lazyWrite(bytes, capacity);
+            values.bytesStore(bytes, pos, bytes.writePosition() - pos);
+            return BinaryWire.this;
+        }
+
         @NotNull
         @Override
         public WireOut float32(float f) {
@@ -1095,6 +1223,56 @@ public class BinaryWire implements Wire, InternalWireIn {
             return BinaryWire.this;
         }
 
+        @NotNull
+        @Override
+        public WireOut float64forBinding(double value) {
+            int fromEndOfCacheLine = (int) ((-bytes.writePosition() - 1) & 63);
+            if (fromEndOfCacheLine < 8)
+                addPadding(fromEndOfCacheLine);
+            writeCode(FLOAT64).writeDouble(value);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut float64forBinding(double value, @NotNull DoubleValue doubleValue) {
+            float64forBinding(value);
+            ((Byteable) doubleValue).bytesStore(bytes, bytes.writePosition() - 8, 8);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut boolForBinding(boolean value) {
+            AtomicBytes.padToLastInWord(BinaryWire.this, 0);
+            writeCode(value ? TRUE : FALSE);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut boolForBinding(boolean value, @NotNull BooleanValue booleanValue) {
+            boolForBinding(value);
+            ((Byteable) booleanValue).bytesStore(bytes, bytes.writePosition() - 1, 1);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int8forBinding(byte value) {
+            AtomicBytes.padToLastInWord(BinaryWire.this, 1);
+            writeCode(INT8).writeByte(value);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int8forBinding(byte value, @NotNull ByteValue byteValue) {
+            int8forBinding(value);
+            ((Byteable) byteValue).bytesStore(bytes, bytes.writePosition() - 1, 1);
+            return BinaryWire.this;
+        }
+
         @NotNull
         @Override
         public WireOut sequence(@NotNull Consumer<ValueOut> writer) {
@@ -1108,6 +1286,19 @@ public class BinaryWire implements Wire, InternalWireIn {
             return BinaryWire.this;
         }
 
+        @NotNull
+        @Override
+        public <T> WireOut sequence(T t, @NotNull BiConsumer<T, ValueOut> writer) {
+            writeCode(BYTES_LENGTH32);
+            long position = bytes.writePosition();
+            bytes.writeInt(0);
+
+            writer.accept(t, this);
+
+            bytes.writeOrderedInt(position, Maths.toInt32(bytes.writePosition() - position - 4, "Document length %,d out of 32-bit int range."));
+            return BinaryWire.this;
+        }
+
         @NotNull
         @Override
         public WireOut marshallable(@NotNull WriteMarshallable object) {
@@ -1762,6 +1953,96 @@ public class BinaryWire implements Wire, InternalWireIn {
             return BinaryWire.this;
         }
 
+        @NotNull
+        @Override
+        public WireIn int64striped(@Nullable BinaryLongStripedReference values, @NotNull Consumer<BinaryLongStripedReference> setter) {
+            consumeSpecial();
+            int code = readCode();
+            if (code == I64_ARRAY) {
+                if (values == null)
+                    setter.accept(values = new BinaryLongStripedReference());
+                long length = BinaryLongArrayReference.peakLength(bytes, bytes.readPosition());
+                values.bytesStore(bytes, bytes.readPosition(), length);
+                bytes.readSkip(length);
+
+            } else {
+                cantRead(code);
+            }
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireIn int64queue(@Nullable BinaryLongQueueReference queue, @NotNull Consumer<BinaryLongQueueReference> setter) {
+            consumeSpecial();
+            int code = readCode();
+            if (code == I64_QUEUE) {
+                if (queue == null)
+                    setter.accept(queue = new BinaryLongQueueReference());
+                long length = BinaryLongQueueReference.peakLength(bytes, bytes.readPosition());
+                queue.bytesStore(bytes, bytes.readPosition(), length);
+                bytes.readSkip(length);
+
+            } else {
+                cantRead(code);
+            }
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireIn int64map(@Nullable BinaryLongLongMapReference map, @NotNull Consumer<BinaryLongLongMapReference> setter) {
+            consumeSpecial();
+            int code = readCode();
+            if (code == I64_MAP) {
+                if (map == null)
+                    setter.accept(map = new BinaryLongLongMapReference());
+                long length = BinaryLongLongMapReference.peakLength(bytes, bytes.readPosition());
+                map.bytesStore(bytes, bytes.readPosition(), length);
+                bytes.readSkip(length);
+
+            } else {
+                cantRead(code);
+            }
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireIn int32array(@Nullable BinaryIntArrayReference values, @NotNull Consumer<BinaryIntArrayReference> setter) {
+            consumeSpecial();
+            int code = readCode();
+            if (code == I32_ARRAY) {
+                if (values == null)
+                    setter.accept(values = new BinaryIntArrayReference());
+                long length = BinaryIntArrayReference.peakLength(bytes, bytes.readPosition());
+                values.bytesStore(bytes, bytes.readPosition(), length);
+                bytes.readSkip(length);
+
+            } else {
+                cantRead(code);
+            }
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireIn float64array(@Nullable BinaryDoubleArrayReference values, @NotNull Consumer<BinaryDoubleArrayReference> setter) {
+            consumeSpecial();
+            int code = readCode();
+            if (code == F64_ARRAY) {
+                if (values == null)
+                    setter.accept(values = new BinaryDoubleArrayReference());
+                long length = BinaryDoubleArrayReference.peakLength(bytes, bytes.readPosition());
+                values.bytesStore(bytes, bytes.readPosition(), length);
+                bytes.readSkip(length);
+
+            } else {
+                cantRead(code);
+            }
+            return BinaryWire.this;
+        }
+
         @NotNull
         @Override
         public WireIn int64(LongValue value) {
@@ -1788,6 +2069,48 @@ public class BinaryWire implements Wire, InternalWireIn {
             return int64(value);
         }
 
+        @NotNull
+        @Override
+        public WireIn float64(@Nullable DoubleValue value, @NotNull Consumer<DoubleValue> setter) {
+            consumeSpecial();
+            int code = readCode();
+            if (code != FLOAT64)
+                cantRead(code);
+            if (!(value instanceof BinaryDoubleReference))
+                setter.accept(value = new BinaryDoubleReference());
+            ((Byteable) value).bytesStore(bytes, bytes.readPosition(), 8);
+            bytes.readSkip(8);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireIn bool(@Nullable BooleanValue value, @NotNull Consumer<BooleanValue> setter) {
+            consumeSpecial();
+            int code = peekCode();
+            if (code != TRUE && code != FALSE)
+                cantRead(code);
+            if (!(value instanceof BinaryBooleanReference))
+                setter.accept(value = new BinaryBooleanReference());
+            ((Byteable) value).bytesStore(bytes, bytes.readPosition(), 1);
+            bytes.readSkip(1);
+            return BinaryWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireIn int8(@Nullable ByteValue value, @NotNull Consumer<ByteValue> setter) {
+            consumeSpecial();
+            int code = readCode();
+            if (code != INT8)
+                cantRead(code);
+            if (!(value instanceof BinaryByteReference))
+                setter.accept(value = new BinaryByteReference());
+            ((Byteable) value).bytesStore(bytes, bytes.readPosition(), 1);
+            bytes.readSkip(1);
+            return BinaryWire.this;
+        }
+
         @NotNull
         @Override
         public WireIn int32(IntValue value, @NotNull Consumer<IntValue> setter) {
@@ -1825,6 +2148,26 @@ public class BinaryWire implements Wire, InternalWireIn {
             return BinaryWire.this;
         }
 
+        @NotNull
+        @Override
+        public <T> WireIn sequence(T t, @NotNull BiConsumer<T, ValueIn> reader) {
+            consumeSpecial();
+            int code = readCode();
+            if (code != BYTES_LENGTH32)
+                cantRead(code);
+            final int length = bytes.readInt();
+            long limit = bytes.readLimit();
+            long limit2 = bytes.readPosition() + length;
+            bytes.readLimit(limit2);
+            try {
+                reader.accept(t, this);
+            } finally {
+                bytes.readLimit(limit);
+                bytes.readPosition(limit2);
+            }
+            return BinaryWire.this;
+        }
+
         @Override
         public <T> T applyToMarshallable(@NotNull Function<WireIn, T> marshallableReader) {
             consumeSpecial();
@@ -1859,10 +2202,10 @@ public class BinaryWire implements Wire, InternalWireIn {
                         throw new IllegalStateException("its not possible to Marshallable and object that" +
                                 " is not of type Marshallable, type=" + sb);
 
-                    final ReadMarshallable m = ObjectUtils.newInstance((Class<ReadMarshallable>) clazz);
+                    final ReadMarshallable m = instanceProvider.acquire((Class<ReadMarshallable>) clazz);
 
                     marshallable(m);
-                    return readResolve(m);
+                    return Wires.readResolve(instanceProvider, m);
 
                 case NULL:
                     return null;
@@ -2072,14 +2415,13 @@ public class BinaryWire implements Wire, InternalWireIn {
         @Nullable
         Object object0(@Nullable Object using, @NotNull Class clazz) {
             if (ReadMarshallable.class.isAssignableFrom(clazz)) {
-                final Object v;
-                if (using == null)
-                    v = ObjectUtils.newInstance(clazz);
-                else
-                    v = using;
-
+                if (using != null) {
+                    marshallable((ReadMarshallable) using);
+                    return readResolve(using);
+                }
+                final Object v = instanceProvider.acquire(clazz);
                 marshallable((ReadMarshallable) v);
-                return readResolve(v);
+                return Wires.readResolve(instanceProvider, v);
 
             } else if (CharSequence.class.isAssignableFrom(clazz)) {
                 if (StringBuilder.class.isAssignableFrom(clazz)) {
@@ -32,10 +32,16 @@ enum BinaryWireCode {
     // sequence of length 0 - 255
 //        static final int BYTES_LENGTH64 = 0x83;
 
+    // an append only array of 64-bit values with the number used
+    static final int I64_QUEUE = 0x87;
+    // an open addressing map of 64-bit keys to 64-bit values
+    static final int I64_MAP = 0x88;
+    // an array of 64-bit floating point values
+    static final int F64_ARRAY = 0x89;
     // an array of unsigned bytes
     static final int U8_ARRAY = 0x8A;
     //        static final int U16_ARRAY = 0x8B;
-//        static final int I32_ARRAY = 0x8C;
+    static final int I32_ARRAY = 0x8C;
     static final int I64_ARRAY = 0x8D;
     static final int PADDING32 = 0x8E;
     static final int PADDING = 0x8F;
@@ -0,0 +1,456 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.core.io.IOTools;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Reads CSV in the format of CSVWire, a header line followed by rows, into one array per column.
+ * <p>
+ * Only the columns given a type are decoded, numbers are parsed where they are in the Bytes and
+ * dates and times are converted to longs without creating objects.  The other columns are
+ * skipped by scanning for the next delimiter.  Text columns record the offset and length of each
+ * value, which is only turned into a String when asked for, so the Bytes must not be modified
+ * while the reader is in use.
+ * <p>
+ * Empty or missing values are read as 0, or NaN for a DOUBLE column.
+ * <p>
+ * This class is not thread safe.
+ */
+public class CSVColumnReader {
+    private static final long COMMAS = 0x2C2C2C2C2C2C2C2CL;
+    private static final long NEW_LINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long RETURNS = 0x0D0D0D0D0D0D0D0DL;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final Bytes<?> bytes;
+    private final List<String> header = new ArrayList<>();
+    private final Column[] columns;
+    private final Map<String, Column> columnMap = new LinkedHashMap<>();
+    private int rows = 0;
+    private int capacity = 0;
+
+    /**
+     * @param bytes the CSV text, starting with the header line.
+     * @param types the type of each column to read, other columns are skipped.
+     */
+    public CSVColumnReader(@NotNull Bytes<?> bytes, @NotNull Map<String, ColumnType> types) {
+        this.bytes = bytes;
+        readHeader();
+        columns = new Column[header.size()];
+        for (int i = 0; i < columns.length; i++) {
+            String name = header.get(i);
+            ColumnType type = types.get(name);
+            if (type == null || type == ColumnType.SKIP)
+                continue;
+            columns[i] = new Column(name, type);
+            columnMap.put(name, columns[i]);
+        }
+        for (String name : types.keySet())
+            if (types.get(name) != ColumnType.SKIP && !columnMap.containsKey(name))
+                throw new IllegalArgumentException("No column " + name + " in " + header);
+    }
+
+    @NotNull
+    public static CSVColumnReader fromFile(String name, @NotNull Map<String, ColumnType> types) throws IOException {
+        return new CSVColumnReader(Bytes.wrapForRead(IOTools.readFile(name)), types);
+    }
+
+    /**
+     * @return the position of the first CR, LF or comma in a little endian word, or 8 if none.
+     */
+    static int indexOfDelimiter(long word) {
+        return Long.numberOfTrailingZeros(zeroBytes(word ^ COMMAS)
+                | zeroBytes(word ^ NEW_LINES)
+                | zeroBytes(word ^ RETURNS)) >>> 3;
+    }
+
+    // the lowest byte flagged is exact, higher bytes may be false positives.
+    private static long zeroBytes(long v) {
+        return (v - ONES) & ~v & HIGH_BITS;
+    }
+
+    @NotNull
+    public List<String> header() {
+        return Collections.unmodifiableList(header);
+    }
+
+    /**
+     * @return the number of rows read so far.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Read all the remaining rows.
+     *
+     * @return the number of rows read.
+     */
+    public int read() {
+        return read(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Read up to maxRows more rows, appending them to the columns.
+     *
+     * @return the number of rows read.
+     */
+    public int read(int maxRows) {
+        final long limit = bytes.readLimit();
+        long pos = bytes.readPosition();
+        int read = 0;
+        try {
+            while (read < maxRows) {
+                pos = skipNewLines(pos, limit);
+                if (pos >= limit)
+                    break;
+                if (rows == capacity)
+                    grow();
+                int col = 0;
+                for (; ; ) {
+                    while (pos < limit && bytes.readUnsignedByte(pos) == ' ')
+                        pos++;
+                    long start = pos;
+                    pos = fieldEnd(pos, limit);
+                    if (col < columns.length && columns[col] != null)
+                        columns[col].parse(start, trimEnd(start, pos), limit);
+                    col++;
+                    if (pos >= limit || bytes.readUnsignedByte(pos++) != ',')
+                        break;
+                }
+                for (; col < columns.length; col++)
+                    if (columns[col] != null)
+                        columns[col].empty();
+                rows++;
+                read++;
+            }
+        } finally {
+            bytes.readLimit(limit);
+            bytes.readPosition(Math.min(pos, limit));
+        }
+        return read;
+    }
+
+    /**
+     * @return the values of a LONG, DATE, TIME or DATE_TIME column, valid up to rows()
+     */
+    @NotNull
+    public long[] longs(String name) {
+        Column column = column(name);
+        if (column.longs == null)
+            throw new IllegalArgumentException(name + " is a " + column.type + " column");
+        return column.longs;
+    }
+
+    /**
+     * @return the values of a DOUBLE column, valid up to rows()
+     */
+    @NotNull
+    public double[] doubles(String name) {
+        Column column = column(name);
+        if (column.doubles == null)
+            throw new IllegalArgumentException(name + " is a " + column.type + " column");
+        return column.doubles;
+    }
+
+    /**
+     * @return the text of a TEXT column for a row.
+     */
+    @NotNull
+    public String text(String name, int row) {
+        Column column = column(name);
+        if (column.starts == null)
+            throw new IllegalArgumentException(name + " is a " + column.type + " column");
+        if (row < 0 || row >= rows)
+            throw new IndexOutOfBoundsException("row: " + row + ", rows: " + rows);
+        int length = column.lengths[row];
+        if (length == 0)
+            return "";
+        String text = Bytes.toString(bytes, column.starts[row], length);
+        if (text.indexOf('\\') < 0 && text.indexOf('"') < 0)
+            return text;
+        StringBuilder sb = new StringBuilder(text);
+        CSVWire.unescapeQuoted(sb);
+        return sb.toString();
+    }
+
+    @NotNull
+    private Column column(String name) {
+        Column column = columnMap.get(name);
+        if (column == null)
+            throw new IllegalArgumentException("Column " + name + " not read");
+        return column;
+    }
+
+    private void readHeader() {
+        long limit = bytes.readLimit();
+        long pos = skipNewLines(bytes.readPosition(), limit);
+        for (; ; ) {
+            while (pos < limit && bytes.readUnsignedByte(pos) == ' ')
+                pos++;
+            long start = pos;
+            pos = fieldEnd(pos, limit);
+            long end = trimEnd(start, pos);
+            if (end - start >= 2 && bytes.readUnsignedByte(start) == '"') {
+                start++;
+                end--;
+            }
+            header.add(Bytes.toString(bytes, start, end - start));
+            if (pos >= limit || bytes.readUnsignedByte(pos++) != ',')
+                break;
+        }
+        bytes.readPosition(Math.min(pos, limit));
+    }
+
+    private long skipNewLines(long pos, long limit) {
+        int ch;
+        while (pos < limit && ((ch = bytes.readUnsignedByte(pos)) == '\n' || ch == '\r'))
+            pos++;
+        return pos;
+    }
+
+    /**
+     * @return the position of the comma or new line which ends this field, or the limit.
+     */
+    private long fieldEnd(long pos, long limit) {
+        if (pos < limit && bytes.readUnsignedByte(pos) == '"') {
+            for (pos++; pos < limit; pos++) {
+                int ch = bytes.readUnsignedByte(pos);
+                if (ch == '\\') {
+                    pos++;
+                } else if (ch == '"') {
+                    // a doubled quote is a quote in the field.
+                    if (pos + 1 < limit && bytes.readUnsignedByte(pos + 1) == '"') {
+                        pos++;
+                        continue;
+                    }
+                    pos++;
+                    break;
+                }
+            }
+        }
+        if (TextNumbers.LITTLE_ENDIAN) {
+            while (pos + 8 <= limit) {
+                int index = indexOfDelimiter(bytes.readLong(pos));
+                if (index < 8)
+                    return pos + index;
+                pos += 8;
+            }
+        }
+        for (int ch; pos < limit; pos++)
+            if ((ch = bytes.readUnsignedByte(pos)) == ',' || ch == '\n' || ch == '\r')
+                break;
+        return Math.min(pos, limit);
+    }
+
+    private long trimEnd(long start, long end) {
+        while (end > start && bytes.readUnsignedByte(end - 1) == ' ')
+            end--;
+        return end;
+    }
+
+    private void grow() {
+        capacity = Math.max(16, capacity * 2);
+        for (Column column : columns)
+            if (column != null)
+                column.grow(capacity);
+    }
+
+    public enum ColumnType {
+        SKIP,
+        LONG,
+        DOUBLE,
+        TEXT,
+        /**
+         * yyyy-MM-dd as the epoch day.
+         */
+        DATE,
+        /**
+         * HH:mm[:ss[.fffffffff]] as the nano of the day.
+         */
+        TIME,
+        /**
+         * yyyy-MM-dd HH:mm[:ss[.fffffffff]] with a 'T' or space as the separator and an optional
+         * trailing 'Z', as the epoch milli in UTC.
+         */
+        DATE_TIME
+    }
+
+    class Column {
+        final String name;
+        final ColumnType type;
+        long[] longs;
+        double[] doubles;
+        long[] starts;
+        int[] lengths;
+
+        Column(String name, ColumnType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        void grow(int capacity) {
+            switch (type) {
+                case DOUBLE:
+                    doubles = doubles == null ? new double[capacity] : Arrays.copyOf(doubles, capacity);
+                    break;
+                case TEXT:
+                    starts = starts == null ? new long[capacity] : Arrays.copyOf(starts, capacity);
+                    lengths = lengths == null ? new int[capacity] : Arrays.copyOf(lengths, capacity);
+                    break;
+                default:
+                    longs = longs == null ? new long[capacity] : Arrays.copyOf(longs, capacity);
+                    break;
+            }
+        }
+
+        void empty() {
+            switch (type) {
+                case DOUBLE:
+                    doubles[rows] = Double.NaN;
+                    break;
+                case TEXT:
+                    starts[rows] = 0;
+                    lengths[rows] = 0;
+                    break;
+                default:
+                    longs[rows] = 0;
+                    break;
+            }
+        }
+
+        void parse(long start, long end, long limit) {
+            if (start >= end) {
+                empty();
+                return;
+            }
+            switch (type) {
+                case LONG:
+                    bytes.readLimit(end);
+                    bytes.readPosition(start);
+                    longs[rows] = TextNumbers.parseLong(bytes);
+                    bytes.readLimit(limit);
+                    break;
+                case DOUBLE:
+                    bytes.readLimit(end);
+                    bytes.readPosition(start);
+                    doubles[rows] = TextNumbers.parseDouble(bytes);
+                    bytes.readLimit(limit);
+                    break;
+                case TEXT:
+                    if (end - start >= 2 && bytes.readUnsignedByte(start) == '"') {
+                        start++;
+                        end--;
+                    }
+                    starts[rows] = start;
+                    lengths[rows] = (int) (end - start);
+                    break;
+                case DATE:
+                    longs[rows] = epochDay(start, end);
+                    break;
+                case TIME:
+                    longs[rows] = nanoOfDay(start, end);
+                    break;
+                case DATE_TIME: {
+                    long days = epochDay(start, Math.min(end, start + 10));
+                    long nanos = 0;
+                    long pos = start + 10;
+                    if (pos < end) {
+                        int sep = bytes.readUnsignedByte(pos);
+                        if (sep != 'T' && sep != ' ')
+                            throw invalid(start, end);
+                        long timeEnd = end;
+                        if (bytes.readUnsignedByte(timeEnd - 1) == 'Z')
+                            timeEnd--;
+                        nanos = nanoOfDay(pos + 1, timeEnd);
+                    }
+                    longs[rows] = days * 86_400_000L + nanos / 1_000_000;
+                    break;
+                }
+                default:
+                    throw new AssertionError(type);
+            }
+        }
+
+        private long epochDay(long start, long end) {
+            if (end - start != 10 || bytes.readUnsignedByte(start + 4) != '-' || bytes.readUnsignedByte(start + 7) != '-')
+                throw invalid(start, end);
+            long year = digits(start, 4, end);
+            int month = (int) digits(start + 5, 2, end);
+            int day = (int) digits(start + 8, 2, end);
+            if (month < 1 || month > 12 || day < 1 || day > 31)
+                throw invalid(start, end);
+            // days from the civil calendar, valid for all years.
+            year -= month <= 2 ? 1 : 0;
+            long era = Math.floorDiv(year, 400);
+            long yearOfEra = year - era * 400;
+            int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+            long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+            return era * 146097 + dayOfEra - 719468;
+        }
+
+        private long nanoOfDay(long start, long end) {
+            if (end - start < 5 || bytes.readUnsignedByte(start + 2) != ':')
+                throw invalid(start, end);
+            long hours = digits(start, 2, end);
+            long minutes = digits(start + 3, 2, end);
+            long seconds = 0;
+            long nanos = 0;
+            if (end - start > 5) {
+                if (end - start < 8 || bytes.readUnsignedByte(start + 5) != ':')
+                    throw invalid(start, end);
+                seconds = digits(start + 6, 2, end);
+                if (end - start > 8) {
+                    if (bytes.readUnsignedByte(start + 8) != '.' || end - start > 18)
+                        throw invalid(start, end);
+                    int n = (int) (end - start - 9);
+                    nanos = digits(start + 9, n, end);
+                    for (int i = n; i < 9; i++)
+                        nanos *= 10;
+                }
+            }
+            if (hours > 23 || minutes > 59 || seconds > 59)
+                throw invalid(start, end);
+            return ((hours * 60 + minutes) * 60 + seconds) * 1_000_000_000L + nanos;
+        }
+
+        private long digits(long pos, int count, long end) {
+            if (pos + count > end)
+                throw invalid(pos, end);
+            long value = 0;
+            for (int i = 0; i < count; i++) {
+                int ch = bytes.readUnsignedByte(pos + i);
+                if (ch < '0' || ch > '9')
+                    throw invalid(pos, end);
+                value = value * 10 + ch - '0';
+            }
+            return value;
+        }
+
+        @NotNull
+        private IllegalStateException invalid(long start, long end) {
+            return new IllegalStateException("Unable to parse " + type + " column " + name
+                    + " row " + rows + " from '" + Bytes.toString(bytes, start, end - start) + "'");
+        }
+    }
+}
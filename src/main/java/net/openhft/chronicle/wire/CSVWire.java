@@ -58,30 +58,43 @@ public class CSVWire implements Wire, InternalWireIn {
     static final BitSet STARTS_QUOTE_CHARS = new BitSet();
     static final BitSet QUOTE_CHARS = new BitSet();
     static final Logger LOG = LoggerFactory.getLogger(CSVWire.class);
-    static final ThreadLocal<StopCharTester> ESCAPED_QUOTES = ThreadLocal.withInitial(() -> StopCharTesters.QUOTES.escaping());
-    static final ThreadLocal<StopCharTester> ESCAPED_SINGLE_QUOTES = ThreadLocal.withInitial(() -> StopCharTesters.SINGLE_QUOTES.escaping());
-    static final ThreadLocal<StopCharTester> ESCAPED_END_OF_TEXT = ThreadLocal.withInitial(() -> StopCharTesters.COMMA_STOP.escaping());
     static final BytesStore COMMA_SPACE = BytesStore.wrap(", ");
     static final BytesStore COMMA_NEW_LINE = BytesStore.wrap(",\n");
     static final BytesStore NEW_LINE = BytesStore.wrap("\n");
     static final BytesStore SPACE = BytesStore.wrap(" ");
     static final BytesStore END_FIELD = NEW_LINE;
     static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    // the character after the backslash for each ASCII character which may need escaping, or 0.
+    static final byte[] ESCAPE_CHARS = new byte[128];
 
     static {
         for (char ch : "0123456789+- \t\',#:{}[]|>".toCharArray())
             STARTS_QUOTE_CHARS.set(ch);
         for (char ch : "\',#:{}[]|>".toCharArray())
             QUOTE_CHARS.set(ch);
+        ESCAPE_CHARS['"'] = '"';
+        ESCAPE_CHARS['\''] = '\'';
+        ESCAPE_CHARS['\\'] = '\\';
+        ESCAPE_CHARS['\b'] = 'b';
+        ESCAPE_CHARS['\t'] = 't';
+        ESCAPE_CHARS['\r'] = 'r';
+        ESCAPE_CHARS['\n'] = 'n';
     }
 
     private final Bytes<?> bytes;
     private final TextValueOut valueOut = new TextValueOut();
     private final TextValueIn valueIn = new TextValueIn();
+    private final StopCharTester escapedQuotes = StopCharTesters.QUOTES.escaping();
+    private final StopCharTester escapedSingleQuotes = StopCharTesters.SINGLE_QUOTES.escaping();
+    private final StopCharTester escapedEndOfText = StopCharTesters.COMMA_STOP.escaping();
     private final boolean use8bit;
     private final List<String> header = new ArrayList<>();
+    @NotNull
+    private InstanceProvider instanceProvider = InstanceProvider.NEW_INSTANCE;
     private boolean ready;
     private long lineStart = 0;
+    // the index of the first character to escape, as found by needsQuotes.
+    private int firstEscape = 0;
 
     public CSVWire(Bytes bytes, boolean use8bit) {
         this.bytes = bytes;
@@ -94,6 +107,18 @@ public class CSVWire implements Wire, InternalWireIn {
         this(bytes, false);
     }
 
+    /**
+     * Read rows which don't start with a header line, e.g. part of a larger file.
+     *
+     * @param header the column names read from the start of the file.
+     */
+    public CSVWire(Bytes bytes, boolean use8bit, @NotNull List<String> header) {
+        this.bytes = bytes;
+        this.use8bit = use8bit;
+        this.header.addAll(header);
+        this.lineStart = bytes.readPosition();
+    }
+
     public static CSVWire fromFile(String name) throws IOException {
         return new CSVWire(Bytes.wrapForRead(IOTools.readFile(name)), true);
     }
@@ -103,6 +128,11 @@ public class CSVWire implements Wire, InternalWireIn {
         return new CSVWire(Bytes.from(text));
     }
 
+    @NotNull
+    public List<String> header() {
+        return Collections.unmodifiableList(header);
+    }
+
     public static String asText(@NotNull Wire wire) {
         long pos = wire.bytes().readPosition();
         CSVWire tw = new CSVWire(nativeBytes());
@@ -113,9 +143,19 @@ public class CSVWire implements Wire, InternalWireIn {
     }
 
     public static <ACS extends Appendable & CharSequence> void unescape(@NotNull ACS sb) {
-        int end = 0;
         int length = sb.length();
-        for (int i = 0; i < length; i++) {
+        int from = 0;
+        while (from < length - 1 && sb.charAt(from) != '\\')
+            from++;
+        // nothing to unescape, leave the text as it is.
+        if (from >= length - 1)
+            return;
+        if (sb instanceof Bytes) {
+            unescape((Bytes) sb, from, length);
+            return;
+        }
+        int end = from;
+        for (int i = from; i < length; i++) {
             char ch = sb.charAt(i);
             if (ch == '\\' && i < length - 1) {
                 char ch3 = sb.charAt(++i);
@@ -155,6 +195,70 @@ public class CSVWire implements Wire, InternalWireIn {
         AppendableUtil.setLength(sb, end);
     }
 
+    /**
+     * Unescape the text of a field in double quotes, where a quote may be written as two quotes as
+     * well as escaped with a backslash.
+     */
+    public static <ACS extends Appendable & CharSequence> void unescapeQuoted(@NotNull ACS sb) {
+        int length = sb.length();
+        int end = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = sb.charAt(i);
+            if (ch == '\\' && i < length - 1) {
+                // leave backslash escapes for unescape
+                AppendableUtil.setCharAt(sb, end++, ch);
+                ch = sb.charAt(++i);
+            } else if (ch == '"' && i < length - 1 && sb.charAt(i + 1) == '"') {
+                i++;
+            }
+            AppendableUtil.setCharAt(sb, end++, ch);
+        }
+        AppendableUtil.setLength(sb, end);
+        unescape(sb);
+    }
+
+    /**
+     * Unescape text in place, reading and writing the underlying bytes directly.
+     */
+    private static void unescape(@NotNull Bytes bytes, int from, int length) {
+        long start = bytes.readPosition();
+        int end = from;
+        for (int i = from; i < length; i++) {
+            int ch = bytes.readUnsignedByte(start + i);
+            if (ch == '\\' && i < length - 1) {
+                int ch3 = bytes.readUnsignedByte(start + ++i);
+                switch (ch3) {
+                    case 'b':
+                        ch = '\b';
+                        break;
+                    case 'r':
+                        ch = '\r';
+                        break;
+                    case 'n':
+                        ch = '\n';
+                        break;
+                    case 't':
+                        ch = '\t';
+                        break;
+                    case 'x':
+                        ch = Character.getNumericValue(bytes.readUnsignedByte(start + ++i)) * 16 +
+                                Character.getNumericValue(bytes.readUnsignedByte(start + ++i));
+                        break;
+                    case 'u':
+                        ch = Character.getNumericValue(bytes.readUnsignedByte(start + ++i)) * 4096 +
+                                Character.getNumericValue(bytes.readUnsignedByte(start + ++i)) * 256 +
+                                Character.getNumericValue(bytes.readUnsignedByte(start + ++i)) * 16 +
+                                Character.getNumericValue(bytes.readUnsignedByte(start + ++i));
+                        break;
+                    default:
+                        ch = ch3;
+                }
+            }
+            bytes.writeByte(start + end++, (byte) ch);
+        }
+        AppendableUtil.setLength(bytes, end);
+    }
+
     public String toString() {
         return bytes.toString();
     }
@@ -169,6 +273,17 @@ public class CSVWire implements Wire, InternalWireIn {
         this.ready = ready;
     }
 
+    @NotNull
+    @Override
+    public InstanceProvider instanceProvider() {
+        return instanceProvider;
+    }
+
+    @Override
+    public void instanceProvider(@NotNull InstanceProvider instanceProvider) {
+        this.instanceProvider = instanceProvider;
+    }
+
     @Override
     public void copyTo(@NotNull WireOut wire) {
         wire.bytes().write(bytes, bytes().readPosition(), bytes().readLimit());
@@ -188,21 +303,21 @@ public class CSVWire implements Wire, InternalWireIn {
 
     @NotNull
     private StopCharTester getEscapingEndOfText() {
-        StopCharTester escaping = ESCAPED_END_OF_TEXT.get();
+        StopCharTester escaping = escapedEndOfText;
         // reset it.
         escaping.isStopChar(' ');
         return escaping;
     }
 
     private StopCharTester getEscapingQuotes() {
-        StopCharTester sct = ESCAPED_QUOTES.get();
+        StopCharTester sct = escapedQuotes;
         // reset it.
         sct.isStopChar(' ');
         return sct;
     }
 
     private StopCharTester getEscapingSingleQuotes() {
-        StopCharTester sct = ESCAPED_SINGLE_QUOTES.get();
+        StopCharTester sct = escapedSingleQuotes;
         // reset it.
         sct.isStopChar(' ');
         return sct;
@@ -211,16 +326,19 @@ public class CSVWire implements Wire, InternalWireIn {
     void consumeWhiteSpace() {
         for (; ; ) {
             int codePoint = peekCode();
-            if (codePoint == '#') {
+            int cls = TextCharClass.classOf(codePoint);
+            if (cls == 0) {
+                break;
+            } else if (codePoint == ' ') {
+                bytes.readPosition(TextCharClass.skipSpaces(bytes, bytes.readPosition(), bytes.readLimit()));
+            } else if ((cls & TextCharClass.COMMENT) != 0) {
                 //noinspection StatementWithEmptyBody
                 while (readCode() >= ' ') ;
                 this.lineStart = bytes.readPosition();
-            } else if (Character.isWhitespace(codePoint) || codePoint == ',') {
-                if (codePoint == '\n' || codePoint == '\r')
+            } else {
+                if ((cls & TextCharClass.NEW_LINE) != 0)
                     this.lineStart = bytes.readPosition() + 1;
                 bytes.readSkip(1);
-            } else {
-                break;
             }
         }
     }
@@ -356,76 +474,91 @@ public class CSVWire implements Wire, InternalWireIn {
     void escape(@NotNull CharSequence s) {
         Quotes quotes = needsQuotes(s);
         if (quotes == Quotes.NONE) {
-            escape0(s, quotes);
+            escape0(s, quotes, firstEscape);
             return;
         }
         bytes.append(quotes.q);
-        escape0(s, quotes);
+        escape0(s, quotes, firstEscape);
         bytes.append(quotes.q);
     }
 
-    private void escape0(@NotNull CharSequence s, CSVWire.Quotes quotes) {
-        for (int i = 0; i < s.length(); i++) {
+    /**
+     * Write the text, copying each run of characters which need no escaping in one call.
+     * Characters above 127 are written as UTF-8 unless the wire is 8-bit.
+     */
+    private void escape0(@NotNull CharSequence s, @NotNull CSVWire.Quotes quotes, int from) {
+        int length = s.length();
+        int start = 0;
+        for (int i = from; i < length; i++) {
             char ch = s.charAt(i);
-            switch (ch) {
-                case '"':
-                    if (ch == quotes.q) {
-                        bytes.append('\\').append(ch);
-                    } else {
-                        bytes.append(ch);
-                    }
-                    break;
-                case '\'':
-                    if (ch == quotes.q) {
-                        bytes.append('\\').append(ch);
-                    } else {
-                        bytes.append(ch);
-                    }
-                    break;
-                case '\\':
-                    bytes.append('\\').append(ch);
-                    break;
-                case '\b':
-                    bytes.append("\\b");
-                    break;
-                case '\t':
-                    bytes.append("\\t");
-                    break;
-                case '\r':
-                    bytes.append("\\r");
-                    break;
-                case '\n':
-                    bytes.append("\\n");
-                    break;
-                default:
-                    if (ch > 127) {
-                        bytes.append("\\u");
-                        bytes.append(HEX[(ch >> 12) & 0xF]);
-                        bytes.append(HEX[(ch >> 8) & 0xF]);
-                        bytes.append(HEX[(ch >> 4) & 0xF]);
-                        bytes.append(HEX[ch & 0xF]);
-                    } else {
-                        bytes.append(ch);
-                    }
-                    break;
+            int esc;
+            if (ch < 128) {
+                esc = ESCAPE_CHARS[ch];
+                if (esc == 0 || ((ch == '"' || ch == '\'') && ch != quotes.q))
+                    continue;
+            } else if (use8bit) {
+                esc = 'u';
+            } else {
+                continue;
+            }
+            appendRun(s, start, i);
+            bytes.append('\\').append((char) esc);
+            if (esc == 'u') {
+                bytes.append(HEX[(ch >> 12) & 0xF]);
+                bytes.append(HEX[(ch >> 8) & 0xF]);
+                bytes.append(HEX[(ch >> 4) & 0xF]);
+                bytes.append(HEX[ch & 0xF]);
             }
+            start = i + 1;
         }
+        appendRun(s, start, length);
     }
 
-    Quotes needsQuotes(@NotNull CharSequence s) {
-        Quotes quotes = Quotes.NONE;
-        if (s.length() == 0)
-            return Quotes.DOUBLE;
+    private void appendRun(@NotNull CharSequence s, int start, int end) {
+        if (start >= end)
+            return;
+        if (use8bit)
+            bytes.append8bit(s, start, end);
+        else
+            bytes.append(s, start, end);
+    }
 
-        if (STARTS_QUOTE_CHARS.get(s.charAt(0)))
+    /**
+     * Scans the text once to choose the quotes and find the first character to escape.
+     */
+    Quotes needsQuotes(@NotNull CharSequence s) {
+        int length = s.length();
+        if (length == 0) {
+            firstEscape = 0;
             return Quotes.DOUBLE;
-        for (int i = 1; i < s.length(); i++) {
+        }
+        Quotes quotes = STARTS_QUOTE_CHARS.get(s.charAt(0)) ? Quotes.DOUBLE : Quotes.NONE;
+        int escape = length;
+        int doubleQuote = length;
+        for (int i = 0; i < length; i++) {
             char ch = s.charAt(i);
-            if (QUOTE_CHARS.get(ch))
-                return Quotes.DOUBLE;
-            if (ch == '"')
-                quotes = Quotes.SINGLE;
+            if (ch >= 128) {
+                if (use8bit && escape > i)
+                    escape = i;
+                continue;
+            }
+            if (ESCAPE_CHARS[ch] == 0 && !QUOTE_CHARS.get(ch))
+                continue;
+            if (i > 0) {
+                if (QUOTE_CHARS.get(ch))
+                    quotes = Quotes.DOUBLE;
+                else if (ch == '"' && quotes == Quotes.NONE)
+                    quotes = Quotes.SINGLE;
+            }
+            if (ch == '"') {
+                if (doubleQuote > i)
+                    doubleQuote = i;
+            } else if (ch != '\'' && ESCAPE_CHARS[ch] != 0 && escape > i) {
+                escape = i;
+            }
         }
+        // a single quote never needs escaping as it is only written inside double quotes.
+        firstEscape = quotes == Quotes.DOUBLE ? Math.min(escape, doubleQuote) : escape;
         return quotes;
     }
 
@@ -851,7 +984,7 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public WireOut float32(float f) {
             prependSeparator();
-            bytes.append(f);
+            TextNumbers.append(bytes, f);
             elementSeparator();
 
             return CSVWire.this;
@@ -861,7 +994,7 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public WireOut float64(double d) {
             prependSeparator();
-            bytes.append(d);
+            TextNumbers.append(bytes, d);
             elementSeparator();
 
             return CSVWire.this;
@@ -1251,7 +1384,7 @@ public class CSVWire implements Wire, InternalWireIn {
                     }
                     // trim trailing spaces.
                     while (a.length() > 0)
-                        if (Character.isWhitespace(a.charAt(a.length() - 1)))
+                        if (TextCharClass.isWhitespace(a.charAt(a.length() - 1)))
                             AppendableUtil.setLength(a, a.length() - 1);
                         else
                             break;
@@ -1283,7 +1416,7 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public WireIn int8(@NotNull ByteConsumer i) {
             consumeWhiteSpace();
-            i.accept((byte) bytes.parseLong());
+            i.accept((byte) TextNumbers.parseLong(bytes));
             return CSVWire.this;
         }
 
@@ -1457,7 +1590,7 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint8(@NotNull ShortConsumer i) {
             consumeWhiteSpace();
-            i.accept((short) bytes.parseLong());
+            i.accept((short) TextNumbers.parseLong(bytes));
             return CSVWire.this;
         }
 
@@ -1465,7 +1598,7 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public WireIn int16(@NotNull ShortConsumer i) {
             consumeWhiteSpace();
-            i.accept((short) bytes.parseLong());
+            i.accept((short) TextNumbers.parseLong(bytes));
             return CSVWire.this;
         }
 
@@ -1473,7 +1606,7 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint16(@NotNull IntConsumer i) {
             consumeWhiteSpace();
-            i.accept((int) bytes.parseLong());
+            i.accept((int) TextNumbers.parseLong(bytes));
             return CSVWire.this;
         }
 
@@ -1481,7 +1614,7 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public WireIn int32(@NotNull IntConsumer i) {
             consumeWhiteSpace();
-            i.accept((int) bytes.parseLong());
+            i.accept((int) TextNumbers.parseLong(bytes));
             return CSVWire.this;
         }
 
@@ -1489,7 +1622,7 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint32(@NotNull LongConsumer i) {
             consumeWhiteSpace();
-            i.accept(bytes.parseLong());
+            i.accept(TextNumbers.parseLong(bytes));
             return CSVWire.this;
         }
 
@@ -1497,7 +1630,7 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public WireIn int64(@NotNull LongConsumer i) {
             consumeWhiteSpace();
-            i.accept(bytes.parseLong());
+            i.accept(TextNumbers.parseLong(bytes));
             return CSVWire.this;
         }
 
@@ -1505,7 +1638,7 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public WireIn float32(@NotNull FloatConsumer v) {
             consumeWhiteSpace();
-            v.accept((float) bytes.parseDouble());
+            v.accept((float) TextNumbers.parseDouble(bytes));
             return CSVWire.this;
         }
 
@@ -1513,7 +1646,7 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public WireIn float64(@NotNull DoubleConsumer v) {
             consumeWhiteSpace();
-            v.accept(bytes.parseDouble());
+            v.accept(TextNumbers.parseDouble(bytes));
             return CSVWire.this;
         }
 
@@ -1766,10 +1899,10 @@ public class CSVWire implements Wire, InternalWireIn {
                     throw new ClassCastException("Cannot convert " + sb + " to ReadMarshallable.");
 
                 Class<ReadMarshallable> clazz1 = (Class<ReadMarshallable>) clazz;
-                final ReadMarshallable m = ObjectUtils.newInstance(clazz1);
+                final ReadMarshallable m = instanceProvider.acquire(clazz1);
 
                 marshallable(m);
-                return readResolve(m);
+                return Wires.readResolve(instanceProvider, m);
             } catch (Exception e) {
                 throw new IORuntimeException(e);
             }
@@ -1886,13 +2019,13 @@ public class CSVWire implements Wire, InternalWireIn {
         @Override
         public long int64() {
             consumeWhiteSpace();
-            return bytes.parseLong();
+            return TextNumbers.parseLong(bytes);
         }
 
         @Override
         public double float64() {
             consumeWhiteSpace();
-            return bytes.parseDouble();
+            return TextNumbers.parseDouble(bytes);
         }
 
         @Override
@@ -1952,14 +2085,13 @@ public class CSVWire implements Wire, InternalWireIn {
             }
 
             if (ReadMarshallable.class.isAssignableFrom(clazz)) {
-                final Object v;
-                if (using == null)
-                    v = ObjectUtils.newInstance(clazz);
-                else
-                    v = using;
-
+                if (using != null) {
+                    valueIn.marshallable((ReadMarshallable) using);
+                    return readResolve(using);
+                }
+                final Object v = instanceProvider.acquire(clazz);
                 valueIn.marshallable((ReadMarshallable) v);
-                return readResolve(v);
+                return Wires.readResolve(instanceProvider, v);
 
             } else if (StringBuilder.class.isAssignableFrom(clazz)) {
                 StringBuilder builder = (using == null)
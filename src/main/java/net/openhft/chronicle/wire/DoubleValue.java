@@ -0,0 +1,36 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+/**
+ * A 64-bit floating point value bound to bytes, c.f. LongValue
+ */
+public interface DoubleValue {
+    double getValue();
+
+    void setValue(double value);
+
+    double getVolatileValue();
+
+    void setOrderedValue(double value);
+
+    double addValue(double delta);
+
+    /**
+     * Compares the raw bits, so NaN matches NaN and -0.0 doesn't match 0.0
+     */
+    boolean compareAndSwapValue(double expected, double value);
+}
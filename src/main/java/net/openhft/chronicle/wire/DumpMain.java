@@ -0,0 +1,113 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Dump a file of size prefixed documents as YAML to standard out.
+ * <p>
+ * Usage: DumpMain {file} [from-index] [max-documents]
+ * <p>
+ * The file is memory mapped a window at a time so files larger than the heap can be dumped.
+ */
+public class DumpMain {
+    static final long WINDOW_SIZE = 1L << 30;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java " + DumpMain.class.getName() + " {file} [from-index] [max-documents]");
+            System.exit(-1);
+        }
+        long fromIndex = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        long maxDocuments = args.length > 2 ? Long.parseLong(args[2]) : Long.MAX_VALUE;
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.ISO_8859_1), 1 << 20);
+        dump(new File(args[0]), fromIndex, maxDocuments, out);
+        out.flush();
+    }
+
+    public static void dump(@NotNull File file, long fromIndex, long maxDocuments, @NotNull Appendable out) throws IOException {
+        WireDumper dumper = new WireDumper();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel fc = raf.getChannel()) {
+            long size = fc.size();
+            long position = 0;
+            while (position < size && maxDocuments > 0) {
+                long windowSize = Math.min(size - position, WINDOW_SIZE);
+                Bytes<ByteBuffer> bytes = map(fc, position, windowSize);
+                long[] count = {0};
+                long length = completeDocuments(bytes, windowSize, count);
+                if (length == 0) {
+                    if (windowSize < 4)
+                        break;
+                    int header = bytes.readInt(0);
+                    if (header == 0)
+                        break;
+                    long docSize = 4L + Wires.lengthOf(header);
+                    if (position + docSize > size) {
+                        // dump what there is of the last document.
+                        length = windowSize;
+                        count[0] = 1;
+
+                    } else {
+                        bytes = map(fc, position, docSize);
+                        length = docSize;
+                        count[0] = 1;
+                    }
+                }
+                dumper.dump(bytes, 0, length, fromIndex, maxDocuments, out);
+                long dumped = Math.max(0, Math.min(count[0] - fromIndex, maxDocuments));
+                fromIndex = Math.max(0, fromIndex - count[0]);
+                maxDocuments -= dumped;
+                position += length;
+                // stop at the end of the data written so far.
+                if (length + 4 <= bytes.readLimit() && bytes.readInt(length) == 0)
+                    break;
+            }
+        }
+    }
+
+    @NotNull
+    private static Bytes<ByteBuffer> map(@NotNull FileChannel fc, long position, long size) throws IOException {
+        MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, position, size);
+        return Bytes.wrapForRead(mbb);
+    }
+
+    /**
+     * @return the length of the complete documents at the start of the window.
+     */
+    private static long completeDocuments(@NotNull Bytes<ByteBuffer> bytes, long windowSize, @NotNull long[] count) {
+        long position = 0;
+        while (position + 4 <= windowSize) {
+            int header = bytes.readInt(position);
+            if (header == 0)
+                break;
+            long next = position + 4 + Wires.lengthOf(header);
+            if (next > windowSize)
+                break;
+            position = next;
+            count[0]++;
+        }
+        return position;
+    }
+}
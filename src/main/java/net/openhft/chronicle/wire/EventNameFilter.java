@@ -0,0 +1,181 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static net.openhft.chronicle.wire.BinaryWireCode.*;
+
+/**
+ * Decides whether a document is of interest by peeking at the raw bytes of its first field,
+ * without decoding the name into a StringBuilder.  The names and codes are compiled into an
+ * open addressing table when the filter is built.
+ * <p>
+ * If the first field can't be identified cheaply e.g. it is preceded by a comment or type, the
+ * document is accepted so it can be handled by the normal decoding path.
+ */
+public class EventNameFilter {
+    private final byte[][] names;
+    private final int mask;
+    private final int[] codes;
+    private final int maxNameLength;
+
+    private EventNameFilter(@NotNull WireKey... keys) {
+        int size = 16;
+        while (size < keys.length * 2)
+            size <<= 1;
+        names = new byte[size][];
+        mask = size - 1;
+        int[] codes = new int[keys.length];
+        int count = 0;
+        int max = 0;
+        for (WireKey key : keys) {
+            CharSequence name = key.name();
+            // the default code() is derived from the name.
+            if (name == null)
+                continue;
+            codes[count++] = key.code();
+            byte[] bytes = name.toString().getBytes(StandardCharsets.UTF_8);
+            max = Math.max(max, bytes.length);
+            int h = hash(bytes);
+            while (names[h & mask] != null && !Arrays.equals(names[h & mask], bytes))
+                h++;
+            names[h & mask] = bytes;
+        }
+        this.codes = Arrays.copyOf(codes, count);
+        Arrays.sort(this.codes);
+        maxNameLength = max;
+    }
+
+    @NotNull
+    public static EventNameFilter of(@NotNull WireKey... keys) {
+        return new EventNameFilter(keys);
+    }
+
+    static int hash(@NotNull byte[] bytes) {
+        int h = bytes.length;
+        for (byte b : bytes)
+            h = h * 31 + b;
+        return h ^ (h >>> 16);
+    }
+
+    static int hash(@NotNull BytesStore bytes, long offset, int length) {
+        int h = length;
+        for (int i = 0; i < length; i++)
+            h = h * 31 + bytes.readByte(offset + i);
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @param bytes  containing the document
+     * @param offset of the first byte after the header
+     * @param length of the document
+     * @return true if the document should be read, false if it can be skipped.
+     */
+    public boolean test(@NotNull Bytes<?> bytes, long offset, int length) {
+        if (length < 1)
+            return true;
+        int code = bytes.readUnsignedByte(offset);
+        return code >= 0x80
+                ? testBinary(bytes, offset, length, code)
+                : testText(bytes, offset, length);
+    }
+
+    private boolean testBinary(@NotNull Bytes<?> bytes, long offset, int length, int code) {
+        long end = offset + length;
+        while (code == PADDING && ++offset < end)
+            code = bytes.readUnsignedByte(offset);
+        if (code >= FIELD_NAME0 && code <= FIELD_NAME31) {
+            int len = code - FIELD_NAME0;
+            return offset + 1 + len <= end && containsName(bytes, offset + 1, len);
+        }
+        switch (code) {
+            case FIELD_NAME_ANY:
+            case EVENT_NAME: {
+                long position = bytes.readPosition();
+                try {
+                    bytes.readPosition(offset + 1);
+                    long len = bytes.readStopBit();
+                    return len >= 0 && len <= maxNameLength
+                            && bytes.readPosition() + len <= end
+                            && containsName(bytes, bytes.readPosition(), (int) len);
+                } finally {
+                    bytes.readPosition(position);
+                }
+            }
+            case FIELD_NUMBER: {
+                long position = bytes.readPosition();
+                try {
+                    bytes.readPosition(offset + 1);
+                    long fieldId = bytes.readStopBit();
+                    return fieldId == (int) fieldId && Arrays.binarySearch(codes, (int) fieldId) >= 0;
+                } finally {
+                    bytes.readPosition(position);
+                }
+            }
+            default:
+                return true;
+        }
+    }
+
+    private boolean testText(@NotNull Bytes<?> bytes, long offset, int length) {
+        long end = offset + length;
+        long start = offset;
+        int ch = 0;
+        while (start < end && ((ch = bytes.readUnsignedByte(start)) == ' ' || ch == '\n' || ch == '\r' || ch == '\t' || ch == '{'))
+            start++;
+        if (start >= end)
+            return true;
+        if (ch == '"') {
+            start++;
+        } else if (ch == '#' || ch == '!' || ch == '-') {
+            return true;
+        }
+        for (long i = start; i < end && i <= start + maxNameLength; i++) {
+            ch = bytes.readUnsignedByte(i);
+            if (ch == '\\')
+                return true;
+            if (ch == '"' || ch == ':')
+                return containsName(bytes, start, (int) (i - start));
+        }
+        return false;
+    }
+
+    private boolean containsName(@NotNull Bytes<?> bytes, long offset, int length) {
+        if (length > maxNameLength)
+            return false;
+        int h = hash(bytes, offset, length);
+        for (; ; h++) {
+            byte[] name = names[h & mask];
+            if (name == null)
+                return false;
+            if (name.length == length && matches(bytes, offset, name))
+                return true;
+        }
+    }
+
+    private static boolean matches(@NotNull Bytes<?> bytes, long offset, @NotNull byte[] name) {
+        for (int i = 0; i < name.length; i++)
+            if (bytes.readByte(offset + i) != name[i])
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,477 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.util.ObjectUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static net.openhft.chronicle.wire.BinaryWireCode.*;
+
+/**
+ * Implements an interface of getters and setters as a flyweight over a fixed layout region of a
+ * binary wire document.
+ * <p>
+ * Each property is a field of the region, written with int32forBinding for an int,
+ * int64forBinding for a long and float64forBinding for a double.  The methods supported
+ * for a property Xxx of type int, long or double are
+ * <pre>
+ * getXxx(), getVolatileXxx(), setXxx(v), setOrderedXxx(v), compareAndSwapXxx(expected, v) and addXxx(delta)
+ * </pre>
+ * where add returns the new value.  The instances implement Byteable and are bound to a region
+ * with bytesStore(bytes, offset, length), after which every access is a read or write at a fixed
+ * offset with no decoding.  Where the values are in a region depends on the padding added, which
+ * depends on the alignment of the region, so the offsets are found once per alignment and reused.
+ * <p>
+ * For an interface annotated with {@link GenerateFlyweight} the chronicle-wire-processor generates
+ * an {@code <Interface>Flyweight} class, which newInstance uses if it is on the class path.  Its
+ * accessors are plain methods with no reflection or boxing, so they don't allocate.  Otherwise
+ * newInstance returns a java.lang.reflect.Proxy, which boxes arguments and return values.
+ */
+public class Flyweight<T> {
+    private static final Map<Class, Flyweight> FLYWEIGHTS = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+    @Nullable
+    private final Class<? extends T> generated;
+    private final Property[] properties;
+    private final Map<Method, Accessor> accessors = new HashMap<>();
+    // value offsets relative to the start of the region, by the start's position in a cache line.
+    private final AtomicReferenceArray<long[]> layouts = new AtomicReferenceArray<>(64);
+
+    private Flyweight(@NotNull Class<T> type) {
+        if (!type.isInterface())
+            throw new IllegalArgumentException(type + " is not an interface");
+        this.type = type;
+        Map<String, Property> byName = new TreeMap<>();
+        List<Method> methods = new ArrayList<>();
+        for (Method method : type.getMethods()) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())
+                    || method.getDeclaringClass() == Byteable.class)
+                continue;
+            methods.add(method);
+            Kind kind = Kind.of(method);
+            String name = decapitalize(method.getName().substring(kind.prefix.length()));
+            Class valueType = kind.valueType(method);
+            if (valueType != int.class && valueType != long.class && valueType != double.class)
+                throw new IllegalArgumentException(method + " must use int, long or double");
+            if (kind == Kind.CAS && valueType == double.class)
+                throw new IllegalArgumentException(method + " compare and swap of a double isn't supported");
+            Property property = byName.computeIfAbsent(name, n -> new Property(n, valueType));
+            if (property.type != valueType)
+                throw new IllegalArgumentException(method + " doesn't match the type of " + name + ", " + property.type);
+        }
+        this.properties = byName.values().toArray(new Property[byName.size()]);
+        for (int i = 0; i < properties.length; i++)
+            properties[i].index = i;
+        for (Method method : methods) {
+            Kind kind = Kind.of(method);
+            String name = decapitalize(method.getName().substring(kind.prefix.length()));
+            accessors.put(method, new Accessor(kind, byName.get(name)));
+        }
+        this.generated = generatedClass(type);
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <T> Class<? extends T> generatedClass(@NotNull Class<T> type) {
+        // the name given by the processor, e.g. Outer_InnerFlyweight for Outer.Inner
+        String name = type.getName();
+        int lastDot = name.lastIndexOf('.');
+        String generatedName = name.substring(0, lastDot + 1)
+                + name.substring(lastDot + 1).replace('$', '_') + "Flyweight";
+        try {
+            // not initialised here as its static fields call Flyweight.of(type)
+            Class<?> generated = Class.forName(generatedName, false, type.getClassLoader());
+            return type.isAssignableFrom(generated) && Byteable.class.isAssignableFrom(generated)
+                    ? (Class<? extends T>) generated : null;
+        } catch (ClassNotFoundException notGenerated) {
+            return null;
+        }
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> Flyweight<T> of(@NotNull Class<T> type) {
+        return FLYWEIGHTS.computeIfAbsent(type, Flyweight::new);
+    }
+
+    @NotNull
+    private static String decapitalize(@NotNull String name) {
+        if (name.isEmpty() || name.length() >= 0x20 || Character.isDigit(name.charAt(0)))
+            throw new IllegalArgumentException("Unsupported property name '" + name + "'");
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * @return a new instance which must be bound with bytesStore before use.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public T newInstance() {
+        if (generated != null)
+            return ObjectUtils.newInstance(generated);
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[]{type, Byteable.class}, new Handler());
+    }
+
+    /**
+     * Used by generated flyweights to find a property once.
+     *
+     * @return the index of the property in the layouts.
+     */
+    public int indexOf(@NotNull String name) {
+        for (Property property : properties)
+            if (property.key.name().equals(name))
+                return property.index;
+        throw new IllegalArgumentException(type + " has no property " + name);
+    }
+
+    /**
+     * Write a zeroed region for T and bind an instance to it.
+     *
+     * @param using to bind or null for a new instance.
+     * @return the instance bound.
+     */
+    @NotNull
+    public T write(@NotNull WireOut wire, @Nullable T using) {
+        Bytes bytes = wire.bytes();
+        long start = bytes.writePosition();
+        writePlaceholders(wire);
+        if (using == null)
+            using = newInstance();
+        ((Byteable) using).bytesStore(bytes, start, bytes.writePosition() - start);
+        return using;
+    }
+
+    public void writePlaceholders(@NotNull WireOut wire) {
+        for (Property property : properties) {
+            ValueOut out = wire.write(property.key);
+            if (property.type == int.class)
+                out.int32forBinding(0);
+            else if (property.type == long.class)
+                out.int64forBinding(0);
+            else
+                out.float64forBinding(0);
+        }
+    }
+
+    /**
+     * Used by generated flyweights when they are bound.
+     *
+     * @return the offset of each value relative to offset, by the index of its property.
+     */
+    @NotNull
+    public long[] layout(@NotNull BytesStore bytes, long offset, long length) {
+        int alignment = (int) (offset & 63);
+        long[] layout = layouts.get(alignment);
+        if (layout != null && matches(layout, bytes, offset, length))
+            return layout;
+        layout = parse(bytes, offset, length);
+        layouts.set(alignment, layout);
+        return layout;
+    }
+
+    private boolean matches(@NotNull long[] layout, @NotNull BytesStore bytes, long offset, long length) {
+        if (layout[properties.length] != length)
+            return false;
+        for (Property property : properties) {
+            if (bytes.readUnsignedByte(offset + layout[property.index] - 1) != property.code())
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Walk the fields of the region, skipping padding, to find where each value is.
+     */
+    @NotNull
+    private long[] parse(@NotNull BytesStore bytes, long offset, long length) {
+        long[] layout = new long[properties.length + 1];
+        long pos = offset, end = offset + length;
+        for (Property property : properties) {
+            byte[] name = property.name;
+            if (pos + 1 + name.length > end || bytes.readUnsignedByte(pos) != FIELD_NAME0 + name.length)
+                throw new IllegalArgumentException("Expected field " + property.key.name() + " at " + pos);
+            pos++;
+            for (byte b : name)
+                if (bytes.readByte(pos++) != b)
+                    throw new IllegalArgumentException("Expected field " + property.key.name() + " at " + pos);
+            for (; ; ) {
+                if (pos >= end)
+                    throw new IllegalArgumentException("Expected a value for " + property.key.name());
+                int code = bytes.readUnsignedByte(pos);
+                if (code == PADDING) {
+                    pos++;
+                } else if (code == PADDING32) {
+                    pos += 5 + bytes.readInt(pos + 1);
+                } else if (code == property.code()) {
+                    layout[property.index] = pos + 1 - offset;
+                    pos += 1 + property.size();
+                    break;
+                } else {
+                    throw new IllegalArgumentException("Expected " + stringForCode(property.code())
+                            + " for " + property.key.name() + " but was " + stringForCode(code));
+                }
+            }
+        }
+        if (pos > end)
+            throw new IllegalArgumentException("Region too short");
+        layout[properties.length] = length;
+        return layout;
+    }
+
+    /**
+     * Used by generated flyweights and the proxy for toString().
+     */
+    @NotNull
+    public String toString(@Nullable BytesStore bytes, long offset, long[] layout) {
+        if (bytes == null)
+            return type.getSimpleName() + " unbound";
+        StringBuilder sb = new StringBuilder(type.getSimpleName()).append(" {");
+        for (Property property : properties) {
+            long address = offset + layout[property.index];
+            sb.append(' ').append(property.key.name()).append(": ");
+            if (property.type == int.class)
+                sb.append(bytes.readInt(address));
+            else if (property.type == long.class)
+                sb.append(bytes.readLong(address));
+            else
+                sb.append(Double.longBitsToDouble(bytes.readLong(address)));
+            sb.append(',');
+        }
+        if (properties.length > 0)
+            sb.setLength(sb.length() - 1);
+        return sb.append(" }").toString();
+    }
+
+    enum Kind {
+        GET_VOLATILE("getVolatile"),
+        GET("get"),
+        SET_ORDERED("setOrdered"),
+        SET("set"),
+        CAS("compareAndSwap"),
+        ADD("add");
+
+        final String prefix;
+
+        Kind(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @NotNull
+        static Kind of(@NotNull Method method) {
+            String name = method.getName();
+            int args = method.getParameterCount();
+            for (Kind kind : values()) {
+                if (name.startsWith(kind.prefix) && name.length() > kind.prefix.length()
+                        && Character.isUpperCase(name.charAt(kind.prefix.length()))
+                        && args == kind.args())
+                    return kind;
+            }
+            throw new IllegalArgumentException("Unsupported method " + method);
+        }
+
+        int args() {
+            switch (this) {
+                case GET:
+                case GET_VOLATILE:
+                    return 0;
+                case CAS:
+                    return 2;
+                default:
+                    return 1;
+            }
+        }
+
+        @NotNull
+        Class valueType(@NotNull Method method) {
+            switch (this) {
+                case GET:
+                case GET_VOLATILE:
+                case ADD:
+                    if (this == ADD && method.getReturnType() != method.getParameterTypes()[0])
+                        throw new IllegalArgumentException(method + " must return the new value");
+                    return this == ADD ? method.getParameterTypes()[0] : method.getReturnType();
+                case CAS:
+                    Class[] types = method.getParameterTypes();
+                    if (types[0] != types[1] || method.getReturnType() != boolean.class)
+                        throw new IllegalArgumentException(method + " must be boolean compareAndSwapXxx(expected, value)");
+                    return types[0];
+                default:
+                    if (method.getReturnType() != void.class)
+                        throw new IllegalArgumentException(method + " must return void");
+                    return method.getParameterTypes()[0];
+            }
+        }
+    }
+
+    static class Property {
+        final WireKey key;
+        final byte[] name;
+        final Class type;
+        int index;
+
+        Property(@NotNull String name, @NotNull Class type) {
+            this.key = () -> name;
+            this.name = name.getBytes(StandardCharsets.ISO_8859_1);
+            this.type = type;
+        }
+
+        int code() {
+            return type == int.class ? INT32 : type == long.class ? INT64 : FLOAT64;
+        }
+
+        int size() {
+            return type == int.class ? 4 : 8;
+        }
+    }
+
+    static class Accessor {
+        final Kind kind;
+        final Property property;
+
+        Accessor(Kind kind, Property property) {
+            this.kind = kind;
+            this.property = property;
+        }
+    }
+
+    class Handler implements InvocationHandler {
+        private BytesStore bytes;
+        private long offset;
+        private long length;
+        private long[] layout;
+
+        @Override
+        public Object invoke(Object proxy, @NotNull Method method, Object[] args) {
+            Accessor accessor = accessors.get(method);
+            if (accessor == null)
+                return invokeOther(proxy, method, args);
+            if (bytes == null)
+                throw new IllegalStateException("Not bound to a region");
+            Property property = accessor.property;
+            long address = offset + layout[property.index];
+            if (property.type == int.class)
+                return invokeInt(accessor.kind, address, args);
+            if (property.type == long.class)
+                return invokeLong(accessor.kind, address, args);
+            return invokeDouble(accessor.kind, address, args);
+        }
+
+        @Nullable
+        private Object invokeInt(@NotNull Kind kind, long address, Object[] args) {
+            switch (kind) {
+                case GET:
+                    return bytes.readInt(address);
+                case GET_VOLATILE:
+                    return bytes.readVolatileInt(address);
+                case SET:
+                    bytes.writeInt(address, (Integer) args[0]);
+                    return null;
+                case SET_ORDERED:
+                    bytes.writeOrderedInt(address, (Integer) args[0]);
+                    return null;
+                case CAS:
+                    return bytes.compareAndSwapInt(address, (Integer) args[0], (Integer) args[1]);
+                default:
+                    return bytes.addAndGetInt(address, (Integer) args[0]);
+            }
+        }
+
+        @Nullable
+        private Object invokeLong(@NotNull Kind kind, long address, Object[] args) {
+            switch (kind) {
+                case GET:
+                    return bytes.readLong(address);
+                case GET_VOLATILE:
+                    return bytes.readVolatileLong(address);
+                case SET:
+                    bytes.writeLong(address, (Long) args[0]);
+                    return null;
+                case SET_ORDERED:
+                    bytes.writeOrderedLong(address, (Long) args[0]);
+                    return null;
+                case CAS:
+                    return bytes.compareAndSwapLong(address, (Long) args[0], (Long) args[1]);
+                default:
+                    return bytes.addAndGetLong(address, (Long) args[0]);
+            }
+        }
+
+        @Nullable
+        private Object invokeDouble(@NotNull Kind kind, long address, Object[] args) {
+            switch (kind) {
+                case GET:
+                    return Double.longBitsToDouble(bytes.readLong(address));
+                case GET_VOLATILE:
+                    return Double.longBitsToDouble(bytes.readVolatileLong(address));
+                case SET:
+                    bytes.writeLong(address, Double.doubleToRawLongBits((Double) args[0]));
+                    return null;
+                case SET_ORDERED:
+                    bytes.writeOrderedLong(address, Double.doubleToRawLongBits((Double) args[0]));
+                    return null;
+                default:
+                    for (; ; ) {
+                        long bits = bytes.readVolatileLong(address);
+                        double value = Double.longBitsToDouble(bits) + (Double) args[0];
+                        if (bytes.compareAndSwapLong(address, bits, Double.doubleToRawLongBits(value)))
+                            return value;
+                    }
+            }
+        }
+
+        @Nullable
+        private Object invokeOther(Object proxy, @NotNull Method method, Object[] args) {
+            switch (method.getName()) {
+                case "bytesStore":
+                    BytesStore bytes = (BytesStore) args[0];
+                    long offset = (Long) args[1], length = (Long) args[2];
+                    this.layout = layout(bytes, offset, length);
+                    this.bytes = bytes;
+                    this.offset = offset;
+                    this.length = length;
+                    return null;
+                case "maxSize":
+                    return length;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return Flyweight.this.toString(bytes, offset, layout);
+                default:
+                    throw new UnsupportedOperationException(method.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Asks the chronicle-wire-processor annotation processor to generate an
+ * {@code <Interface>Flyweight} in the same package, which {@link Flyweight#newInstance()} returns
+ * in place of a reflective proxy.
+ * <p>
+ * The generated accessors read and write the bound region directly, without boxing, e.g.
+ * <pre>
+ * &#64;GenerateFlyweight
+ * public interface Order {
+ *     double getPrice();
+ *
+ *     void setPrice(double price);
+ * }
+ * </pre>
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateFlyweight {
+}
@@ -0,0 +1,39 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Asks the chronicle-wire-processor annotation processor to generate a {@code <Class>Marshaller}
+ * in the same package, with static readMarshallable and writeMarshallable methods for the fields
+ * declared in the class.
+ * <p>
+ * Static and transient fields are skipped, private fields need a getter and a setter.  The class
+ * delegates to it, e.g.
+ * <pre>
+ * public void writeMarshallable(WireOut wire) {
+ *     DataMarshaller.writeMarshallable(this, wire);
+ * }
+ * </pre>
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateMarshallable {
+}
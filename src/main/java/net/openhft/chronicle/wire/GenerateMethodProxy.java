@@ -0,0 +1,42 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Asks the chronicle-wire-processor annotation processor to generate, for an interface of void
+ * methods, an {@code <Interface>Writer} and an {@code <Interface>Reader} in the same package.
+ * <p>
+ * The writer implements the interface over a WireOut, writing each call as a document with the
+ * method name as the event name and the arguments as its value.  The reader reads these documents
+ * from a WireIn and calls the same methods on another implementation, e.g.
+ * <pre>
+ * OrderListener listener = new OrderListenerWriter(wire);
+ * listener.onOrder(order);
+ *
+ * OrderListenerReader reader = new OrderListenerReader(orderProcessor);
+ * while (reader.readOne(wire)) {
+ * }
+ * </pre>
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateMethodProxy {
+}
@@ -0,0 +1,58 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.core.util.ObjectUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Supplies the instances a wire reads typed and nested objects into when the caller doesn't
+ * provide one.  An implementation can recycle instances which have been released, so replaying
+ * a stream of messages doesn't create an object per message.
+ */
+public interface InstanceProvider {
+    /**
+     * Creates a new instance every time, and ignores released instances.
+     */
+    InstanceProvider NEW_INSTANCE = new InstanceProvider() {
+        @NotNull
+        @Override
+        public <T> T acquire(@NotNull Class<T> tClass) {
+            return ObjectUtils.newInstance(tClass);
+        }
+
+        @NotNull
+        @Override
+        public String toString() {
+            return "NEW_INSTANCE";
+        }
+    };
+
+    /**
+     * @param tClass of the instance required
+     * @return an instance which will be overwritten by the values read.
+     */
+    @NotNull
+    <T> T acquire(@NotNull Class<T> tClass);
+
+    /**
+     * The caller has finished with this instance and it can be returned by acquire again.
+     *
+     * @param t instance no longer used
+     */
+    default void release(@NotNull Object t) {
+    }
+}
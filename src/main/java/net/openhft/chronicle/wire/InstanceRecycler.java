@@ -0,0 +1,85 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.core.util.ObjectUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * An InstanceProvider which keeps a pool per class of released instances and only creates an
+ * instance when the pool for that class is empty.  Nested objects held by a recycled instance are
+ * read into in place, so once warmed up, reading a message into a recycled instance and
+ * releasing it doesn't allocate.
+ * <p>
+ * Like the wire it is used by, this class is not thread safe.
+ */
+public class InstanceRecycler implements InstanceProvider {
+    private final Map<Class, ArrayDeque<Object>> pools = new IdentityHashMap<>();
+    private final int maxPerClass;
+
+    public InstanceRecycler() {
+        this(64);
+    }
+
+    /**
+     * @param maxPerClass the maximum number of released instances to retain for each class.
+     */
+    public InstanceRecycler(int maxPerClass) {
+        if (maxPerClass < 1)
+            throw new IllegalArgumentException("maxPerClass must be positive, was " + maxPerClass);
+        this.maxPerClass = maxPerClass;
+    }
+
+    @NotNull
+    @Override
+    public <T> T acquire(@NotNull Class<T> tClass) {
+        ArrayDeque<Object> pool = pools.get(tClass);
+        if (pool != null) {
+            Object t = pool.pollLast();
+            if (t != null)
+                return (T) t;
+        }
+        return ObjectUtils.newInstance(tClass);
+    }
+
+    @Override
+    public void release(@NotNull Object t) {
+        Class<?> tClass = t.getClass();
+        ArrayDeque<Object> pool = pools.get(tClass);
+        if (pool == null)
+            pools.put(tClass, pool = new ArrayDeque<>());
+        if (pool.size() < maxPerClass)
+            pool.addLast(t);
+    }
+
+    /**
+     * @return the number of released instances of this class available.
+     */
+    public int available(@NotNull Class tClass) {
+        ArrayDeque<Object> pool = pools.get(tClass);
+        return pool == null ? 0 : pool.size();
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        return "InstanceRecycler{maxPerClass=" + maxPerClass + ", pools=" + pools.size() + "}";
+    }
+}
@@ -35,7 +35,10 @@ import org.slf4j.LoggerFactory;
 import org.xerial.snappy.Snappy;
 
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
@@ -50,35 +53,54 @@ import static net.openhft.chronicle.core.util.ReadResolvable.readResolve;
  * JSON wire format
  * <p>
  * At the moment, this is a cut down version of the YAML wire format.
+ * <p>
+ * In NDJSON mode, each document is one JSON object on a line of its own.  readDocument reads the
+ * next line, skipping blank lines, and writeDocument appends a line, so many lines can be batched
+ * in one Bytes before it is written out.
  */
 public class JSONWire implements Wire, InternalWireIn {
 
     public static final BytesStore TYPE = BytesStore.wrap("!type ");
     static final String SEQ_MAP = "!seqmap";
     static final String NULL = "!null \"\"";
-    static final BitSet QUOTE_CHARS = new BitSet();
+    // the character after the backslash for each ASCII character which needs escaping, or 0.
+    static final byte[] ESCAPE_CHARS = new byte[128];
     static final Logger LOG = LoggerFactory.getLogger(JSONWire.class);
-    static final ThreadLocal<StopCharTester> ESCAPED_QUOTES = ThreadLocal.withInitial(() -> StopCharTesters.QUOTES.escaping());
-    static final ThreadLocal<StopCharsTester> ESCAPED_END_OF_TEXT = ThreadLocal.withInitial(() -> TextStopCharsTesters.END_OF_TEXT.escaping());
     static final BytesStore COMMA = BytesStore.wrap(",");
     static final BytesStore NEW_LINE = BytesStore.wrap("\n");
     static final BytesStore SPACE = BytesStore.wrap(" ");
     static final BytesStore END_FIELD = NEW_LINE;
+    // the most of an ndjson file mapped at once, less than the 2 GB a single map allows.
+    static final long WINDOW_SIZE = 1L << 30;
 
     static {
-        for (char ch : "\",\n\\#:{}[]".toCharArray())
-            QUOTE_CHARS.set(ch);
+        ESCAPE_CHARS['"'] = '"';
+        ESCAPE_CHARS['\\'] = '\\';
+        ESCAPE_CHARS['\n'] = 'n';
     }
 
     private final Bytes<?> bytes;
     private final TextValueOut valueOut = new TextValueOut();
     private final ValueIn valueIn = new TextValueIn();
+    private final StopCharTester escapedQuotes = StopCharTesters.QUOTES.escaping();
+    private final StopCharsTester escapedEndOfText = TextStopCharsTesters.END_OF_TEXT.escaping();
     private final boolean use8bit;
+    private final boolean ndjson;
+    @NotNull
+    private InstanceProvider instanceProvider = InstanceProvider.NEW_INSTANCE;
     private boolean ready;
 
     public JSONWire(Bytes bytes, boolean use8bit) {
+        this(bytes, use8bit, false);
+    }
+
+    /**
+     * @param ndjson if true, documents are read and written as newline delimited JSON.
+     */
+    public JSONWire(Bytes bytes, boolean use8bit, boolean ndjson) {
         this.bytes = bytes;
         this.use8bit = use8bit;
+        this.ndjson = ndjson;
     }
 
     public JSONWire(Bytes bytes) {
@@ -90,6 +112,49 @@ public class JSONWire implements Wire, InternalWireIn {
         return new JSONWire(Bytes.from(text));
     }
 
+    /**
+     * A wire which reads and writes one JSON object per line.
+     */
+    @NotNull
+    public static JSONWire ndjson(@NotNull Bytes bytes) {
+        return new JSONWire(bytes, false, true);
+    }
+
+    /**
+     * Read every complete line of a newline delimited JSON file, memory mapping it a window at a time so files of any
+     * size can be read. A last line without a newline is still being written and is left unread.
+     *
+     * @return the number of documents read.
+     */
+    public static long ndjsonFromFile(@NotNull String name, @NotNull ReadMarshallable reader) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(name, "r");
+             FileChannel fc = raf.getChannel()) {
+            long size = fc.size();
+            long position = 0, count = 0;
+            long windowSize = WINDOW_SIZE;
+            while (position < size) {
+                long length = Math.min(size - position, windowSize);
+                MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, position, length);
+                JSONWire wire = ndjson(Bytes.wrapForRead(mbb));
+                while (wire.readDocument(null, reader))
+                    count++;
+                if (position + length >= size)
+                    break;
+                long consumed = wire.bytes().readPosition();
+                if (consumed == 0) {
+                    // a line longer than the window, map more of the file.
+                    if (windowSize >= Integer.MAX_VALUE)
+                        throw new IOException("Line at " + position + " is longer than " + windowSize + " bytes");
+                    windowSize = Math.min(windowSize * 2, Integer.MAX_VALUE);
+                    continue;
+                }
+                position += consumed;
+                windowSize = WINDOW_SIZE;
+            }
+            return count;
+        }
+    }
+
     public static String asText(@NotNull Wire wire) {
         long pos = wire.bytes().readPosition();
         JSONWire tw = new JSONWire(nativeBytes());
@@ -100,9 +165,19 @@ public class JSONWire implements Wire, InternalWireIn {
     }
 
     public static <ACS extends Appendable & CharSequence> void unescape(@NotNull ACS sb) {
-        int end = 0;
         int length = sb.length();
-        for (int i = 0; i < length; i++) {
+        int from = 0;
+        while (from < length - 1 && sb.charAt(from) != '\\')
+            from++;
+        // nothing to unescape, leave the text as it is.
+        if (from >= length - 1)
+            return;
+        if (sb instanceof Bytes) {
+            unescape((Bytes) sb, from, length);
+            return;
+        }
+        int end = from;
+        for (int i = from; i < length; i++) {
             char ch = sb.charAt(i);
             if (ch == '\\' && i < length - 1) {
                 char ch3 = sb.charAt(++i);
@@ -124,6 +199,32 @@ public class JSONWire implements Wire, InternalWireIn {
         AppendableUtil.setLength(sb, end);
     }
 
+    /**
+     * Unescape text in place, reading and writing the underlying bytes directly.
+     */
+    private static void unescape(@NotNull Bytes bytes, int from, int length) {
+        long start = bytes.readPosition();
+        int end = from;
+        for (int i = from; i < length; i++) {
+            int ch = bytes.readUnsignedByte(start + i);
+            if (ch == '\\' && i < length - 1) {
+                int ch3 = bytes.readUnsignedByte(start + ++i);
+                switch (ch3) {
+                    case 'n':
+                        ch = '\n';
+                        break;
+                    case 't':
+                        ch = '\t';
+                        break;
+                    default:
+                        ch = ch3;
+                }
+            }
+            bytes.writeByte(start + end++, (byte) ch);
+        }
+        AppendableUtil.setLength(bytes, end);
+    }
+
     public String toString() {
         return bytes.toString();
     }
@@ -138,9 +239,88 @@ public class JSONWire implements Wire, InternalWireIn {
         this.ready = ready;
     }
 
+    @NotNull
+    @Override
+    public InstanceProvider instanceProvider() {
+        return instanceProvider;
+    }
+
+    @Override
+    public void instanceProvider(@NotNull InstanceProvider instanceProvider) {
+        this.instanceProvider = instanceProvider;
+    }
+
     @Override
     public void copyTo(@NotNull WireOut wire) {
-        throw new UnsupportedOperationException();
+        if (wire instanceof JSONWire) {
+            wire.bytes().write(bytes, bytes.readPosition(), bytes.readRemaining());
+            return;
+        }
+        new TextCopier(bytes, use8bit).copyTo(wire);
+    }
+
+    @Override
+    public boolean readDocument(@Nullable ReadMarshallable metaDataConsumer,
+                                @Nullable ReadMarshallable dataConsumer) {
+        if (!ndjson)
+            return Wires.readData(this, metaDataConsumer, dataConsumer);
+
+        // there is no meta data in NDJSON
+        long limit = bytes.readLimit();
+        for (; ; ) {
+            long start = bytes.readPosition();
+            if (start >= limit)
+                return false;
+            long end = start;
+            while (end < limit && bytes.readUnsignedByte(end) != '\n')
+                end++;
+            // the last line is incomplete until its newline has been written.
+            if (end >= limit)
+                return false;
+            long next = end + 1;
+            while (start < end && bytes.readUnsignedByte(start) <= ' ')
+                start++;
+            while (end > start && bytes.readUnsignedByte(end - 1) <= ' ')
+                end--;
+            if (start == end) {
+                bytes.readPosition(next);
+                continue;
+            }
+            if (dataConsumer == null)
+                return false;
+
+            // the fields of the object are read as the fields of the document.
+            if (bytes.readUnsignedByte(start) == '{' && bytes.readUnsignedByte(end - 1) == '}') {
+                start++;
+                end--;
+            }
+            try {
+                bytes.readLimit(end);
+                bytes.readPosition(start);
+                dataConsumer.readMarshallable(this);
+            } finally {
+                bytes.readLimit(limit);
+                bytes.readPosition(next);
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public void writeDocument(boolean metaData, @NotNull WriteMarshallable writer) {
+        if (!ndjson) {
+            Wires.writeData(this, metaData, false, writer);
+            return;
+        }
+        long start = bytes.writePosition();
+        valueOut.sep = empty();
+        valueOut.marshallable(writer);
+        valueOut.sep = empty();
+        // strings have their new lines escaped, so any left are formatting.
+        for (long i = start; i < bytes.writePosition(); i++)
+            if (bytes.readUnsignedByte(i) == '\n')
+                bytes.writeByte(i, (byte) ' ');
+        bytes.append('\n');
     }
 
     @NotNull
@@ -185,14 +365,14 @@ public class JSONWire implements Wire, InternalWireIn {
 
     @NotNull
     private StopCharsTester getEscapingEndOfText() {
-        StopCharsTester escaping = ESCAPED_END_OF_TEXT.get();
+        StopCharsTester escaping = escapedEndOfText;
         // reset it.
         escaping.isStopChar(' ', ' ');
         return escaping;
     }
 
     private StopCharTester getEscapingQuotes() {
-        StopCharTester sct = ESCAPED_QUOTES.get();
+        StopCharTester sct = escapedQuotes;
         // reset it.
         sct.isStopChar(' ');
         return sct;
@@ -201,13 +381,16 @@ public class JSONWire implements Wire, InternalWireIn {
     void consumeWhiteSpace() {
         for (; ; ) {
             int codePoint = peekCode();
-            if (codePoint == '#') {
+            int cls = TextCharClass.classOf(codePoint);
+            if (cls == 0) {
+                break;
+            } else if (codePoint == ' ') {
+                bytes.readPosition(TextCharClass.skipSpaces(bytes, bytes.readPosition(), bytes.readLimit()));
+            } else if ((cls & TextCharClass.COMMENT) != 0) {
                 //noinspection StatementWithEmptyBody
                 while (readCode() >= ' ') ;
-            } else if (Character.isWhitespace(codePoint) || codePoint == ',') {
-                bytes.readSkip(1);
             } else {
-                break;
+                bytes.readSkip(1);
             }
         }
     }
@@ -338,46 +521,24 @@ public class JSONWire implements Wire, InternalWireIn {
         return this;
     }
 
+    /**
+     * Write the text in one pass, copying each run of characters which need no escaping in one call.
+     */
     void escaped(@NotNull CharSequence s) {
-        if (!needsQuotes(s)) {
-            bytes.append(s);
-            return;
-        }
-        doEscape(s);
-    }
-
-    private void doEscape(@NotNull CharSequence s) {
-        for (int i = 0; i < s.length(); i++) {
-            char ch = s.charAt(i);
-            switch (ch) {
-                case '"':
-                case '\\':
-                    bytes.append('\\').append(ch);
-                    break;
-
-                case '\n':
-                    bytes.append("\\n");
-                    break;
-                default:
-                    bytes.append(ch);
-                    break;
-            }
-        }
-    }
-
-    boolean needsQuotes(@NotNull CharSequence s) {
-
-        if (s.length() == 0)
-            return true;
-
-        if (s.charAt(0) == ' ' || s.charAt(0) == '!' || s.charAt(s.length() - 1) == ' ')
-            return true;
-        for (int i = 0; i < s.length(); i++) {
+        int length = s.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
             char ch = s.charAt(i);
-            if (QUOTE_CHARS.get(ch))
-                return true;
-        }
-        return false;
+            int esc;
+            if (ch >= 128 || (esc = ESCAPE_CHARS[ch]) == 0)
+                continue;
+            if (start < i)
+                bytes.append(s, start, i);
+            bytes.append('\\').append((char) esc);
+            start = i + 1;
+        }
+        if (start < length)
+            bytes.append(s, start, length);
     }
 
     @NotNull
@@ -656,7 +817,7 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public WireOut float32(float f) {
             prependSeparator();
-            bytes.append(f);
+            TextNumbers.append(bytes, f);
             elementSeparator();
 
             return JSONWire.this;
@@ -666,7 +827,7 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public WireOut float64(double d) {
             prependSeparator();
-            bytes.append(d);
+            TextNumbers.append(bytes, d);
             elementSeparator();
 
             return JSONWire.this;
@@ -1024,7 +1185,7 @@ public class JSONWire implements Wire, InternalWireIn {
                 }
                 // trim trailing spaces.
                 while (a.length() > 0)
-                    if (Character.isWhitespace(a.charAt(a.length() - 1)))
+                    if (TextCharClass.isWhitespace(a.charAt(a.length() - 1)))
                         AppendableUtil.setLength(a, a.length() - 1);
                     else
                         break;
@@ -1044,7 +1205,7 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public WireIn int8(@NotNull ByteConsumer i) {
             consumeWhiteSpace();
-            i.accept((byte) bytes.parseLong());
+            i.accept((byte) TextNumbers.parseLong(bytes));
             return JSONWire.this;
         }
 
@@ -1233,7 +1394,7 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint8(@NotNull ShortConsumer i) {
             consumeWhiteSpace();
-            i.accept((short) bytes.parseLong());
+            i.accept((short) TextNumbers.parseLong(bytes));
             return JSONWire.this;
         }
 
@@ -1241,7 +1402,7 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public WireIn int16(@NotNull ShortConsumer i) {
             consumeWhiteSpace();
-            i.accept((short) bytes.parseLong());
+            i.accept((short) TextNumbers.parseLong(bytes));
             return JSONWire.this;
         }
 
@@ -1249,7 +1410,7 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint16(@NotNull IntConsumer i) {
             consumeWhiteSpace();
-            i.accept((int) bytes.parseLong());
+            i.accept((int) TextNumbers.parseLong(bytes));
             return JSONWire.this;
         }
 
@@ -1257,7 +1418,7 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public WireIn int32(@NotNull IntConsumer i) {
             consumeWhiteSpace();
-            i.accept((int) bytes.parseLong());
+            i.accept((int) TextNumbers.parseLong(bytes));
             return JSONWire.this;
         }
 
@@ -1265,7 +1426,7 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint32(@NotNull LongConsumer i) {
             consumeWhiteSpace();
-            i.accept(bytes.parseLong());
+            i.accept(TextNumbers.parseLong(bytes));
             return JSONWire.this;
         }
 
@@ -1273,7 +1434,7 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public WireIn int64(@NotNull LongConsumer i) {
             consumeWhiteSpace();
-            i.accept(bytes.parseLong());
+            i.accept(TextNumbers.parseLong(bytes));
             return JSONWire.this;
         }
 
@@ -1281,7 +1442,7 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public WireIn float32(@NotNull FloatConsumer v) {
             consumeWhiteSpace();
-            v.accept((float) bytes.parseDouble());
+            v.accept((float) TextNumbers.parseDouble(bytes));
             return JSONWire.this;
         }
 
@@ -1289,7 +1450,7 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public WireIn float64(@NotNull DoubleConsumer v) {
             consumeWhiteSpace();
-            v.accept(bytes.parseDouble());
+            v.accept(TextNumbers.parseDouble(bytes));
             return JSONWire.this;
         }
 
@@ -1561,10 +1722,10 @@ public class JSONWire implements Wire, InternalWireIn {
                 if (!ReadMarshallable.class.isAssignableFrom(clazz))
                     throw new ClassCastException("Cannot convert " + sb + " to Marshallable.");
 
-                final ReadMarshallable m = ObjectUtils.newInstance((Class<ReadMarshallable>) clazz);
+                final ReadMarshallable m = instanceProvider.acquire((Class<ReadMarshallable>) clazz);
 
                 marshallable(m);
-                return readResolve(m);
+                return Wires.readResolve(instanceProvider, m);
             } catch (Exception e) {
                 throw new IORuntimeException(e);
             }
@@ -1681,13 +1842,13 @@ public class JSONWire implements Wire, InternalWireIn {
         @Override
         public long int64() {
             consumeWhiteSpace();
-            return bytes.parseLong();
+            return TextNumbers.parseLong(bytes);
         }
 
         @Override
         public double float64() {
             consumeWhiteSpace();
-            return bytes.parseDouble();
+            return TextNumbers.parseDouble(bytes);
         }
 
         @Override
@@ -1747,14 +1908,13 @@ public class JSONWire implements Wire, InternalWireIn {
             }
 
             if (ReadMarshallable.class.isAssignableFrom(clazz)) {
-                final Object v;
-                if (using == null)
-                    v = ObjectUtils.newInstance(clazz);
-                else
-                    v = using;
-
+                if (using != null) {
+                    valueIn.marshallable((ReadMarshallable) using);
+                    return readResolve(using);
+                }
+                final Object v = instanceProvider.acquire(clazz);
                 valueIn.marshallable((ReadMarshallable) v);
-                return readResolve(v);
+                return Wires.readResolve(instanceProvider, v);
 
             } else if (StringBuilder.class.isAssignableFrom(clazz)) {
                 StringBuilder builder = (using == null)
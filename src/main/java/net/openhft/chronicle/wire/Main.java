@@ -47,7 +47,23 @@ public class Main {
 
         String name = args.length > 0 ? args[0] : "engine.yaml";
         TextWire yaml = TextWire.fromFile(name);
-        MapInstallable installable = (MapInstallable) yaml.readObject();
+        MapInstallable installable;
+        if (args.length > 1) {
+            // only decode the configuration under this path.
+            TextTree tree = TextTree.of(yaml);
+            int node = tree.find(args[1]);
+            if (node < 0)
+                throw new IllegalArgumentException("No configuration at " + args[1] + " in " + name);
+            if (tree.isTyped(node)) {
+                installable = tree.typedMarshallable(node);
+            } else {
+                ApplicationCfg cfg = new ApplicationCfg();
+                cfg.readMarshallable(tree, node, "");
+                installable = cfg;
+            }
+        } else {
+            installable = (MapInstallable) yaml.readObject();
+        }
         Map<String, Object> root = Collections.synchronizedMap(new LinkedHashMap<>());
         try {
             installable.install("/", root);
@@ -15,8 +15,22 @@
  */
 package net.openhft.chronicle.wire;
 
+import org.jetbrains.annotations.NotNull;
+
 /**
  * The implementation of this interface is both readable and writeable as marshallable data.
+ * <p>
+ * By default all the non static, non transient fields are written and read using a WireMarshaller
+ * cached for the class.
  */
 public interface Marshallable extends WriteMarshallable, ReadMarshallable {
+    @Override
+    default void readMarshallable(@NotNull WireIn wire) throws IllegalStateException {
+        WireMarshaller.WIRE_MARSHALLER_CL.get(getClass()).readMarshallable(this, wire);
+    }
+
+    @Override
+    default void writeMarshallable(@NotNull WireOut wire) {
+        WireMarshaller.WIRE_MARSHALLER_CL.get(getClass()).writeMarshallable(this, wire);
+    }
 }
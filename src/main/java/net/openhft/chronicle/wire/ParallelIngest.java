@@ -0,0 +1,287 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.IORuntimeException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reads a large CSV, newline delimited JSON or YAML file in parallel.
+ * <p>
+ * The file is memory mapped and split into chunks of about chunkSize bytes, aligned on record
+ * boundaries.  Each chunk is read by its own CSVWire, JSONWire or TextWire on a ForkJoinPool, the
+ * reader is called once per record and what it returns is passed to the sink.
+ * <p>
+ * Finding the boundaries is a parallel pass of its own.  For CSV, each chunk is scanned once for
+ * each state it could start in, outside quotes, inside quotes or just after a backslash inside
+ * quotes, giving the state it ends in and its first new line outside quotes.  Chaining the end
+ * states of the chunks before gives which of these is the boundary, so new lines in quoted text
+ * don't split a record.  As in CSVWire, a backslash only escapes inside quotes.  JSON records end
+ * at a new line and YAML documents start with a {@code ---} line.
+ * <p>
+ * Unless ordered, the sink is called concurrently in any order and must be thread safe.  When
+ * ordered, the records of each chunk are collected and passed to the sink in file order by the
+ * calling thread, with a limited number of chunks read ahead.
+ */
+public class ParallelIngest {
+    // the states a CSV chunk can start or end in.
+    static final int OUTSIDE = 0, IN_QUOTES = 1, ESCAPED = 2, STATES = 3;
+
+    private final File file;
+    private final Format format;
+    private long chunkSize = 64 << 20;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private boolean ordered = false;
+
+    public ParallelIngest(@NotNull File file, @NotNull Format format) {
+        this.file = file;
+        this.format = format;
+    }
+
+    @NotNull
+    public ParallelIngest chunkSize(long chunkSize) {
+        if (chunkSize < 1 || chunkSize > Integer.MAX_VALUE / 2)
+            throw new IllegalArgumentException("chunkSize: " + chunkSize);
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    @NotNull
+    public ParallelIngest pool(@NotNull ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * @param ordered if true, the sink is called by the calling thread, in the order of the file.
+     */
+    @NotNull
+    public ParallelIngest ordered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * @param reader reads one record from the wire.
+     * @param sink   to pass each record to.
+     * @return the number of records read.
+     */
+    public <R> long ingest(@NotNull Function<WireIn, R> reader, @NotNull Consumer<R> sink) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel fc = raf.getChannel()) {
+            long[] starts = chunkStarts(fc, fc.size());
+            int chunks = starts.length - 1;
+            if (chunks == 0)
+                return 0;
+
+            Wire first = null;
+            List<String> header = null;
+            if (format == Format.CSV) {
+                CSVWire csvWire = new CSVWire(map(fc, starts[0], starts[1] - starts[0]), false);
+                header = csvWire.header();
+                first = csvWire;
+            }
+
+            long count = 0;
+            if (ordered) {
+                int window = pool.getParallelism() * 2;
+                Deque<ForkJoinTask<List<R>>> tasks = new ArrayDeque<>();
+                int next = 0;
+                for (int i = 0; i < chunks; i++) {
+                    for (; next < chunks && next - i < window; next++) {
+                        Wire wire = next == 0 ? first : null;
+                        long start = starts[next], end = starts[next + 1];
+                        List<String> header2 = header;
+                        tasks.add(pool.submit(() -> {
+                            List<R> records = new ArrayList<>();
+                            readChunk(fc, start, end, wire, header2, reader, records::add);
+                            return records;
+                        }));
+                    }
+                    List<R> records = tasks.poll().join();
+                    records.forEach(sink);
+                    count += records.size();
+                }
+            } else {
+                List<ForkJoinTask<Long>> tasks = new ArrayList<>();
+                for (int i = 0; i < chunks; i++) {
+                    Wire wire = i == 0 ? first : null;
+                    long start = starts[i], end = starts[i + 1];
+                    List<String> header2 = header;
+                    tasks.add(pool.submit(() -> readChunk(fc, start, end, wire, header2, reader, sink)));
+                }
+                for (ForkJoinTask<Long> task : tasks)
+                    count += task.join();
+            }
+            return count;
+        }
+    }
+
+    private <R> long readChunk(@NotNull FileChannel fc, long start, long end, @Nullable Wire wire,
+                               @Nullable List<String> header, @NotNull Function<WireIn, R> reader,
+                               @NotNull Consumer<R> sink) {
+        if (wire == null) {
+            Bytes<ByteBuffer> bytes = map(fc, start, end - start);
+            wire = format == Format.CSV
+                    ? new CSVWire(bytes, false, header)
+                    : format == Format.NDJSON
+                    ? new JSONWire(bytes)
+                    : new TextWire(bytes);
+        }
+        Bytes<?> bytes = wire.bytes();
+        long count = 0;
+        while (wire.hasMore()) {
+            if (format == Format.YAML) {
+                ((TextWire) wire).consumeDocumentStart();
+                if (!wire.hasMore())
+                    break;
+            }
+            long position = bytes.readPosition();
+            R record = reader.apply(wire);
+            if (bytes.readPosition() == position)
+                throw new IllegalStateException("The reader didn't read the record at " + (start + position));
+            sink.accept(record);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the start of each chunk, followed by the size of the file.
+     */
+    @NotNull
+    long[] chunkStarts(@NotNull FileChannel fc, long size) {
+        int n = (int) ((size + chunkSize - 1) / chunkSize);
+        if (n <= 1)
+            return size == 0 ? new long[]{0} : new long[]{0, size};
+
+        List<ForkJoinTask<long[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            long start = i * chunkSize;
+            long end = Math.min(size, start + chunkSize);
+            tasks.add(pool.submit(() -> scan(fc, start, end, size)));
+        }
+        long[] starts = new long[n + 1];
+        int count = 0;
+        starts[count++] = 0;
+        int state = OUTSIDE;
+        for (int i = 0; i < n; i++) {
+            long[] scan = tasks.get(i).join();
+            if (i > 0) {
+                long boundary = scan[STATES + state];
+                // no boundary in this chunk, it is part of the previous record.
+                if (boundary > starts[count - 1] && boundary < size)
+                    starts[count++] = boundary;
+            }
+            state = (int) scan[state];
+        }
+        starts[count++] = size;
+        for (int i = 1; i < count; i++)
+            if (starts[i] - starts[i - 1] > Integer.MAX_VALUE)
+                throw new IllegalStateException("Unable to find a record boundary between " + starts[i - 1] + " and " + starts[i]);
+        long[] result = new long[count];
+        System.arraycopy(starts, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * @return for each state the chunk could start in, the state it ends in, followed by the
+     * first boundary for each, or -1 if there is no boundary.
+     */
+    @NotNull
+    private long[] scan(@NotNull FileChannel fc, long start, long end, long size) {
+        // look a little past the end to see if the next line is a document start.
+        long mapEnd = Math.min(size, end + 3);
+        Bytes<ByteBuffer> bytes = map(fc, start, mapEnd - start);
+        long length = end - start;
+        long[] scan = {OUTSIDE, IN_QUOTES, ESCAPED, -1, -1, -1};
+        for (long i = 0; i < length; i++) {
+            int ch = bytes.readUnsignedByte(i);
+            if (format == Format.CSV) {
+                for (int s = 0; s < STATES; s++) {
+                    int state = (int) scan[s];
+                    if (state == OUTSIDE && ch == '\n' && scan[STATES + s] < 0)
+                        scan[STATES + s] = start + i + 1;
+                    scan[s] = nextCsvState(state, ch);
+                }
+            } else if (ch == '\n') {
+                if (format == Format.NDJSON
+                        || (i + 3 < mapEnd - start
+                        && bytes.readUnsignedByte(i + 1) == '-'
+                        && bytes.readUnsignedByte(i + 2) == '-'
+                        && bytes.readUnsignedByte(i + 3) == '-')) {
+                    for (int s = 0; s < STATES; s++)
+                        scan[STATES + s] = start + i + 1;
+                    break;
+                }
+            }
+        }
+        return scan;
+    }
+
+    static int nextCsvState(int state, int ch) {
+        switch (state) {
+            case OUTSIDE:
+                return ch == '"' ? IN_QUOTES : OUTSIDE;
+            case IN_QUOTES:
+                return ch == '"' ? OUTSIDE : ch == '\\' ? ESCAPED : IN_QUOTES;
+            default:
+                return IN_QUOTES;
+        }
+    }
+
+    @NotNull
+    private static Bytes<ByteBuffer> map(@NotNull FileChannel fc, long position, long size) {
+        try {
+            MappedByteBuffer mbb = fc.map(FileChannel.MapMode.READ_ONLY, position, size);
+            return Bytes.wrapForRead(mbb);
+        } catch (IOException e) {
+            throw new IORuntimeException(e);
+        }
+    }
+
+    public enum Format {
+        /**
+         * A header line followed by one record per line, quoted text can contain new lines.
+         */
+        CSV,
+        /**
+         * One JSON record per line.
+         */
+        NDJSON,
+        /**
+         * YAML documents, each starting with a {@code ---} line.
+         */
+        YAML
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Decodes URL query strings without creating garbage.
+ * <p>
+ * The keys of interest are registered up front, and each returns an id.  Each call to parse
+ * percent decodes the keys and values of a query into a scratch buffer.  Keys are looked up by
+ * hash in the registered key table, and only the position of each value is recorded.  Values can
+ * then be parsed as primitives, or viewed in place, until the next query is parsed.
+ * <pre>
+ * QueryDecoder decoder = new QueryDecoder();
+ * int symbol = decoder.register("symbol");
+ * int qty = decoder.register("qty");
+ * decoder.parse(query);
+ * long q = decoder.int64(qty, 0);
+ * </pre>
+ * A QueryDecoder is not thread safe.
+ */
+public class QueryDecoder {
+    // a ByteBuffer, so the memory is freed with the decoder.
+    private final Bytes<?> scratch = Bytes.elasticByteBuffer();
+    private byte[][] keys = new byte[8][];
+    private int[] hashes = new int[8];
+    // open addressing, the key id + 1 or 0 for an empty slot.
+    private int[] table = new int[16];
+    private int keyCount = 0;
+    private long[] valueStart = new long[8];
+    private long[] valueEnd = new long[8];
+    private int unknownKeys = 0;
+
+    /**
+     * Percent decodes from[start, end) to the end of {@code to}, with '+' for a space.  A '%' not
+     * followed by two hex digits is left as is.
+     *
+     * @return the hash of the decoded bytes.
+     */
+    static int decode(@NotNull Bytes<?> from, long start, long end, @NotNull Bytes<?> to) {
+        int hash = 0;
+        for (long i = start; i < end; i++) {
+            int ch = from.readUnsignedByte(i);
+            if (ch == '+') {
+                ch = ' ';
+            } else if (ch == '%' && i + 2 < end) {
+                int hi = hexValue(from.readUnsignedByte(i + 1));
+                int lo = hexValue(from.readUnsignedByte(i + 2));
+                if ((hi | lo) >= 0) {
+                    ch = (hi << 4) | lo;
+                    i += 2;
+                }
+            }
+            to.writeByte((byte) ch);
+            hash = hash * 31 + ch;
+        }
+        return hash;
+    }
+
+    private static int hexValue(int ch) {
+        if (ch >= '0' && ch <= '9')
+            return ch - '0';
+        ch |= 0x20;
+        if (ch >= 'a' && ch <= 'f')
+            return ch - ('a' - 10);
+        return -1;
+    }
+
+    private static int hash(@NotNull byte[] key) {
+        int hash = 0;
+        for (byte b : key)
+            hash = hash * 31 + (b & 0xFF);
+        return hash;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Register a key to look for.  Registering the same key again returns the same id.
+     *
+     * @return the id to get the value of this key with.
+     */
+    public int register(@NotNull CharSequence name) {
+        byte[] key = name.toString().getBytes(StandardCharsets.UTF_8);
+        int hash = hash(key);
+        int id = find(key, hash);
+        if (id >= 0)
+            return id;
+
+        if (keyCount == keys.length) {
+            keys = Arrays.copyOf(keys, keyCount * 2);
+            hashes = Arrays.copyOf(hashes, keyCount * 2);
+            valueStart = Arrays.copyOf(valueStart, keyCount * 2);
+            valueEnd = Arrays.copyOf(valueEnd, keyCount * 2);
+        }
+        id = keyCount++;
+        keys[id] = key;
+        hashes[id] = hash;
+        valueStart[id] = -1;
+        if (keyCount * 2 > table.length) {
+            table = new int[table.length * 2];
+            for (int i = 0; i < keyCount; i++)
+                insert(i);
+        } else {
+            insert(id);
+        }
+        return id;
+    }
+
+    public int register(@NotNull WireKey key) {
+        return register(key.name());
+    }
+
+    private void insert(int id) {
+        int mask = table.length - 1;
+        int slot = spread(hashes[id]) & mask;
+        while (table[slot] != 0)
+            slot = (slot + 1) & mask;
+        table[slot] = id + 1;
+    }
+
+    private int find(@NotNull byte[] key, int hash) {
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int id = table[slot] - 1;
+            if (hashes[id] == hash && Arrays.equals(keys[id], key))
+                return id;
+        }
+        return -1;
+    }
+
+    // look up the key in scratch[start, end)
+    private int find(long start, long end, int hash) {
+        int mask = table.length - 1;
+        int length = (int) (end - start);
+        for (int slot = spread(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int id = table[slot] - 1;
+            if (hashes[id] == hash && keys[id].length == length && matches(keys[id], start))
+                return id;
+        }
+        return -1;
+    }
+
+    private boolean matches(@NotNull byte[] key, long start) {
+        for (int i = 0; i < key.length; i++)
+            if (scratch.readByte(start + i) != key[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Decode the query from the readPosition to the readLimit of {@code query}, which is left
+     * unchanged.  A leading '?' is ignored.  If a key appears more than once, the last value is
+     * used.
+     *
+     * @return this
+     */
+    @NotNull
+    public QueryDecoder parse(@NotNull Bytes<?> query) {
+        scratch.clear();
+        for (int i = 0; i < keyCount; i++)
+            valueStart[i] = -1;
+        unknownKeys = 0;
+
+        long pos = query.readPosition();
+        long limit = query.readLimit();
+        if (pos < limit && query.readUnsignedByte(pos) == '?')
+            pos++;
+        while (pos < limit) {
+            long keyEnd = pos;
+            int ch = 0;
+            for (; keyEnd < limit; keyEnd++) {
+                ch = query.readUnsignedByte(keyEnd);
+                if (ch == '=' || ch == '&')
+                    break;
+            }
+            long end = keyEnd;
+            if (keyEnd < limit && ch == '=') {
+                end = keyEnd + 1;
+                while (end < limit && query.readUnsignedByte(end) != '&')
+                    end++;
+            }
+
+            if (keyEnd > pos) {
+                long start = scratch.writePosition();
+                int hash = decode(query, pos, keyEnd, scratch);
+                int id = find(start, scratch.writePosition(), hash);
+                // the key is only needed to look it up.
+                scratch.writePosition(start);
+                if (id < 0) {
+                    unknownKeys++;
+                } else {
+                    valueStart[id] = start;
+                    if (end > keyEnd)
+                        decode(query, keyEnd + 1, end, scratch);
+                    valueEnd[id] = scratch.writePosition();
+                }
+            }
+            pos = end + 1;
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of keys in the last query which were not registered.
+     */
+    public int unknownKeys() {
+        return unknownKeys;
+    }
+
+    /**
+     * @return true if the last query had this key, even with an empty value.
+     */
+    public boolean has(int key) {
+        return valueStart[key] >= 0;
+    }
+
+    /**
+     * A view of the decoded value, which is only valid until the next call to this decoder.
+     *
+     * @return the value or null if the last query didn't have this key.
+     */
+    @Nullable
+    public Bytes<?> bytes(int key) {
+        long start = valueStart[key];
+        if (start < 0)
+            return null;
+        scratch.readPosition(0);
+        scratch.readLimit(valueEnd[key]);
+        scratch.readPosition(start);
+        return scratch;
+    }
+
+    /**
+     * @return the decoded value, or null if the last query didn't have this key.
+     */
+    @Nullable
+    public StringBuilder textTo(int key, @NotNull StringBuilder sb) {
+        Bytes<?> value = bytes(key);
+        if (value == null)
+            return null;
+        value.parseUTF(sb, QueryWire.QueryStopCharTesters.END_OF_TEXT);
+        return sb;
+    }
+
+    public long int64(int key, long defaultValue) {
+        Bytes<?> value = bytes(key);
+        return value == null || value.readRemaining() == 0 ? defaultValue : TextNumbers.parseLong(value);
+    }
+
+    public double float64(int key, double defaultValue) {
+        Bytes<?> value = bytes(key);
+        return value == null || value.readRemaining() == 0 ? defaultValue : TextNumbers.parseDouble(value);
+    }
+
+    /**
+     * @return true if the value is "true", ignoring case, or the default if the key is missing.
+     */
+    public boolean bool(int key, boolean defaultValue) {
+        Bytes<?> value = bytes(key);
+        if (value == null)
+            return defaultValue;
+        if (value.readRemaining() != 4)
+            return false;
+        long pos = value.readPosition();
+        return (value.readUnsignedByte(pos) | 0x20) == 't'
+                && (value.readUnsignedByte(pos + 1) | 0x20) == 'r'
+                && (value.readUnsignedByte(pos + 2) | 0x20) == 'u'
+                && (value.readUnsignedByte(pos + 3) | 0x20) == 'e';
+    }
+
+    /**
+     * @return true if the decoded value is the same as {@code compareBytes}.
+     */
+    public boolean bytesMatch(int key, @NotNull BytesStore compareBytes) {
+        Bytes<?> value = bytes(key);
+        if (value == null)
+            return false;
+        long length = value.readRemaining();
+        return compareBytes.readRemaining() == length && value.equalBytes(compareBytes, length);
+    }
+}
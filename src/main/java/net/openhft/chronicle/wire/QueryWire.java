@@ -20,7 +20,6 @@ import net.openhft.chronicle.bytes.BytesStore;
 import net.openhft.chronicle.bytes.IORuntimeException;
 import net.openhft.chronicle.bytes.StopCharTester;
 import net.openhft.chronicle.core.annotation.ForceInline;
-import net.openhft.chronicle.core.util.ObjectUtils;
 import net.openhft.chronicle.core.util.StringUtils;
 import net.openhft.chronicle.core.values.IntValue;
 import net.openhft.chronicle.core.values.LongArrayValues;
@@ -49,7 +48,12 @@ public class QueryWire implements Wire, InternalWireIn {
     final QueryValueOut valueOut = new QueryValueOut();
     final ValueIn valueIn = new QueryValueIn();
 
+    @NotNull
+    private InstanceProvider instanceProvider = InstanceProvider.NEW_INSTANCE;
     boolean ready;
+    // percent decoded text, allocated on first use.
+    @Nullable
+    private Bytes<?> decoded = null;
 
     public QueryWire(Bytes bytes) {
         this.bytes = bytes;
@@ -69,6 +73,17 @@ public class QueryWire implements Wire, InternalWireIn {
         this.ready = ready;
     }
 
+    @NotNull
+    @Override
+    public InstanceProvider instanceProvider() {
+        return instanceProvider;
+    }
+
+    @Override
+    public void instanceProvider(@NotNull InstanceProvider instanceProvider) {
+        this.instanceProvider = instanceProvider;
+    }
+
     @Override
     public void copyTo(@NotNull WireOut wire) {
         throw new UnsupportedOperationException();
@@ -84,16 +99,53 @@ public class QueryWire implements Wire, InternalWireIn {
     @NotNull
     private StringBuilder readField(@NotNull StringBuilder sb) {
         consumeWhiteSpace();
+        Bytes<?> text = decode(true);
+        if (text != null) {
+            text.parseUTF(sb, QueryStopCharTesters.END_OF_TEXT);
+            return sb;
+        }
         bytes.parseUTF(sb, QueryStopCharTesters.QUERY_FIELD_NAME);
         if (rewindAndRead() == '&')
             bytes.readSkip(-1);
         return sb;
     }
 
+    /**
+     * Percent decode the next field name or value, if it has any '%' or '+', and skip it.
+     *
+     * @return the decoded text or null if there was nothing to decode and nothing was read.
+     */
+    @Nullable
+    Bytes<?> decode(boolean fieldName) {
+        long start = bytes.readPosition();
+        long limit = bytes.readLimit();
+        long end = start;
+        boolean escaped = false;
+        int ch = 0;
+        for (; end < limit; end++) {
+            ch = bytes.readUnsignedByte(end);
+            if (ch == '&' || (fieldName && ch == '='))
+                break;
+            if (ch == '%' || ch == '+')
+                escaped = true;
+        }
+        if (!escaped)
+            return null;
+
+        Bytes<?> text = decoded;
+        if (text == null)
+            decoded = text = Bytes.elasticByteBuffer();
+        text.clear();
+        QueryDecoder.decode(bytes, start, end, text);
+        // a field name without a value leaves the '&' for the value to read.
+        bytes.readPosition(end < limit && (ch == '=' || !fieldName) ? end + 1 : end);
+        return text;
+    }
+
     @ForceInline
     void consumeWhiteSpace() {
         int codePoint = peekCode();
-        while (Character.isWhitespace(codePoint)) {
+        while ((TextCharClass.classOf(codePoint) & TextCharClass.WHITESPACE) != 0) {
             bytes.readSkip(1);
             codePoint = peekCode();
         }
@@ -255,6 +307,12 @@ public class QueryWire implements Wire, InternalWireIn {
             public boolean isStopChar(int ch) throws IllegalStateException {
                 return ch == '&' || ch < 0;
             }
+        },
+        END_OF_TEXT {
+            @Override
+            public boolean isStopChar(int ch) throws IllegalStateException {
+                return ch < 0;
+            }
         }
     }
 
@@ -449,7 +507,7 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public WireOut float32(float f) {
             prependSeparator();
-            bytes.append(f);
+            TextNumbers.append(bytes, f);
             elementSeparator();
 
             return QueryWire.this;
@@ -459,7 +517,7 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public WireOut float64(double d) {
             prependSeparator();
-            bytes.append(d);
+            TextNumbers.append(bytes, d);
             elementSeparator();
 
             return QueryWire.this;
@@ -651,7 +709,11 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public StringBuilder textTo(@NotNull StringBuilder a) {
             consumeWhiteSpace();
-            bytes.parseUTF(a, QueryStopCharTesters.QUERY_VALUE);
+            Bytes<?> text = decode(false);
+            if (text == null)
+                bytes.parseUTF(a, QueryStopCharTesters.QUERY_VALUE);
+            else
+                text.parseUTF(a, QueryStopCharTesters.END_OF_TEXT);
             return a;
         }
 
@@ -659,7 +721,13 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public Bytes textTo(@NotNull Bytes a) {
             consumeWhiteSpace();
-            bytes.parseUTF(a, QueryStopCharTesters.QUERY_VALUE);
+            Bytes<?> text = decode(false);
+            if (text == null) {
+                bytes.parseUTF(a, QueryStopCharTesters.QUERY_VALUE);
+            } else {
+                a.clear();
+                a.write(text);
+            }
             return a;
         }
 
@@ -667,14 +735,28 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public WireIn int8(@NotNull ByteConsumer i) {
             consumeWhiteSpace();
-            i.accept((byte) bytes.parseLong());
+            i.accept((byte) TextNumbers.parseLong(bytes));
             return QueryWire.this;
         }
 
         @NotNull
         @Override
-        public WireIn bytesMatch(@NotNull BytesStore compareBytes, BooleanConsumer consumer) {
-            throw new UnsupportedOperationException("todo");
+        public WireIn bytesMatch(@NotNull BytesStore compareBytes, @NotNull BooleanConsumer consumer) {
+            consumeWhiteSpace();
+            Bytes<?> text = decode(false);
+            if (text == null) {
+                long start = bytes.readPosition();
+                long end = start;
+                while (end < bytes.readLimit() && bytes.readUnsignedByte(end) != '&')
+                    end++;
+                long length = end - start;
+                consumer.accept(compareBytes.readRemaining() == length && bytes.equalBytes(compareBytes, length));
+                bytes.readPosition(end < bytes.readLimit() ? end + 1 : end);
+            } else {
+                long length = text.readRemaining();
+                consumer.accept(compareBytes.readRemaining() == length && text.equalBytes(compareBytes, length));
+            }
+            return QueryWire.this;
         }
 
         @NotNull
@@ -708,7 +790,7 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint8(@NotNull ShortConsumer i) {
             consumeWhiteSpace();
-            i.accept((short) bytes.parseLong());
+            i.accept((short) TextNumbers.parseLong(bytes));
             return QueryWire.this;
         }
 
@@ -716,7 +798,7 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public WireIn int16(@NotNull ShortConsumer i) {
             consumeWhiteSpace();
-            i.accept((short) bytes.parseLong());
+            i.accept((short) TextNumbers.parseLong(bytes));
             return QueryWire.this;
         }
 
@@ -724,7 +806,7 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint16(@NotNull IntConsumer i) {
             consumeWhiteSpace();
-            i.accept((int) bytes.parseLong());
+            i.accept((int) TextNumbers.parseLong(bytes));
             return QueryWire.this;
         }
 
@@ -732,7 +814,7 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public WireIn int32(@NotNull IntConsumer i) {
             consumeWhiteSpace();
-            i.accept((int) bytes.parseLong());
+            i.accept((int) TextNumbers.parseLong(bytes));
             return QueryWire.this;
         }
 
@@ -740,7 +822,7 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint32(@NotNull LongConsumer i) {
             consumeWhiteSpace();
-            i.accept(bytes.parseLong());
+            i.accept(TextNumbers.parseLong(bytes));
             return QueryWire.this;
         }
 
@@ -748,7 +830,7 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public WireIn int64(@NotNull LongConsumer i) {
             consumeWhiteSpace();
-            i.accept(bytes.parseLong());
+            i.accept(TextNumbers.parseLong(bytes));
             return QueryWire.this;
         }
 
@@ -756,7 +838,7 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public WireIn float32(@NotNull FloatConsumer v) {
             consumeWhiteSpace();
-            v.accept((float) bytes.parseDouble());
+            v.accept((float) TextNumbers.parseDouble(bytes));
             return QueryWire.this;
         }
 
@@ -764,7 +846,7 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public WireIn float64(@NotNull DoubleConsumer v) {
             consumeWhiteSpace();
-            v.accept(bytes.parseDouble());
+            v.accept(TextNumbers.parseDouble(bytes));
             return QueryWire.this;
         }
 
@@ -962,17 +1044,22 @@ public class QueryWire implements Wire, InternalWireIn {
         @Override
         public long int64() {
             consumeWhiteSpace();
-            return bytes.parseLong();
+            return TextNumbers.parseLong(bytes);
         }
 
         @Override
         public double float64() {
-            throw new UnsupportedOperationException("todo");
+            consumeWhiteSpace();
+            return TextNumbers.parseDouble(bytes);
         }
 
         @Override
         public float float32() {
-            throw new UnsupportedOperationException("todo");
+            double d = float64();
+            if ((double) (((float) d)) != d)
+                throw new IllegalStateException("value=" + d + " can not be represented as a float");
+
+            return (float) d;
         }
 
         /**
@@ -1005,14 +1092,13 @@ public class QueryWire implements Wire, InternalWireIn {
                 return (E) bytes();
 
             if (Marshallable.class.isAssignableFrom(clazz)) {
-                final E v;
-                if (using == null)
-                    v = ObjectUtils.newInstance(clazz);
-                else
-                    v = using;
-
+                if (using != null) {
+                    valueIn.marshallable((Marshallable) using);
+                    return using;
+                }
+                final E v = instanceProvider.acquire(clazz);
                 valueIn.marshallable((Marshallable) v);
-                return v;
+                return Wires.readResolve(instanceProvider, v);
 
             } else if (StringBuilder.class.isAssignableFrom(clazz)) {
                 StringBuilder builder = (using == null)
@@ -19,6 +19,7 @@ import net.openhft.chronicle.bytes.Byteable;
 import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.BytesStore;
 import net.openhft.chronicle.core.Maths;
+import net.openhft.chronicle.core.pool.ClassAliasPool;
 import net.openhft.chronicle.core.values.IntValue;
 import net.openhft.chronicle.core.values.LongArrayValues;
 import net.openhft.chronicle.core.values.LongValue;
@@ -37,6 +38,8 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.function.*;
 
+import static net.openhft.chronicle.core.util.ReadResolvable.readResolve;
+
 /**
  * This format writes just the data, without meta data.
  */
@@ -51,6 +54,8 @@ public class RawWire implements Wire, InternalWireIn {
     @Nullable
     private
     StringBuilder lastSB;
+    @NotNull
+    private InstanceProvider instanceProvider = InstanceProvider.NEW_INSTANCE;
     private boolean ready;
 
     public RawWire(Bytes bytes) {
@@ -72,6 +77,17 @@ public class RawWire implements Wire, InternalWireIn {
         this.ready = ready;
     }
 
+    @NotNull
+    @Override
+    public InstanceProvider instanceProvider() {
+        return instanceProvider;
+    }
+
+    @Override
+    public void instanceProvider(@NotNull InstanceProvider instanceProvider) {
+        this.instanceProvider = instanceProvider;
+    }
+
     @Override
     public void copyTo(@NotNull WireOut wire) {
         if (wire instanceof RawWire) {
@@ -362,6 +378,77 @@ public class RawWire implements Wire, InternalWireIn {
             return RawWire.this;
         }
 
+        @NotNull
+        @Override
+        public WireOut int64striped(int stripes) {
+            BinaryLongArrayReference.lazyWrite(bytes, BinaryLongStripedReference.capacityFor(stripes));
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int64queue(long capacity) {
+            BinaryLongQueueReference.write(bytes, capacity);
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int64queue(long capacity, @NotNull BinaryLongQueueReference queue) {
+            long pos = bytes.writePosition();
+            BinaryLongQueueReference.write(bytes, capacity);
+            queue.bytesStore(bytes, pos, bytes.writePosition() - pos);
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int64map(long capacity) {
+            BinaryLongLongMapReference.write(bytes, capacity);
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int64map(long capacity, @NotNull BinaryLongLongMapReference map) {
+            long pos = bytes.writePosition();
+            BinaryLongLongMapReference.write(bytes, capacity);
+            map.bytesStore(bytes, pos, bytes.writePosition() - pos);
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int32array(long capacity) {
+            BinaryIntArrayReference.lazyWrite(bytes, capacity);
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int32array(long capacity, @NotNull BinaryIntArrayReference values) {
+            long pos = bytes.writePosition();
+            BinaryIntArrayReference.lazyWrite(bytes, capacity);
+            values.bytesStore(bytes, pos, bytes.writePosition() - pos);
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut float64array(long capacity) {
+            BinaryDoubleArrayReference.lazyWrite(bytes, capacity);
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut float64array(long capacity, @NotNull BinaryDoubleArrayReference values) {
+            long pos = bytes.writePosition();
+            BinaryDoubleArrayReference.lazyWrite(bytes, capacity);
+            values.bytesStore(bytes, pos, bytes.writePosition() - pos);
+            return RawWire.this;
+        }
+
 
         @NotNull
         @Override
@@ -731,6 +818,61 @@ public class RawWire implements Wire, InternalWireIn {
             return RawWire.this;
         }
 
+        @NotNull
+        @Override
+        public WireIn int64striped(@Nullable BinaryLongStripedReference values, @NotNull Consumer<BinaryLongStripedReference> setter) {
+            if (values == null)
+                setter.accept(values = new BinaryLongStripedReference());
+            long length = BinaryLongArrayReference.peakLength(bytes, bytes.readPosition());
+            values.bytesStore(bytes, bytes.readPosition(), length);
+            bytes.readSkip(length);
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireIn int64queue(@Nullable BinaryLongQueueReference queue, @NotNull Consumer<BinaryLongQueueReference> setter) {
+            if (queue == null)
+                setter.accept(queue = new BinaryLongQueueReference());
+            long length = BinaryLongQueueReference.peakLength(bytes, bytes.readPosition());
+            queue.bytesStore(bytes, bytes.readPosition(), length);
+            bytes.readSkip(length);
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireIn int64map(@Nullable BinaryLongLongMapReference map, @NotNull Consumer<BinaryLongLongMapReference> setter) {
+            if (map == null)
+                setter.accept(map = new BinaryLongLongMapReference());
+            long length = BinaryLongLongMapReference.peakLength(bytes, bytes.readPosition());
+            map.bytesStore(bytes, bytes.readPosition(), length);
+            bytes.readSkip(length);
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireIn int32array(@Nullable BinaryIntArrayReference values, @NotNull Consumer<BinaryIntArrayReference> setter) {
+            if (values == null)
+                setter.accept(values = new BinaryIntArrayReference());
+            long length = BinaryIntArrayReference.peakLength(bytes, bytes.readPosition());
+            values.bytesStore(bytes, bytes.readPosition(), length);
+            bytes.readSkip(length);
+            return RawWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireIn float64array(@Nullable BinaryDoubleArrayReference values, @NotNull Consumer<BinaryDoubleArrayReference> setter) {
+            if (values == null)
+                setter.accept(values = new BinaryDoubleArrayReference());
+            long length = BinaryDoubleArrayReference.peakLength(bytes, bytes.readPosition());
+            values.bytesStore(bytes, bytes.readPosition(), length);
+            bytes.readSkip(length);
+            return RawWire.this;
+        }
+
         @NotNull
         @Override
         public WireIn int64(LongValue value, @NotNull Consumer<LongValue> setter) {
@@ -794,7 +936,15 @@ public class RawWire implements Wire, InternalWireIn {
         @Nullable
         @Override
         public <T extends ReadMarshallable> T typedMarshallable() {
-            throw new UnsupportedOperationException("todo");
+            StringBuilder sb = Wires.acquireStringBuilder();
+            type(sb);
+            final Class clazz = ClassAliasPool.CLASS_ALIASES.forName(sb);
+            if (!ReadMarshallable.class.isAssignableFrom(clazz))
+                throw new ClassCastException("Cannot convert " + sb + " to Marshallable.");
+
+            final ReadMarshallable m = instanceProvider.acquire((Class<ReadMarshallable>) clazz);
+            marshallable(m);
+            return Wires.readResolve(instanceProvider, m);
         }
 
         @NotNull
@@ -891,7 +1041,15 @@ public class RawWire implements Wire, InternalWireIn {
         @Nullable
         @Override
         public <E> E object(@Nullable E using, @NotNull Class<E> clazz) {
-            throw new UnsupportedOperationException("todo");
+            if (!ReadMarshallable.class.isAssignableFrom(clazz))
+                throw new UnsupportedOperationException("todo");
+            if (using != null) {
+                marshallable((ReadMarshallable) using);
+                return readResolve(using);
+            }
+            final E v = instanceProvider.acquire(clazz);
+            marshallable((ReadMarshallable) v);
+            return Wires.readResolve(instanceProvider, v);
         }
 
         @Nullable
@@ -0,0 +1,230 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reads TextWire or JSONWire input which arrives in fragments.
+ * <p>
+ * Bytes appended to the wire are scanned once, keeping the tokenizer state (nesting depth,
+ * quoting, escapes and comments) between calls.  When a complete top level entry is available it
+ * is passed to the reader with the readLimit set to the end of that entry, otherwise false is
+ * returned so the caller can append more data and try again.  A top level entry ends at the
+ * newline after it, outside any quotes or brackets, so the last entry received is delivered
+ * without waiting for more data.  For JSONWire an entry also ends at the bracket which closes a
+ * top level mapping or sequence.  Only a line which opens a block, ending with {@code :},
+ * {@code |} or {@code >}, continues on the next lines, until a line which isn't indented, so such
+ * an entry is only delivered once the next entry starts.  Quotes are only recognised at the start
+ * of a scalar so an apostrophe in a plain scalar is just text.
+ * <p>
+ * This class is not thread safe.
+ */
+public class ResumableTextReader {
+    private final Wire wire;
+    private final Bytes<?> bytes;
+    private final boolean json;
+    private long scanned;
+    private int depth;
+    private int quote;
+    private int last = '\n';
+    private int beforeLast = '\n';
+    private boolean block;
+    private boolean escaped;
+    private boolean comment;
+    private boolean content;
+
+    public ResumableTextReader(@NotNull Wire wire) {
+        if (!(wire instanceof TextWire || wire instanceof JSONWire))
+            throw new IllegalArgumentException("Only TextWire and JSONWire are supported, was " + wire.getClass());
+        this.wire = wire;
+        this.bytes = wire.bytes();
+        this.json = wire instanceof JSONWire;
+        this.scanned = bytes.readPosition();
+    }
+
+    /**
+     * @param reader to pass a complete entry to
+     * @return true if an entry was read, false if more data is needed.
+     */
+    public boolean readEntry(@NotNull ReadMarshallable reader) {
+        for (; ; ) {
+            long end = scan();
+            if (end < 0)
+                return false;
+            boolean hasContent = content;
+            reset(end);
+            if (!hasContent) {
+                bytes.readPosition(end);
+                continue;
+            }
+            long limit = bytes.readLimit();
+            try {
+                bytes.readLimit(end);
+                reader.readMarshallable(wire);
+            } finally {
+                bytes.readLimit(limit);
+                bytes.readPosition(end);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return true if the data read so far ends part way through an entry.
+     */
+    public boolean isPartial() {
+        return content || depth > 0 || quote != 0;
+    }
+
+    private void reset(long end) {
+        scanned = end;
+        depth = 0;
+        quote = 0;
+        last = '\n';
+        beforeLast = '\n';
+        block = false;
+        escaped = false;
+        comment = false;
+        content = false;
+    }
+
+    /**
+     * @return the end of the next entry, or -1 if it is not complete yet.
+     */
+    private long scan() {
+        long limit = bytes.readLimit();
+        long pos = Math.max(scanned, bytes.readPosition());
+        for (; pos < limit; pos++) {
+            int ch = bytes.readUnsignedByte(pos);
+            if (comment) {
+                if (ch == '\n' || ch == '\r')
+                    comment = false;
+                else
+                    continue;
+            }
+            if (quote != 0) {
+                if (escaped)
+                    escaped = false;
+                else if (ch == '\\')
+                    escaped = true;
+                else if (ch == quote)
+                    quote = 0;
+                last = ch;
+                continue;
+            }
+            switch (ch) {
+                case '"':
+                case '\'':
+                    if (isScalarStart(last))
+                        quote = ch;
+                    content = true;
+                    break;
+                case '#':
+                    comment = true;
+                    continue;
+                case '{':
+                case '[':
+                    depth++;
+                    content = true;
+                    break;
+                case '}':
+                case ']':
+                    // a stray closer is left for the reader to reject.
+                    if (depth > 0 && --depth == 0 && json) {
+                        scanned = pos + 1;
+                        return pos + 1;
+                    }
+                    content = true;
+                    break;
+                case '\n':
+                case '\r':
+                    if (depth > 0 || !content)
+                        break;
+                    if (!block) {
+                        if (!opensBlock()) {
+                            scanned = pos + 1;
+                            return pos + 1;
+                        }
+                        block = true;
+                        break;
+                    }
+                    if (pos + 1 >= limit) {
+                        // need to see the next line to know whether this entry continues.
+                        scanned = pos;
+                        return -1;
+                    }
+                    int next = bytes.readUnsignedByte(pos + 1);
+                    if (next == ' ' || next == '\t' || next == '-' || next == '\n' || next == '\r')
+                        break;
+                    scanned = pos + 1;
+                    return pos + 1;
+                case ' ':
+                case '\t':
+                    continue;
+                case ',':
+                    break;
+                default:
+                    content = true;
+                    break;
+            }
+            beforeLast = last;
+            last = ch;
+        }
+        scanned = pos;
+        return -1;
+    }
+
+    /**
+     * @return true if the line just ended continues on the following indented lines.
+     */
+    private boolean opensBlock() {
+        switch (last) {
+            case ':':
+            case '|':
+            case '>':
+                return true;
+            case '-':
+            case '+':
+                // a block scalar with a chomping indicator, e.g. |-
+                return beforeLast == '|' || beforeLast == '>';
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param last the last character before any spaces
+     * @return true if a scalar can start after this character.
+     */
+    private static boolean isScalarStart(int last) {
+        switch (last) {
+            case '\n':
+            case '\r':
+            case ':':
+            case ',':
+            case '[':
+            case '{':
+            case '-':
+            case '?':
+            case '!':
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Implementation of a reference to a boolean in text wire format, as {@code true } or
+ * {@code false}.
+ * <p>
+ * Updates are guarded by a {@link TextSeqLock}, see {@link TextLongReference}
+ */
+class TextBooleanReference implements BooleanValue, Byteable {
+    private static final byte[] template = "!!atomic { version: 00000000, value: false }".getBytes();
+    private static final byte[] TRUE = "true ".getBytes();
+    private static final byte[] FALSE = "false".getBytes();
+    private static final int VERSION = 20;
+    private static final int VALUE = 37;
+    private BytesStore bytes;
+    private long offset;
+
+    public static void write(@NotNull Bytes bytes, boolean value) {
+        long position = bytes.writePosition();
+        bytes.write(template);
+        bytes.write(position + VALUE, value ? TRUE : FALSE);
+    }
+
+    @Override
+    public boolean getValue() {
+        long versionOffset = offset + VERSION;
+        for (int spins = 0; ; spins++) {
+            long version = TextSeqLock.readBegin(bytes, versionOffset);
+            boolean value = bytes.readUnsignedByte(offset + VALUE) == 't';
+            if (TextSeqLock.validate(bytes, versionOffset, version))
+                return value;
+            TextSeqLock.pause(spins);
+        }
+    }
+
+    @Override
+    public void setValue(boolean value) {
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        bytes.write(offset + VALUE, value ? TRUE : FALSE);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+    }
+
+    @Override
+    public boolean getVolatileValue() {
+        return getValue();
+    }
+
+    @Override
+    public void setOrderedValue(boolean value) {
+        setValue(value);
+    }
+
+    @Override
+    public boolean compareAndSwapValue(boolean expected, boolean value) {
+        // no need to lock if it can't succeed.
+        if (getValue() != expected)
+            return false;
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        boolean swapped = (bytes.readUnsignedByte(offset + VALUE) == 't') == expected;
+        if (swapped)
+            bytes.write(offset + VALUE, value ? TRUE : FALSE);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+        return swapped;
+    }
+
+    @Override
+    public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
+        if (length != template.length) throw new IllegalArgumentException();
+        this.bytes = bytes;
+        this.offset = offset;
+    }
+
+    @Override
+    public long maxSize() {
+        return template.length;
+    }
+
+    @NotNull
+    public String toString() {
+        return "value: " + getValue();
+    }
+}
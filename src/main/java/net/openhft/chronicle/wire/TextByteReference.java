@@ -0,0 +1,125 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Implementation of a reference to an 8-bit value in text wire format, as a sign or 0 followed
+ * by three digits e.g. {@code -128} or {@code 0042}
+ * <p>
+ * Updates are guarded by a {@link TextSeqLock}, see {@link TextLongReference}
+ */
+class TextByteReference implements ByteValue, Byteable {
+    private static final byte[] template = "!!atomic { version: 00000000, value: 0000 }".getBytes();
+    private static final int VERSION = 20;
+    private static final int VALUE = 37;
+    private BytesStore bytes;
+    private long offset;
+
+    public static void write(@NotNull Bytes bytes, byte value) {
+        long position = bytes.writePosition();
+        bytes.write(template);
+        writeValue(bytes, position + VALUE, value);
+    }
+
+    private static void writeValue(@NotNull BytesStore bytes, long offset, byte value) {
+        int abs = Math.abs(value);
+        bytes.writeByte(offset, (byte) (value < 0 ? '-' : '0'));
+        bytes.writeByte(offset + 1, (byte) ('0' + abs / 100));
+        bytes.writeByte(offset + 2, (byte) ('0' + abs / 10 % 10));
+        bytes.writeByte(offset + 3, (byte) ('0' + abs % 10));
+    }
+
+    private byte readValue() {
+        long pos = offset + VALUE;
+        int abs = (bytes.readUnsignedByte(pos + 1) - '0') * 100
+                + (bytes.readUnsignedByte(pos + 2) - '0') * 10
+                + (bytes.readUnsignedByte(pos + 3) - '0');
+        return (byte) (bytes.readUnsignedByte(pos) == '-' ? -abs : abs);
+    }
+
+    @Override
+    public byte getValue() {
+        long versionOffset = offset + VERSION;
+        for (int spins = 0; ; spins++) {
+            long version = TextSeqLock.readBegin(bytes, versionOffset);
+            byte value = readValue();
+            if (TextSeqLock.validate(bytes, versionOffset, version))
+                return value;
+            TextSeqLock.pause(spins);
+        }
+    }
+
+    @Override
+    public void setValue(byte value) {
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        writeValue(bytes, offset + VALUE, value);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+    }
+
+    @Override
+    public byte getVolatileValue() {
+        return getValue();
+    }
+
+    @Override
+    public void setOrderedValue(byte value) {
+        setValue(value);
+    }
+
+    @Override
+    public byte addValue(byte delta) {
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        byte value = (byte) (readValue() + delta);
+        writeValue(bytes, offset + VALUE, value);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+        return value;
+    }
+
+    @Override
+    public boolean compareAndSwapValue(byte expected, byte value) {
+        // no need to lock if it can't succeed.
+        if (getValue() != expected)
+            return false;
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        boolean swapped = readValue() == expected;
+        if (swapped)
+            writeValue(bytes, offset + VALUE, value);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+        return swapped;
+    }
+
+    @Override
+    public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
+        if (length != template.length) throw new IllegalArgumentException();
+        this.bytes = bytes;
+        this.offset = offset;
+    }
+
+    @Override
+    public long maxSize() {
+        return template.length;
+    }
+
+    @NotNull
+    public String toString() {
+        return "value: " + getValue();
+    }
+}
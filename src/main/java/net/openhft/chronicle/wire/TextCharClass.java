@@ -0,0 +1,77 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Byte classification tables shared by the text based wires.
+ */
+enum TextCharClass {
+    ;
+    static final int WHITESPACE = 1;
+    static final int COMMA = 2;
+    static final int NEW_LINE = 4;
+    static final int COMMENT = 8;
+
+    private static final long SPACES = 0x2020202020202020L;
+    private static final byte[] CLASS = new byte[256];
+
+    static {
+        for (int i = 0; i < CLASS.length; i++) {
+            int cls = 0;
+            if (Character.isWhitespace(i))
+                cls |= WHITESPACE;
+            if (i == '\n' || i == '\r')
+                cls |= NEW_LINE;
+            if (i == ',')
+                cls |= COMMA;
+            if (i == '#')
+                cls |= COMMENT;
+            CLASS[i] = (byte) cls;
+        }
+    }
+
+    /**
+     * @param ch an unsigned byte or -1 for the end of input.
+     * @return the classes this byte belongs to, or 0 if none.
+     */
+    static int classOf(int ch) {
+        return ch < 0 ? 0 : CLASS[ch & 0xFF];
+    }
+
+    /**
+     * @param ch a char, which is looked up in the table if it is 8-bit.
+     * @return true if it is whitespace, as defined by Character.isWhitespace.
+     */
+    static boolean isWhitespace(int ch) {
+        return ch < 256 ? (classOf(ch) & WHITESPACE) != 0 : Character.isWhitespace(ch);
+    }
+
+    /**
+     * Skip a run of spaces, eight bytes at a time where possible.
+     *
+     * @return the position of the first byte which is not a space, or the limit.
+     */
+    static long skipSpaces(@NotNull BytesStore bytes, long position, long limit) {
+        while (position + 8 <= limit && bytes.readLong(position) == SPACES)
+            position += 8;
+        while (position < limit && bytes.readUnsignedByte(position) == ' ')
+            position++;
+        return position;
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Base64;
+
+/**
+ * Copies YAML or JSON text to any WireOut in one pass, without building objects for the values.
+ * <p>
+ * The text is tokenized as it is read and each value is written with the matching ValueOut call,
+ * so numbers, booleans and nulls keep their type, {@code !type} tags become typed values and
+ * nested mappings and sequences are written with marshallable() and sequence().  This uses the
+ * same grammar as TextTree.
+ */
+final class TextCopier extends TextScanner {
+    private static final WriteMarshallable EMPTY = w -> {
+    };
+
+    private final boolean use8bit;
+    private final StringBuilder key = new StringBuilder();
+    private final StringBuilder text = new StringBuilder();
+    private final WireKey keyName = () -> key;
+
+    TextCopier(@NotNull Bytes<?> bytes, boolean use8bit) {
+        super(bytes);
+        this.use8bit = use8bit;
+    }
+
+    private static boolean isDigit(int ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    /**
+     * Copy everything up to the readLimit, a mapping at the top level is written as fields of
+     * the wire.
+     */
+    void copyTo(@NotNull WireOut wire) {
+        try {
+            skipBlank(false);
+            while (pos < limit) {
+                long before = pos;
+                if (isDocumentMarker(pos))
+                    pos += 3;
+                else if (peek() == '{')
+                    copyFlowMap(wire);
+                else if (isKey())
+                    copyBlockMap(wire, indent());
+                else
+                    copyValue(wire.writeValue(), true);
+                skipBlank(false);
+                // always make progress on malformed input.
+                if (pos == before)
+                    pos++;
+            }
+        } finally {
+            bytes.readLimit(limit);
+            bytes.readPosition(Math.min(pos, limit));
+        }
+    }
+
+    private void copyValue(@NotNull ValueOut out, boolean block) {
+        switch (peek()) {
+            case '!':
+                copyTyped(out, block);
+                return;
+            case '{':
+                out.marshallable(this::copyFlowMap);
+                return;
+            case '[':
+                out.sequence(this::copyFlowList);
+                return;
+            case '-':
+                if (block && isBlank(peek(pos + 1))) {
+                    int indent = indent();
+                    out.sequence(v -> copyBlockList(v, indent));
+                    return;
+                }
+                break;
+        }
+        if (block && isKey()) {
+            int indent = indent();
+            out.marshallable(w -> copyBlockMap(w, indent));
+        } else {
+            copyScalar(out, !block);
+        }
+    }
+
+    private void copyTyped(@NotNull ValueOut out, boolean block) {
+        long ts = ++pos;
+        skipTag(block);
+        long te = pos;
+        skipSpaces();
+        boolean noValue = block ? isEndOfLine() : isEndOfFlowValue();
+        if (matches(ts, te, "!null")) {
+            // written as !!null ""
+            if (!noValue)
+                skipScalar(!block);
+            out.text(null);
+
+        } else if (matches(ts, te, "!binary")) {
+            scalarText(!block, text);
+            out.bytes(Base64.getDecoder().decode(text.toString()));
+
+        } else if (matches(ts, te, "type")) {
+            scalarText(!block, text);
+            out.typeLiteral(text);
+
+        } else if (peek(ts) == '!') {
+            // other standard tags such as !!seqmap don't change how the value is written.
+            copyTaggedValue(out, block);
+
+        } else {
+            textOf(ts, te, text);
+            copyTaggedValue(out.type(text), block);
+        }
+    }
+
+    /**
+     * The value after a tag can be on the same line, or on the following lines if indented
+     * further.
+     */
+    private void copyTaggedValue(@NotNull ValueOut out, boolean block) {
+        if (block && isEndOfLine()) {
+            int indent = lineIndent();
+            skipBlank(false);
+            if (pos < limit && !isDocumentMarker(pos) && indent() > indent)
+                copyValue(out, true);
+            else
+                out.marshallable(EMPTY);
+        } else if (!block && isEndOfFlowValue()) {
+            out.marshallable(EMPTY);
+        } else {
+            copyValue(out, block);
+        }
+    }
+
+    /**
+     * Read a key into key, leaving the position after the ':'
+     */
+    private void readKey(boolean flow) {
+        boolean quoted = scanKey(flow);
+        textOf(tokenStart, tokenEnd, key);
+        if (quoted)
+            TextWire.unescape(key);
+    }
+
+    private void copyBlockMap(@NotNull WireOut wire, int indent) {
+        while (pos < limit) {
+            if (indent() != indent || isDocumentMarker(pos) || !isKey())
+                break;
+            readKey(false);
+            skipSpaces();
+            copyBlockEntryValue(wire.write(keyName), indent, true);
+            skipBlank(false);
+        }
+    }
+
+    private void copyBlockList(@NotNull ValueOut out, int indent) {
+        while (pos < limit) {
+            if (indent() != indent || !isListItem())
+                break;
+            pos++;
+            skipSpaces();
+            copyBlockEntryValue(out, indent, false);
+            skipBlank(false);
+        }
+    }
+
+    /**
+     * The value after a key or '-' is on the same line, or on the following lines if indented
+     * further.  A list may be at the same indentation as its key.
+     */
+    private void copyBlockEntryValue(@NotNull ValueOut out, int indent, boolean hasKey) {
+        if (isEndOfLine()) {
+            skipBlank(false);
+            if (pos < limit && !isDocumentMarker(pos)
+                    && (indent() > indent || (indent() == indent && isListItem() && hasKey)))
+                copyValue(out, true);
+            else
+                out.text("");
+        } else {
+            copyValue(out, true);
+        }
+    }
+
+    private void copyFlowMap(@NotNull WireOut wire) {
+        pos++;
+        for (; ; ) {
+            skipBlank(true);
+            int ch = peek();
+            if (ch < 0)
+                break;
+            if (ch == '}') {
+                pos++;
+                break;
+            }
+            long before = pos;
+            readKey(true);
+            ValueOut out = wire.write(keyName);
+            skipBlank(false);
+            if (isEndOfFlowValue())
+                out.text("");
+            else
+                copyValue(out, false);
+            if (pos == before)
+                pos++;
+        }
+    }
+
+    private void copyFlowList(@NotNull ValueOut out) {
+        pos++;
+        for (; ; ) {
+            skipBlank(true);
+            int ch = peek();
+            if (ch < 0)
+                break;
+            if (ch == ']') {
+                pos++;
+                break;
+            }
+            long before = pos;
+            copyValue(out, false);
+            if (pos == before)
+                pos++;
+        }
+    }
+
+    private void copyScalar(@NotNull ValueOut out, boolean flow) {
+        int ch = peek();
+        if (ch == '"' || ch == '\'') {
+            scalarText(flow, text);
+            out.text(text);
+            return;
+        }
+        long start = pos;
+        long end = skipScalar(flow);
+        if (start == end)
+            out.text("");
+        else if (matches(start, end, "true"))
+            out.bool(true);
+        else if (matches(start, end, "false"))
+            out.bool(false);
+        else if (matches(start, end, "null"))
+            out.text(null);
+        else if (!copyNumber(out, start, end))
+            out.text(textOf(start, end, text));
+    }
+
+    /**
+     * Read a quoted or plain scalar into sb.
+     */
+    private void scalarText(boolean flow, @NotNull StringBuilder sb) {
+        int ch = peek();
+        long start = ch == '"' || ch == '\'' ? pos + 1 : pos;
+        long end = skipScalar(flow);
+        textOf(start, end, sb);
+        if (ch == '"' || ch == '\'')
+            TextWire.unescape(sb);
+    }
+
+    /**
+     * Move past a quoted or plain scalar.
+     *
+     * @return the end of its text, excluding any closing quote or trailing spaces.
+     */
+    private long skipScalar(boolean flow) {
+        long start = pos;
+        int ch = peek();
+        if (ch == '"' || ch == '\'') {
+            pos = skipQuoted(pos, ch);
+            return peek(pos - 1) == ch && pos - 1 > start ? pos - 1 : pos;
+        }
+        return skipPlainScalar(flow);
+    }
+
+    /**
+     * Write the text as an int64 or float64 if it is a number.
+     *
+     * @return false if it is not a number.
+     */
+    private boolean copyNumber(@NotNull ValueOut out, long start, long end) {
+        long p = start;
+        boolean negative = peek(p) == '-';
+        if (negative)
+            p++;
+        long digits = p;
+        while (p < end && isDigit(peek(p)))
+            p++;
+        if (p == digits)
+            return false;
+        boolean decimal = false;
+        if (p < end && peek(p) == '.') {
+            long fraction = ++p;
+            while (p < end && isDigit(peek(p)))
+                p++;
+            if (p == fraction)
+                return false;
+            decimal = true;
+        }
+        if (p < end && (peek(p) | 0x20) == 'e') {
+            p++;
+            if (peek(p) == '+' || peek(p) == '-')
+                p++;
+            long exponent = p;
+            while (p < end && isDigit(peek(p)))
+                p++;
+            if (p == exponent)
+                return false;
+            decimal = true;
+        }
+        if (p != end)
+            return false;
+
+        bytes.readPosition(start);
+        bytes.readLimit(end);
+        try {
+            if (decimal || !fitsInLong(digits, p, negative))
+                out.float64(TextNumbers.parseDouble(bytes));
+            else
+                out.int64(TextNumbers.parseLong(bytes));
+        } finally {
+            bytes.readLimit(limit);
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the digits from start to end are in the range of a long.
+     */
+    private boolean fitsInLong(long start, long end, boolean negative) {
+        while (end - start > 1 && peek(start) == '0')
+            start++;
+        // up to 18 digits always fit in a long
+        if (end - start < 19)
+            return true;
+        if (end - start > 19)
+            return false;
+        String max = negative ? "9223372036854775808" : "9223372036854775807";
+        for (int i = 0; i < 19; i++) {
+            int diff = peek(start + i) - max.charAt(i);
+            if (diff != 0)
+                return diff < 0;
+        }
+        return true;
+    }
+
+    private boolean matches(long start, long end, @NotNull String s) {
+        if (end - start != s.length())
+            return false;
+        for (int i = 0; i < s.length(); i++)
+            if (bytes.readUnsignedByte(start + i) != s.charAt(i))
+                return false;
+        return true;
+    }
+
+    @NotNull
+    private StringBuilder textOf(long start, long end, @NotNull StringBuilder sb) {
+        sb.setLength(0);
+        if (end <= start)
+            return sb;
+        bytes.readPosition(start);
+        bytes.readLimit(end);
+        try {
+            if (use8bit)
+                bytes.parse8bit(sb, TextStopCharTesters.END_OF_INPUT);
+            else
+                bytes.parseUTF(sb, TextStopCharTesters.END_OF_INPUT);
+        } finally {
+            bytes.readLimit(limit);
+        }
+        return sb;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Implementation of a reference to a 64-bit floating point in text wire format, left aligned in a
+ * field of spaces wide enough for any double.
+ * <p>
+ * Updates are guarded by a {@link TextSeqLock}, see {@link TextLongReference}
+ */
+class TextDoubleReference implements DoubleValue, Byteable {
+    private static final byte[] template = "!!atomic { version: 00000000, value: 0.0                      }".getBytes();
+    private static final int VERSION = 20;
+    private static final int VALUE = 37;
+    // the longest Double.toString e.g. -2.2250738585072014E-308
+    private static final int WIDTH = 24;
+    private BytesStore bytes;
+    private long offset;
+
+    public static void write(@NotNull Bytes bytes, double value) {
+        long position = bytes.writePosition();
+        bytes.write(template);
+        writeValue(bytes, position + VALUE, value);
+    }
+
+    private static void writeValue(@NotNull BytesStore bytes, long offset, double value) {
+        TextNumbers.write(bytes, offset, WIDTH, value);
+    }
+
+    private double readValue() {
+        // a torn read may parse to anything, and is rejected by validate.
+        return TextNumbers.parseDouble(bytes, offset + VALUE, offset + VALUE + WIDTH);
+    }
+
+    @Override
+    public double getValue() {
+        long versionOffset = offset + VERSION;
+        for (int spins = 0; ; spins++) {
+            long version = TextSeqLock.readBegin(bytes, versionOffset);
+            double value = readValue();
+            if (TextSeqLock.validate(bytes, versionOffset, version))
+                return value;
+            TextSeqLock.pause(spins);
+        }
+    }
+
+    @Override
+    public void setValue(double value) {
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        writeValue(bytes, offset + VALUE, value);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+    }
+
+    @Override
+    public double getVolatileValue() {
+        return getValue();
+    }
+
+    @Override
+    public void setOrderedValue(double value) {
+        setValue(value);
+    }
+
+    @Override
+    public double addValue(double delta) {
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        double value = readValue() + delta;
+        writeValue(bytes, offset + VALUE, value);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+        return value;
+    }
+
+    @Override
+    public boolean compareAndSwapValue(double expected, double value) {
+        long bits = Double.doubleToRawLongBits(expected);
+        // no need to lock if it can't succeed.
+        if (Double.doubleToRawLongBits(getValue()) != bits)
+            return false;
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        boolean swapped = Double.doubleToRawLongBits(readValue()) == bits;
+        if (swapped)
+            writeValue(bytes, offset + VALUE, value);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+        return swapped;
+    }
+
+    @Override
+    public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
+        if (length != template.length) throw new IllegalArgumentException();
+        this.bytes = bytes;
+        this.offset = offset;
+    }
+
+    @Override
+    public long maxSize() {
+        return template.length;
+    }
+
+    @NotNull
+    public String toString() {
+        return "value: " + getValue();
+    }
+}
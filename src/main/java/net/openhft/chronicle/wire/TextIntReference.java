@@ -21,17 +21,15 @@ import net.openhft.chronicle.bytes.BytesStore;
 import net.openhft.chronicle.core.values.IntValue;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.function.Supplier;
-
 /**
  * Implementation of a reference to a 32-bit in in text wire format.
+ * <p>
+ * Updates are guarded by a {@link TextSeqLock}, see {@link TextLongReference}
  */
 class TextIntReference implements IntValue, Byteable {
-    private static final byte[] template = "!!atomic { locked: false, value: 0000000000 }".getBytes();
-    private static final int FALSE = ('f' << 24) | ('a' << 16) | ('l' << 8) | 's';
-    private static final int TRUE = (' ' << 24) | ('t' << 16) | ('r' << 8) | 'u';
-    private static final int LOCKED = 19;
-    private static final int VALUE = 33;
+    private static final byte[] template = "!!atomic { version: 00000000, value: 0000000000 }".getBytes();
+    private static final int VERSION = 20;
+    private static final int VALUE = 37;
     private static final int DIGITS = 10;
     private BytesStore bytes;
     private long offset;
@@ -42,28 +40,23 @@ class TextIntReference implements IntValue, Byteable {
         bytes.append(position + VALUE, value, DIGITS);
     }
 
-    private <T> T withLock(@NotNull Supplier<T> call) {
-        long valueOffset = offset + LOCKED;
-        int value = bytes.readVolatileInt(valueOffset);
-        if (value != FALSE && value != TRUE)
-            throw new IllegalStateException();
-        while (true) {
-            if (bytes.compareAndSwapInt(valueOffset, FALSE, TRUE)) {
-                T t = call.get();
-                bytes.writeOrderedInt(valueOffset, FALSE);
-                return t;
-            }
-        }
-    }
-
     @Override
     public int getValue() {
-        return withLock(() -> (int) bytes.parseLong(offset + VALUE));
+        long versionOffset = offset + VERSION;
+        for (int spins = 0; ; spins++) {
+            long version = TextSeqLock.readBegin(bytes, versionOffset);
+            int value = (int) bytes.parseLong(offset + VALUE);
+            if (TextSeqLock.validate(bytes, versionOffset, version))
+                return value;
+            TextSeqLock.pause(spins);
+        }
     }
 
     @Override
     public void setValue(int value) {
-        withLock(() -> bytes.append(offset + VALUE, value, DIGITS));
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        bytes.append(offset + VALUE, value, DIGITS);
+        TextSeqLock.release(bytes, offset + VERSION, version);
     }
 
     @Override
@@ -78,11 +71,11 @@ class TextIntReference implements IntValue, Byteable {
 
     @Override
     public int addValue(int delta) {
-        return withLock(() -> {
-            long value = bytes.parseLong(offset + VALUE) + delta;
-            bytes.append(offset + VALUE, value, DIGITS);
-            return (int) value;
-        });
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        int value = (int) (bytes.parseLong(offset + VALUE) + delta);
+        bytes.append(offset + VALUE, value, DIGITS);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+        return value;
     }
 
     @Override
@@ -92,13 +85,15 @@ class TextIntReference implements IntValue, Byteable {
 
     @Override
     public boolean compareAndSwapValue(int expected, int value) {
-        return withLock(() -> {
-            if (bytes.parseLong(offset + VALUE) == expected) {
-                bytes.append(offset + VALUE, value, DIGITS);
-                return true;
-            }
+        // no need to lock if it can't succeed.
+        if (getValue() != expected)
             return false;
-        });
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        boolean swapped = bytes.parseLong(offset + VALUE) == expected;
+        if (swapped)
+            bytes.append(offset + VALUE, value, DIGITS);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+        return swapped;
     }
 
     @Override
@@ -18,26 +18,29 @@ package net.openhft.chronicle.wire;
 import net.openhft.chronicle.bytes.Byteable;
 import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.BytesStore;
-import net.openhft.chronicle.core.OS;
 import net.openhft.chronicle.core.values.LongArrayValues;
 import net.openhft.chronicle.core.values.LongValue;
 import org.jetbrains.annotations.NotNull;
 
 /*
 The format for a long array in text is
-{ capacity: 12345678901234567890, values: [ 12345678901234567890, ... ] }
+{ capacity: 12345678901234567890, version: 12345678, values: [ 12345678901234567890, ... ] }
+
+Updates to any value are guarded by the TextSeqLock in version.
  */
 
 public class TextLongArrayReference implements Byteable, LongArrayValues {
     private static final byte[] SECTION1 = "{ capacity: ".getBytes();
-    private static final byte[] SECTION2 = ", values: [ ".getBytes();
-    private static final byte[] SECTION3 = " ] }\n".getBytes();
+    private static final byte[] SECTION2 = ", version: ".getBytes();
+    private static final byte[] SECTION3 = ", values: [ ".getBytes();
+    private static final byte[] SECTION4 = " ] }\n".getBytes();
     private static final byte[] ZERO = "00000000000000000000".getBytes();
     private static final byte[] SEP = ", ".getBytes();
 
     private static final int DIGITS = ZERO.length;
     private static final int CAPACITY = SECTION1.length;
-    private static final int VALUES = CAPACITY + DIGITS + SECTION2.length;
+    private static final int VERSION = CAPACITY + DIGITS + SECTION2.length;
+    private static final int VALUES = VERSION + TextSeqLock.DIGITS + SECTION3.length;
     private static final int VALUE_SIZE = DIGITS + SEP.length;
 
     private BytesStore bytes;
@@ -49,17 +52,19 @@ public class TextLongArrayReference implements Byteable, LongArrayValues {
         bytes.append(bytes.writePosition(), capacity, 20);
         bytes.writeSkip(20);
         bytes.write(SECTION2);
+        bytes.write(TextSeqLock.ZERO);
+        bytes.write(SECTION3);
         for (long i = 0; i < capacity; i++) {
             if (i > 0)
                 bytes.append(", ");
             bytes.write(ZERO);
         }
-        bytes.write(SECTION3);
+        bytes.write(SECTION4);
     }
 
     public static long peakLength(@NotNull BytesStore bytes, long offset) {
         //todo check this, I think there could be a bug here
-        return (bytes.parseLong(offset + CAPACITY) * VALUE_SIZE) + VALUES + SECTION3.length - SEP.length;
+        return (bytes.parseLong(offset + CAPACITY) * VALUE_SIZE) + VALUES + SECTION4.length - SEP.length;
     }
 
     @Override
@@ -69,12 +74,21 @@ public class TextLongArrayReference implements Byteable, LongArrayValues {
 
     @Override
     public long getValueAt(long index) {
-        return bytes.parseLong(VALUES + offset + index * VALUE_SIZE);
+        long versionOffset = offset + VERSION;
+        for (int spins = 0; ; spins++) {
+            long version = TextSeqLock.readBegin(bytes, versionOffset);
+            long value = bytes.parseLong(VALUES + offset + index * VALUE_SIZE);
+            if (TextSeqLock.validate(bytes, versionOffset, version))
+                return value;
+            TextSeqLock.pause(spins);
+        }
     }
 
     @Override
     public void setValueAt(long index, long value) {
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
         bytes.append(VALUES + offset + index * VALUE_SIZE, value, DIGITS);
+        TextSeqLock.release(bytes, offset + VERSION, version);
     }
 
     @Override
@@ -84,19 +98,26 @@ public class TextLongArrayReference implements Byteable, LongArrayValues {
 
     @Override
     public long getVolatileValueAt(long index) {
-        OS.memory().loadFence();
         return getValueAt(index);
     }
 
     @Override
     public void setOrderedValueAt(long index, long value) {
         setValueAt(index, value);
-        OS.memory().storeFence();
     }
 
     @Override
     public boolean compareAndSet(long index, long expected, long value) {
-        throw new UnsupportedOperationException("todo");
+        // no need to lock if it can't succeed.
+        if (getValueAt(index) != expected)
+            return false;
+        long position = VALUES + offset + index * VALUE_SIZE;
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        boolean swapped = bytes.parseLong(position) == expected;
+        if (swapped)
+            bytes.append(position, value, DIGITS);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+        return swapped;
     }
 
     @Override
@@ -18,22 +18,20 @@ package net.openhft.chronicle.wire;
 import net.openhft.chronicle.bytes.Byteable;
 import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.BytesStore;
-import net.openhft.chronicle.bytes.BytesUtil;
 import net.openhft.chronicle.core.values.LongValue;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.function.Supplier;
-
 /**
  * reference to an array fo 32-bit in values in Text wire format.
+ * <p>
+ * Updates are guarded by a {@link TextSeqLock}, so readers don't lock and retry if a writer
+ * changed the value as it was read.
  */
 class TextLongReference implements LongValue, Byteable {
-    private static final byte[] template = "!!atomic { locked: false, value: 00000000000000000000 }".getBytes();
-    private static final int FALSE = BytesUtil.asInt("fals");
-    private static final int TRUE = BytesUtil.asInt(" tru");
+    private static final byte[] template = "!!atomic { version: 00000000, value: 00000000000000000000 }".getBytes();
     private static final long UNINITIALIZED = 0x0L;
-    private static final int LOCKED = 19;
-    static final int VALUE = 33;
+    private static final int VERSION = 20;
+    static final int VALUE = 37;
     private static final int DIGITS = 20;
     private BytesStore bytes;
     private long offset;
@@ -44,20 +42,6 @@ class TextLongReference implements LongValue, Byteable {
         bytes.append(position + VALUE, value, DIGITS);
     }
 
-    private <T> T withLock(@NotNull Supplier<T> call) {
-        long valueOffset = offset + LOCKED;
-        int value = bytes.readVolatileInt(valueOffset);
-        if (value != FALSE && value != TRUE)
-            throw new IllegalStateException();
-        while (true) {
-            if (bytes.compareAndSwapInt(valueOffset, FALSE, TRUE)) {
-                T t = call.get();
-                bytes.writeOrderedInt(valueOffset, FALSE);
-                return t;
-            }
-        }
-    }
-
     @Override
     public void bytesStore(@NotNull BytesStore bytes, long offset, long length) {
         if (length != template.length) throw new IllegalArgumentException();
@@ -69,12 +53,21 @@ class TextLongReference implements LongValue, Byteable {
 
     @Override
     public long getValue() {
-        return withLock(() -> bytes.parseLong(offset + VALUE));
+        long versionOffset = offset + VERSION;
+        for (int spins = 0; ; spins++) {
+            long version = TextSeqLock.readBegin(bytes, versionOffset);
+            long value = bytes.parseLong(offset + VALUE);
+            if (TextSeqLock.validate(bytes, versionOffset, version))
+                return value;
+            TextSeqLock.pause(spins);
+        }
     }
 
     @Override
     public void setValue(long value) {
-        withLock(() -> bytes.append(offset + VALUE, value, DIGITS));
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        bytes.append(offset + VALUE, value, DIGITS);
+        TextSeqLock.release(bytes, offset + VERSION, version);
     }
 
     @Override
@@ -99,11 +92,11 @@ class TextLongReference implements LongValue, Byteable {
 
     @Override
     public long addValue(long delta) {
-        return withLock(() -> {
-            long value = bytes.parseLong(offset + VALUE) + delta;
-            bytes.append(offset + VALUE, value, DIGITS);
-            return value;
-        });
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        long value = bytes.parseLong(offset + VALUE) + delta;
+        bytes.append(offset + VALUE, value, DIGITS);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+        return value;
     }
 
     @Override
@@ -113,12 +106,14 @@ class TextLongReference implements LongValue, Byteable {
 
     @Override
     public boolean compareAndSwapValue(long expected, long value) {
-        return withLock(() -> {
-            if (bytes.parseLong(offset + VALUE) == expected) {
-                bytes.append(offset + VALUE, value, DIGITS);
-                return true;
-            }
+        // no need to lock if it can't succeed.
+        if (getValue() != expected)
             return false;
-        });
+        long version = TextSeqLock.acquire(bytes, offset + VERSION);
+        boolean swapped = bytes.parseLong(offset + VALUE) == expected;
+        if (swapped)
+            bytes.append(offset + VALUE, value, DIGITS);
+        TextSeqLock.release(bytes, offset + VERSION, version);
+        return swapped;
     }
 }
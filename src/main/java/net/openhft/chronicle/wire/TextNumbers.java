@@ -0,0 +1,342 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.BytesStore;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteOrder;
+
+/**
+ * Allocation free writing and parsing of numbers for the text wires.
+ * <p>
+ * The fast paths handle the common case of decimals such as prices, and fall back to the
+ * general purpose methods on Bytes for everything else.
+ */
+enum TextNumbers {
+    ;
+    // powers of ten which are exact as a double.
+    private static final double[] POW10 = new double[23];
+    private static final long[] LONG_POW10 = new long[19];
+    private static final double TWO_53 = 1L << 53;
+    // the SWAR digit parsing assumes the first character is in the lowest byte.
+    static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    // for the values the fast paths don't handle in place.
+    private static final ThreadLocal<Bytes<?>> SCRATCH = ThreadLocal.withInitial(Bytes::elasticByteBuffer);
+
+    static {
+        double d = 1;
+        for (int i = 0; i < POW10.length; i++, d *= 10)
+            POW10[i] = d;
+        long l = 1;
+        for (int i = 0; i < LONG_POW10.length; i++, l *= 10)
+            LONG_POW10[i] = l;
+    }
+
+    /**
+     * Append the shortest decimal which reads back as the same double.
+     */
+    static void append(@NotNull Bytes<?> bytes, double d) {
+        if (!appendDecimal(bytes, d, false))
+            bytes.append(d);
+    }
+
+    /**
+     * Append the shortest decimal which reads back as the same float.
+     */
+    static void append(@NotNull Bytes<?> bytes, float f) {
+        if (!appendDecimal(bytes, f, true))
+            bytes.append(f);
+    }
+
+    private static boolean appendDecimal(@NotNull Bytes<?> bytes, double d, boolean isFloat) {
+        int decimals = decimalPlaces(d, isFloat);
+        if (decimals < 0)
+            return false;
+        appendDecimal(bytes, d < 0, Math.round(Math.abs(d) * POW10[decimals]), decimals);
+        return true;
+    }
+
+    /**
+     * Find the fewest decimal places, k, for which the value rounded to k places divides back to
+     * the same value.  As both the mantissa and the power of ten are exact, the division is
+     * correctly rounded, as is parsing the decimal, so the text reads back as the same value.
+     *
+     * @return the decimal places, or -1 if the value is outside the range written without an exponent.
+     */
+    private static int decimalPlaces(double d, boolean isFloat) {
+        double abs = Math.abs(d);
+        // also excludes zero, NaN and infinity.
+        if (!(abs >= 1e-3 && abs < 1e7))
+            return -1;
+        for (int k = 0; k < POW10.length; k++) {
+            double scaled = abs * POW10[k];
+            if (scaled >= TWO_53)
+                return -1;
+            double back = Math.round(scaled) / POW10[k];
+            if (isFloat ? (float) back == (float) abs : back == abs)
+                return k;
+        }
+        return -1;
+    }
+
+    private static void appendDecimal(@NotNull Bytes<?> bytes, boolean negative, long m, int decimals) {
+        if (negative)
+            bytes.append('-');
+        if (decimals == 0) {
+            bytes.append(m);
+            bytes.append('.');
+            bytes.append('0');
+            return;
+        }
+        long intPart = m / LONG_POW10[decimals];
+        long fraction = m - intPart * LONG_POW10[decimals];
+        bytes.append(intPart);
+        bytes.append('.');
+        for (int i = decimals - 1; i >= 0; i--)
+            bytes.append((char) ('0' + fraction / LONG_POW10[i] % 10));
+    }
+
+    /**
+     * Write a double at an offset, padded with spaces to the width, for a field updated in place.
+     * Decimals are written directly as append(Bytes, double) would write them.
+     */
+    static void write(@NotNull BytesStore bytes, long offset, int width, double d) {
+        long pos = offset;
+        long end = offset + width;
+        int decimals = decimalPlaces(d, false);
+        if (decimals >= 0) {
+            pos = writeDecimal(bytes, pos, d < 0, Math.round(Math.abs(d) * POW10[decimals]), decimals);
+        } else {
+            Bytes<?> scratch = SCRATCH.get();
+            scratch.clear();
+            scratch.append(d);
+            for (long i = scratch.readPosition(); i < scratch.readLimit() && pos < end; i++)
+                bytes.writeByte(pos++, scratch.readByte(i));
+        }
+        while (pos < end)
+            bytes.writeByte(pos++, (byte) ' ');
+    }
+
+    private static long writeDecimal(@NotNull BytesStore bytes, long pos, boolean negative, long m, int decimals) {
+        if (negative)
+            bytes.writeByte(pos++, (byte) '-');
+        long intPart = m / LONG_POW10[decimals];
+        long fraction = m - intPart * LONG_POW10[decimals];
+        int intDigits = 1;
+        while (intDigits < LONG_POW10.length && intPart >= LONG_POW10[intDigits])
+            intDigits++;
+        for (int i = intDigits - 1; i >= 0; i--)
+            bytes.writeByte(pos++, (byte) ('0' + intPart / LONG_POW10[i] % 10));
+        bytes.writeByte(pos++, (byte) '.');
+        if (decimals == 0)
+            bytes.writeByte(pos++, (byte) '0');
+        for (int i = decimals - 1; i >= 0; i--)
+            bytes.writeByte(pos++, (byte) ('0' + fraction / LONG_POW10[i] % 10));
+        return pos;
+    }
+
+    /**
+     * Parse a double written by write(BytesStore, long, int, double), which ends at a space or the
+     * limit, without moving any read position.
+     */
+    static double parseDouble(@NotNull BytesStore bytes, long offset, long limit) {
+        long pos = offset;
+        boolean negative = false;
+        if (pos < limit && bytes.readUnsignedByte(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (; pos < limit; pos++) {
+            int ch = bytes.readUnsignedByte(pos);
+            if (ch >= '0' && ch <= '9') {
+                // more than 18 digits could overflow.
+                if (++digits > 18)
+                    return slowParseDouble(bytes, offset, limit);
+                mantissa = mantissa * 10 + (ch - '0');
+                if (decimals >= 0)
+                    decimals++;
+            } else if (ch == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (ch == ' ') {
+                break;
+            } else {
+                return slowParseDouble(bytes, offset, limit);
+            }
+        }
+        if (digits == 0 || mantissa > 1L << 53 || decimals >= POW10.length)
+            return slowParseDouble(bytes, offset, limit);
+        double d = decimals <= 0 ? mantissa : mantissa / POW10[decimals];
+        return negative ? -d : d;
+    }
+
+    private static double slowParseDouble(@NotNull BytesStore bytes, long offset, long limit) {
+        Bytes<?> scratch = SCRATCH.get();
+        scratch.clear();
+        for (long i = offset; i < limit; i++) {
+            int ch = bytes.readUnsignedByte(i);
+            if (ch == ' ')
+                break;
+            scratch.writeByte((byte) ch);
+        }
+        return scratch.parseDouble();
+    }
+
+    /**
+     * Parse a double, consuming the character after it as Bytes.parseDouble() does.
+     * <p>
+     * Decimals with up to 2^53 as the mantissa and up to 22 decimal places are exact as a double
+     * before one correctly rounded division.  Anything else, such as an exponent, NaN or
+     * Infinity, is left to Bytes.parseDouble().
+     */
+    static double parseDouble(@NotNull Bytes<?> bytes) {
+        long start = bytes.readPosition();
+        long limit = bytes.readLimit();
+        long pos = start;
+        while (pos < limit && bytes.readUnsignedByte(pos) == ' ')
+            pos++;
+        boolean negative = false;
+        if (pos < limit && bytes.readUnsignedByte(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = -1;
+        for (; pos < limit; pos++) {
+            int ch = bytes.readUnsignedByte(pos);
+            if (ch >= '0' && ch <= '9') {
+                // more than 18 digits could overflow.
+                if (++digits > 18)
+                    return slowParseDouble(bytes, start);
+                mantissa = mantissa * 10 + (ch - '0');
+                if (decimals >= 0)
+                    decimals++;
+            } else if (ch == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (ch == 'e' || ch == 'E' || ch == '.') {
+                return slowParseDouble(bytes, start);
+            } else {
+                break;
+            }
+        }
+        if (digits == 0 || mantissa > 1L << 53 || decimals >= POW10.length)
+            return slowParseDouble(bytes, start);
+
+        double d = decimals <= 0 ? mantissa : mantissa / POW10[decimals];
+        // consume the terminating character.
+        bytes.readPosition(pos < limit ? pos + 1 : pos);
+        return negative ? -d : d;
+    }
+
+    private static double slowParseDouble(@NotNull Bytes<?> bytes, long start) {
+        bytes.readPosition(start);
+        return bytes.parseDouble();
+    }
+
+    /**
+     * Parse a long, consuming the character after it as Bytes.parseLong() does.
+     * <p>
+     * Digits are read eight at a time where possible, finding the number of leading digits and
+     * combining them without a branch per character.  Numbers of more than 18 digits, and
+     * numbers followed by anything other than white space, a comma or an ampersand are left to
+     * Bytes.parseLong().
+     */
+    static long parseLong(@NotNull Bytes<?> bytes) {
+        long start = bytes.readPosition();
+        long limit = bytes.readLimit();
+        long pos = start;
+        boolean negative = false;
+        if (pos < limit && bytes.readUnsignedByte(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+        long value = 0;
+        int digits = 0;
+        for (; ; ) {
+            int n;
+            if (LITTLE_ENDIAN && pos + 8 <= limit) {
+                long word = bytes.readLong(pos);
+                n = leadingDigits(word);
+                if (digits + n > 18)
+                    return slowParseLong(bytes, start);
+                if (n > 0)
+                    value = value * LONG_POW10[n] + eightDigits(n == 8 ? word : word << (64 - 8 * n));
+            } else {
+                n = 0;
+                int ch;
+                while (n < 8 && pos + n < limit && (ch = bytes.readUnsignedByte(pos + n)) >= '0' && ch <= '9') {
+                    if (digits + n >= 18)
+                        return slowParseLong(bytes, start);
+                    value = value * 10 + (ch - '0');
+                    n++;
+                }
+            }
+            digits += n;
+            pos += n;
+            if (n < 8)
+                break;
+        }
+        if (digits == 0)
+            return slowParseLong(bytes, start);
+        if (pos < limit) {
+            switch (bytes.readUnsignedByte(pos)) {
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                case ',':
+                case '&':
+                    // consume the terminating character.
+                    pos++;
+                    break;
+                default:
+                    return slowParseLong(bytes, start);
+            }
+        }
+        bytes.readPosition(pos);
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return the number of digits at the start of a little endian word, 0 to 8.
+     */
+    static int leadingDigits(long word) {
+        // a byte has its top bit set if it is above '9' or below '0'. Any carry or borrow only
+        // affects the bytes after the first non digit.
+        long nonDigits = ((word + 0x4646464646464646L) | (word - 0x3030303030303030L)) & 0x8080808080808080L;
+        return Long.numberOfTrailingZeros(nonDigits) >>> 3;
+    }
+
+    /**
+     * Combine eight ASCII digits, or zero bytes as leading zeros, in a little endian word.
+     */
+    static long eightDigits(long word) {
+        long val = word & 0x0F0F0F0F0F0F0F0FL;
+        val = (val * 10 + (val >>> 8)) & 0x00FF00FF00FF00FFL;
+        val = (val * 100 + (val >>> 16)) & 0x0000FFFF0000FFFFL;
+        return (val * 10000 + (val >>> 32)) & 0xFFFFFFFFL;
+    }
+
+    private static long slowParseLong(@NotNull Bytes<?> bytes, long start) {
+        bytes.readPosition(start);
+        return bytes.parseLong();
+    }
+}
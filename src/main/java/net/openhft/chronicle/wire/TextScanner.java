@@ -0,0 +1,209 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The tokenizer shared by TextTree and TextCopier, which scans YAML or JSON text in place between
+ * a start position and a limit without moving the readPosition of the bytes.
+ */
+abstract class TextScanner {
+    final Bytes<?> bytes;
+    final long limit;
+    long pos;
+    long lineStart;
+    // set by scanKey()
+    long tokenStart;
+    long tokenEnd;
+
+    TextScanner(@NotNull Bytes<?> bytes) {
+        this.bytes = bytes;
+        this.pos = bytes.readPosition();
+        this.limit = bytes.readLimit();
+        this.lineStart = pos;
+    }
+
+    static boolean isBlank(int ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r' || ch < 0;
+    }
+
+    int peek() {
+        return pos < limit ? bytes.readUnsignedByte(pos) : -1;
+    }
+
+    int peek(long offset) {
+        return offset < limit ? bytes.readUnsignedByte(offset) : -1;
+    }
+
+    boolean isEndOfLine() {
+        int ch = peek();
+        return ch == '\n' || ch == '\r' || ch < 0 || ch == '#';
+    }
+
+    boolean isEndOfFlowValue() {
+        int ch = peek();
+        return ch == ',' || ch == '}' || ch == ']' || ch < 0;
+    }
+
+    boolean isDocumentMarker(long offset) {
+        return offset == lineStart
+                && (peek(offset) == '-' && peek(offset + 1) == '-' && peek(offset + 2) == '-'
+                || peek(offset) == '.' && peek(offset + 1) == '.' && peek(offset + 2) == '.')
+                && isBlank(peek(offset + 3));
+    }
+
+    boolean isListItem() {
+        return peek() == '-' && isBlank(peek(pos + 1));
+    }
+
+    int indent() {
+        return (int) (pos - lineStart);
+    }
+
+    /**
+     * @return the number of spaces at the start of the current line.
+     */
+    int lineIndent() {
+        int indent = 0;
+        while (peek(lineStart + indent) == ' ')
+            indent++;
+        return indent;
+    }
+
+    void skipSpaces() {
+        int ch;
+        while ((ch = peek()) == ' ' || ch == '\t')
+            pos++;
+    }
+
+    /**
+     * Skip white space, new lines and comments, and commas if in a flow collection.
+     */
+    void skipBlank(boolean flow) {
+        for (int ch; (ch = peek()) >= 0; ) {
+            if (ch == '#') {
+                while ((ch = peek()) >= 0 && ch != '\n' && ch != '\r')
+                    pos++;
+            } else if (ch == '\n' || ch == '\r') {
+                pos++;
+                lineStart = pos;
+            } else if (ch == ' ' || ch == '\t' || (flow && ch == ',')) {
+                pos++;
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Move past a type tag such as {@code !MyType}, positioned at the '!'
+     */
+    void skipTag(boolean block) {
+        for (int ch; !isBlank(ch = peek()) && ch != '{' && ch != '['
+                && !(!block && (ch == ',' || ch == '}' || ch == ']')); )
+            pos++;
+    }
+
+    /**
+     * @return true if the text at the current position is a key followed by a ':'
+     */
+    boolean isKey() {
+        long p = pos;
+        int ch = peek(p);
+        if (ch == '"' || ch == '\'') {
+            p = skipQuoted(p, ch);
+        } else {
+            while ((ch = peek(p)) >= 0 && ch != '\n' && ch != '\r') {
+                if (ch == ':' && isBlank(peek(p + 1)))
+                    return true;
+                if (ch == '#' && p > pos && peek(p - 1) == ' ')
+                    return false;
+                p++;
+            }
+            return false;
+        }
+        while (peek(p) == ' ')
+            p++;
+        return peek(p) == ':';
+    }
+
+    /**
+     * Scan a key, setting tokenStart and tokenEnd to its text without quotes, leaving the position
+     * after the ':'
+     *
+     * @return true if the key was quoted and may need unescaping.
+     */
+    boolean scanKey(boolean flow) {
+        int ch = peek();
+        boolean quoted = ch == '"' || ch == '\'';
+        if (quoted) {
+            tokenStart = pos + 1;
+            pos = skipQuoted(pos, ch);
+            tokenEnd = pos - 1;
+            skipSpaces();
+        } else {
+            tokenStart = pos;
+            while ((ch = peek()) >= 0 && ch != '\n' && ch != '\r'
+                    && !(ch == ':' && (flow || isBlank(peek(pos + 1))))
+                    && !(flow && (ch == ',' || ch == '}')))
+                pos++;
+            long ke = pos;
+            while (ke > tokenStart && peek(ke - 1) == ' ')
+                ke--;
+            tokenEnd = ke;
+        }
+        if (peek() == ':')
+            pos++;
+        return quoted;
+    }
+
+    /**
+     * Move past a plain scalar, which ends at a new line or comment, or a ',', '}' or ']' in a
+     * flow collection.
+     *
+     * @return the end of its text, excluding trailing spaces.
+     */
+    long skipPlainScalar(boolean flow) {
+        long start = pos;
+        long last = pos;
+        for (int ch; (ch = peek()) >= 0 && ch != '\n' && ch != '\r'; ) {
+            if (ch == '#' && pos > start && peek(pos - 1) == ' ')
+                break;
+            if (flow && (ch == ',' || ch == '}' || ch == ']'))
+                break;
+            pos++;
+            if (ch != ' ' && ch != '\t')
+                last = pos;
+        }
+        return last;
+    }
+
+    /**
+     * @return the position after the closing quote.
+     */
+    long skipQuoted(long p, int quote) {
+        p++;
+        for (int ch; (ch = peek(p)) >= 0; p++) {
+            if (ch == '\\')
+                p++;
+            else if (ch == quote)
+                return p + 1;
+        }
+        return p;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.BytesStore;
+import net.openhft.chronicle.core.OS;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A sequence lock held as eight decimal digits in a text template, e.g. {@code version: 00000000}
+ * <p>
+ * An odd version means a writer holds the lock.  A writer CASes the version from even to odd,
+ * updates the value and releases it with the next even version.  Readers never take the lock, they
+ * read the version, the value and the version again, and retry if a writer held it or it changed.
+ * The version wraps after 10^8 updates.
+ */
+enum TextSeqLock {
+    ;
+    static final byte[] ZERO = "00000000".getBytes();
+    static final int DIGITS = ZERO.length;
+    private static final int MODULUS = 100_000_000;
+    private static final int SPINS = 64;
+    private static final int YIELDS = 128;
+    // park for up to 2^20 ns, about 1 ms
+    private static final int MAX_PARK_SHIFT = 20;
+
+    /**
+     * Wait for and take the lock.
+     *
+     * @return the locked version to pass to release.
+     */
+    static long acquire(@NotNull BytesStore bytes, long offset) {
+        for (int spins = 0; ; spins++) {
+            long word = bytes.readVolatileLong(offset);
+            long version = decode(word);
+            if ((version & 1) == 0 && bytes.compareAndSwapLong(offset, word, encode(version + 1)))
+                return version + 1;
+            pause(spins);
+        }
+    }
+
+    static void release(@NotNull BytesStore bytes, long offset, long version) {
+        bytes.writeOrderedLong(offset, encode(version + 1));
+    }
+
+    /**
+     * @return the version to validate a read with, waiting while a writer holds the lock.
+     */
+    static long readBegin(@NotNull BytesStore bytes, long offset) {
+        for (int spins = 0; ; spins++) {
+            long word = bytes.readVolatileLong(offset);
+            if (!isLocked(word))
+                return word;
+            pause(spins);
+        }
+    }
+
+    /**
+     * @return true if no writer has changed the value since readBegin.
+     */
+    static boolean validate(@NotNull BytesStore bytes, long offset, long word) {
+        OS.memory().loadFence();
+        return bytes.readVolatileLong(offset) == word;
+    }
+
+    /**
+     * Busy spin at first, then yield, then park for exponentially longer up to about a
+     * millisecond.
+     */
+    static void pause(int spins) {
+        if (spins < SPINS)
+            return;
+        if (spins < YIELDS)
+            Thread.yield();
+        else
+            LockSupport.parkNanos(1L << Math.min(spins - YIELDS, MAX_PARK_SHIFT));
+    }
+
+    private static boolean isLocked(long word) {
+        // the parity of the last digit
+        int last = (int) (TextNumbers.LITTLE_ENDIAN ? word >>> 56 : word);
+        return (last & 1) != 0;
+    }
+
+    static long decode(long word) {
+        long version = 0;
+        for (int i = 0; i < DIGITS; i++) {
+            int ch = (int) ((TextNumbers.LITTLE_ENDIAN ? word >>> (i * 8) : word >>> (56 - i * 8)) & 0xFF);
+            if (ch < '0' || ch > '9')
+                throw new IllegalStateException("Not a version: " + Long.toHexString(word));
+            version = version * 10 + ch - '0';
+        }
+        return version;
+    }
+
+    static long encode(long version) {
+        version %= MODULUS;
+        long word = 0;
+        for (int i = DIGITS - 1; i >= 0; i--) {
+            long ch = '0' + version % 10;
+            version /= 10;
+            word |= TextNumbers.LITTLE_ENDIAN ? ch << (i * 8) : ch << (56 - i * 8);
+        }
+        return word;
+    }
+}
@@ -27,5 +27,11 @@ enum TextStopCharTesters implements StopCharTester {
         public boolean isStopChar(int ch) throws IllegalStateException {
             return ch == '"' || ch == '#' || ch == '\n' || ch == ':' || ch == ',' || ch == ' ' || ch == '}';
         }
+    },
+    END_OF_INPUT {
+        @Override
+        public boolean isStopChar(int ch) throws IllegalStateException {
+            return ch < 0;
+        }
     }
 }
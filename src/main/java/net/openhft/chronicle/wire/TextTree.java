@@ -0,0 +1,426 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A lazy view of a TextWire document.
+ * <p>
+ * One pass over the text records the offsets of each key and value, and how they nest, in
+ * arrays of primitives.  Nothing is decoded until it is accessed, so a large document can be
+ * navigated by path, e.g. {@code find("a/b/c")}, without building maps for the parts which are
+ * not used.  Nodes are identified by an int, with -1 for not found.  Sequence elements are found
+ * by their index e.g. {@code "servers/0/host"}.
+ * <p>
+ * Block maps and sequences, flow maps and sequences, type prefixes, quoted text and comments are
+ * indexed.  Keys are matched as bytes so non ASCII keys need to be looked up by the same UTF-8
+ * text.
+ * <p>
+ * This class is not thread safe.
+ */
+public class TextTree extends TextScanner {
+    public static final int SCALAR = 0;
+    public static final int MAP = 1;
+    public static final int LIST = 2;
+    private static final int KIND_MASK = 3;
+    private static final int TYPED = 4;
+
+    private final TextWire wire;
+
+    private int count = 0;
+    private int[] flags = new int[64];
+    private int[] firstChild = new int[64];
+    private int[] lastChild = new int[64];
+    private int[] nextSibling = new int[64];
+    private int[] childCount = new int[64];
+    private long[] keyStart = new long[64];
+    private long[] keyEnd = new long[64];
+    private long[] start = new long[64];
+    private long[] end = new long[64];
+
+    private TextTree(@NotNull TextWire wire) {
+        super(wire.bytes());
+        this.wire = wire;
+        int root = newNode(-1, -1, -1);
+        skipBlank(false);
+        if (pos + 3 <= limit && isDocumentMarker(pos))
+            pos += 3;
+        skipBlank(false);
+        start[root] = pos;
+        if (pos < limit)
+            parseValue(root, true);
+        else
+            end[root] = pos;
+    }
+
+    /**
+     * Index the text between the readPosition and the readLimit of this wire.
+     */
+    @NotNull
+    public static TextTree of(@NotNull TextWire wire) {
+        return new TextTree(wire);
+    }
+
+    public int root() {
+        return 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int kind(int node) {
+        return flags[node] & KIND_MASK;
+    }
+
+    /**
+     * @return true if the value has a type prefix e.g. {@code !MyType { ... }}
+     */
+    public boolean isTyped(int node) {
+        return (flags[node] & TYPED) != 0;
+    }
+
+    public int childCount(int node) {
+        return childCount[node];
+    }
+
+    public int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    public int nextSibling(int node) {
+        return nextSibling[node];
+    }
+
+    /**
+     * @param path of keys and sequence indexes separated by '/', leading and trailing '/' are ignored.
+     * @return the node or -1 if not found.
+     */
+    public int find(@NotNull CharSequence path) {
+        int node = root();
+        int length = path.length();
+        int from = 0;
+        while (from < length && node >= 0) {
+            int to = from;
+            while (to < length && path.charAt(to) != '/')
+                to++;
+            if (to > from)
+                node = child(node, path, from, to);
+            from = to + 1;
+        }
+        return node;
+    }
+
+    public int child(int node, @NotNull CharSequence key) {
+        return child(node, key, 0, key.length());
+    }
+
+    public int child(int node, int index) {
+        if (index < 0 || index >= childCount[node])
+            return -1;
+        int child = firstChild[node];
+        for (int i = 0; i < index; i++)
+            child = nextSibling[child];
+        return child;
+    }
+
+    private int child(int node, @NotNull CharSequence path, int from, int to) {
+        if (kind(node) == LIST) {
+            int index = 0;
+            for (int i = from; i < to; i++) {
+                char ch = path.charAt(i);
+                if (ch < '0' || ch > '9')
+                    return -1;
+                index = index * 10 + ch - '0';
+            }
+            return child(node, index);
+        }
+        int len = to - from;
+        for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+            long ks = keyStart[child];
+            if (keyEnd[child] - ks != len)
+                continue;
+            int i = 0;
+            while (i < len && bytes.readUnsignedByte(ks + i) == path.charAt(from + i))
+                i++;
+            if (i == len)
+                return child;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the key of this node, or null for the root or a sequence element.
+     */
+    public String key(int node) {
+        long ks = keyStart[node];
+        if (ks < 0)
+            return null;
+        return Bytes.toString(bytes, ks, keyEnd[node] - ks);
+    }
+
+    /**
+     * @return the text of the value, as written.
+     */
+    @NotNull
+    public String rawText(int node) {
+        return Bytes.toString(bytes, start[node], end[node] - start[node]);
+    }
+
+    /**
+     * Decode a value with the wire positioned at the start of the value and limited to its end.
+     */
+    public <T> T read(int node, @NotNull Function<ValueIn, T> reader) {
+        long position = bytes.readPosition();
+        long readLimit = bytes.readLimit();
+        try {
+            bytes.readPosition(start[node]);
+            bytes.readLimit(end[node]);
+            return reader.apply(wire.getValueIn());
+        } finally {
+            bytes.readLimit(readLimit);
+            bytes.readPosition(position);
+        }
+    }
+
+    /**
+     * Materialise a node as readObject() would, maps and lists are built from the index.
+     */
+    public Object object(int node) {
+        if (node < 0)
+            return null;
+        if (!isTyped(node)) {
+            switch (kind(node)) {
+                case MAP: {
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    for (int child = firstChild[node]; child >= 0; child = nextSibling[child])
+                        map.put(key(child), object(child));
+                    return map;
+                }
+                case LIST: {
+                    List<Object> list = new ArrayList<>(childCount[node]);
+                    for (int child = firstChild[node]; child >= 0; child = nextSibling[child])
+                        list.add(object(child));
+                    return list;
+                }
+            }
+        }
+        if (start[node] >= end[node])
+            return "";
+        return read(node, in -> ((TextWire.TextValueIn) in).objectWithInferredType(Object.class));
+    }
+
+    public String text(int node) {
+        return node < 0 ? null : read(node, in -> in.text());
+    }
+
+    public long int64(int node) {
+        return read(node, in -> in.int64());
+    }
+
+    public double float64(int node) {
+        return read(node, in -> in.float64());
+    }
+
+    public <T extends ReadMarshallable> T typedMarshallable(int node) {
+        return read(node, in -> in.<T>typedMarshallable());
+    }
+
+    private int newNode(int parent, long ks, long ke) {
+        if (count == flags.length)
+            grow();
+        int node = count++;
+        flags[node] = SCALAR;
+        firstChild[node] = lastChild[node] = nextSibling[node] = -1;
+        childCount[node] = 0;
+        keyStart[node] = ks;
+        keyEnd[node] = ke;
+        start[node] = end[node] = pos;
+        if (parent >= 0) {
+            if (lastChild[parent] < 0)
+                firstChild[parent] = node;
+            else
+                nextSibling[lastChild[parent]] = node;
+            lastChild[parent] = node;
+            childCount[parent]++;
+        }
+        return node;
+    }
+
+    private void grow() {
+        int size = flags.length * 2;
+        flags = Arrays.copyOf(flags, size);
+        firstChild = Arrays.copyOf(firstChild, size);
+        lastChild = Arrays.copyOf(lastChild, size);
+        nextSibling = Arrays.copyOf(nextSibling, size);
+        childCount = Arrays.copyOf(childCount, size);
+        keyStart = Arrays.copyOf(keyStart, size);
+        keyEnd = Arrays.copyOf(keyEnd, size);
+        start = Arrays.copyOf(start, size);
+        end = Arrays.copyOf(end, size);
+    }
+
+    /**
+     * Parse the value at the current position, a block map or list takes its indentation from the
+     * current column.
+     */
+    private void parseValue(int node, boolean block) {
+        start[node] = pos;
+        int ch = peek();
+        switch (ch) {
+            case '!':
+                parseTyped(node, block);
+                return;
+            case '{':
+                parseFlow(node, MAP, '}');
+                return;
+            case '[':
+                parseFlow(node, LIST, ']');
+                return;
+            case '-':
+                if (block && isBlank(peek(pos + 1))) {
+                    parseBlockList(node, indent());
+                    return;
+                }
+                break;
+        }
+        if (block && isKey())
+            parseBlockMap(node, indent());
+        else
+            parseScalar(node, !block);
+    }
+
+    private void parseTyped(int node, boolean block) {
+        skipTag(block);
+        skipSpaces();
+        long typeStart = start[node];
+        if (block && isEndOfLine()) {
+            // the value can be on the following lines, indented further than this line.
+            int indent = lineIndent();
+            long typeEnd = pos;
+            skipBlank(false);
+            if (pos < limit && indent() > indent)
+                parseValue(node, true);
+            else
+                end[node] = typeEnd;
+        } else if (!block && (peek() == ',' || peek() == '}' || peek() == ']')) {
+            end[node] = pos;
+        } else {
+            parseValue(node, block);
+        }
+        start[node] = typeStart;
+        flags[node] |= TYPED;
+    }
+
+    /**
+     * Read a key, leaving the position after the ':'
+     */
+    private int parseKey(int parent, boolean flow) {
+        scanKey(flow);
+        return newNode(parent, tokenStart, tokenEnd);
+    }
+
+    private void parseBlockMap(int node, int indent) {
+        flags[node] = MAP;
+        long last = pos;
+        while (pos < limit) {
+            if (indent() != indent || isDocumentMarker(pos) || !isKey())
+                break;
+            int child = parseKey(node, false);
+            skipSpaces();
+            parseBlockEntryValue(child, indent);
+            last = end[child];
+            skipBlank(false);
+        }
+        end[node] = last;
+    }
+
+    private void parseBlockList(int node, int indent) {
+        flags[node] = LIST;
+        long last = pos;
+        while (pos < limit) {
+            if (indent() != indent || !isListItem())
+                break;
+            pos++;
+            skipSpaces();
+            int child = newNode(node, -1, -1);
+            parseBlockEntryValue(child, indent);
+            last = end[child];
+            skipBlank(false);
+        }
+        end[node] = last;
+    }
+
+    /**
+     * The value after a key or '-' is on the same line, or on the following lines if indented
+     * further.  A list may be at the same indentation as its key.
+     */
+    private void parseBlockEntryValue(int child, int indent) {
+        if (isEndOfLine()) {
+            long valueStart = pos;
+            skipBlank(false);
+            if (pos < limit && !isDocumentMarker(pos)
+                    && (indent() > indent || (indent() == indent && isListItem() && keyStart[child] >= 0))) {
+                parseValue(child, true);
+            } else {
+                start[child] = end[child] = valueStart;
+            }
+        } else {
+            parseValue(child, true);
+        }
+    }
+
+    private void parseFlow(int node, int kind, int close) {
+        flags[node] = kind;
+        pos++;
+        for (; ; ) {
+            skipBlank(true);
+            int ch = peek();
+            if (ch < 0)
+                break;
+            if (ch == close) {
+                pos++;
+                break;
+            }
+            long before = pos;
+            int child = kind == MAP ? parseKey(node, true) : newNode(node, -1, -1);
+            skipBlank(false);
+            if (peek() == ',' || peek() == close)
+                start[child] = end[child] = pos;
+            else
+                parseValue(child, false);
+            // always make progress on malformed input.
+            if (pos == before)
+                pos++;
+        }
+        end[node] = pos;
+    }
+
+    private void parseScalar(int node, boolean flow) {
+        int ch = peek();
+        if (ch == '"' || ch == '\'') {
+            pos = skipQuoted(pos, ch);
+            end[node] = pos;
+            return;
+        }
+        end[node] = skipPlainScalar(flow);
+    }
+}
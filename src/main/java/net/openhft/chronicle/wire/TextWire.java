@@ -58,29 +58,42 @@ public class TextWire implements Wire, InternalWireIn {
     static final BitSet STARTS_QUOTE_CHARS = new BitSet();
     static final BitSet QUOTE_CHARS = new BitSet();
     static final Logger LOG = LoggerFactory.getLogger(TextWire.class);
-    static final ThreadLocal<StopCharTester> ESCAPED_QUOTES = ThreadLocal.withInitial(() -> StopCharTesters.QUOTES.escaping());
-    static final ThreadLocal<StopCharTester> ESCAPED_SINGLE_QUOTES = ThreadLocal.withInitial(() -> StopCharTesters.SINGLE_QUOTES.escaping());
-    static final ThreadLocal<StopCharsTester> ESCAPED_END_OF_TEXT = ThreadLocal.withInitial(() -> TextStopCharsTesters.END_OF_TEXT.escaping());
     static final BytesStore COMMA_SPACE = BytesStore.wrap(", ");
     static final BytesStore COMMA_NEW_LINE = BytesStore.wrap(",\n");
     static final BytesStore NEW_LINE = BytesStore.wrap("\n");
     static final BytesStore SPACE = BytesStore.wrap(" ");
     static final BytesStore END_FIELD = NEW_LINE;
     static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    // the character after the backslash for each ASCII character which may need escaping, or 0.
+    static final byte[] ESCAPE_CHARS = new byte[128];
 
     static {
         for (char ch : "0123456789+- \t\',#:{}[]|>".toCharArray())
             STARTS_QUOTE_CHARS.set(ch);
         for (char ch : "\',#:{}[]|>".toCharArray())
             QUOTE_CHARS.set(ch);
+        ESCAPE_CHARS['"'] = '"';
+        ESCAPE_CHARS['\''] = '\'';
+        ESCAPE_CHARS['\\'] = '\\';
+        ESCAPE_CHARS['\b'] = 'b';
+        ESCAPE_CHARS['\t'] = 't';
+        ESCAPE_CHARS['\r'] = 'r';
+        ESCAPE_CHARS['\n'] = 'n';
     }
 
     private final Bytes<?> bytes;
     private final TextValueOut valueOut = new TextValueOut();
     private final TextValueIn valueIn = new TextValueIn();
+    private final StopCharTester escapedQuotes = StopCharTesters.QUOTES.escaping();
+    private final StopCharTester escapedSingleQuotes = StopCharTesters.SINGLE_QUOTES.escaping();
+    private final StopCharsTester escapedEndOfText = TextStopCharsTesters.END_OF_TEXT.escaping();
     private final boolean use8bit;
+    @NotNull
+    private InstanceProvider instanceProvider = InstanceProvider.NEW_INSTANCE;
     private boolean ready;
     private long lineStart = 0;
+    // the index of the first character to escape, as found by needsQuotes.
+    private int firstEscape = 0;
 
     public TextWire(Bytes bytes, boolean use8bit) {
         this.bytes = bytes;
@@ -110,9 +123,19 @@ public class TextWire implements Wire, InternalWireIn {
     }
 
     public static <ACS extends Appendable & CharSequence> void unescape(@NotNull ACS sb) {
-        int end = 0;
         int length = sb.length();
-        for (int i = 0; i < length; i++) {
+        int from = 0;
+        while (from < length - 1 && sb.charAt(from) != '\\')
+            from++;
+        // nothing to unescape, leave the text as it is.
+        if (from >= length - 1)
+            return;
+        if (sb instanceof Bytes) {
+            unescape((Bytes) sb, from, length);
+            return;
+        }
+        int end = from;
+        for (int i = from; i < length; i++) {
             char ch = sb.charAt(i);
             if (ch == '\\' && i < length - 1) {
                 char ch3 = sb.charAt(++i);
@@ -152,6 +175,48 @@ public class TextWire implements Wire, InternalWireIn {
         AppendableUtil.setLength(sb, end);
     }
 
+    /**
+     * Unescape text in place, reading and writing the underlying bytes directly.
+     */
+    private static void unescape(@NotNull Bytes bytes, int from, int length) {
+        long start = bytes.readPosition();
+        int end = from;
+        for (int i = from; i < length; i++) {
+            int ch = bytes.readUnsignedByte(start + i);
+            if (ch == '\\' && i < length - 1) {
+                int ch3 = bytes.readUnsignedByte(start + ++i);
+                switch (ch3) {
+                    case 'b':
+                        ch = '\b';
+                        break;
+                    case 'r':
+                        ch = '\r';
+                        break;
+                    case 'n':
+                        ch = '\n';
+                        break;
+                    case 't':
+                        ch = '\t';
+                        break;
+                    case 'x':
+                        ch = Character.getNumericValue(bytes.readUnsignedByte(start + ++i)) * 16 +
+                                Character.getNumericValue(bytes.readUnsignedByte(start + ++i));
+                        break;
+                    case 'u':
+                        ch = Character.getNumericValue(bytes.readUnsignedByte(start + ++i)) * 4096 +
+                                Character.getNumericValue(bytes.readUnsignedByte(start + ++i)) * 256 +
+                                Character.getNumericValue(bytes.readUnsignedByte(start + ++i)) * 16 +
+                                Character.getNumericValue(bytes.readUnsignedByte(start + ++i));
+                        break;
+                    default:
+                        ch = ch3;
+                }
+            }
+            bytes.writeByte(start + end++, (byte) ch);
+        }
+        AppendableUtil.setLength(bytes, end);
+    }
+
     public String toString() {
         return bytes.toString();
     }
@@ -166,9 +231,24 @@ public class TextWire implements Wire, InternalWireIn {
         this.ready = ready;
     }
 
+    @NotNull
+    @Override
+    public InstanceProvider instanceProvider() {
+        return instanceProvider;
+    }
+
+    @Override
+    public void instanceProvider(@NotNull InstanceProvider instanceProvider) {
+        this.instanceProvider = instanceProvider;
+    }
+
     @Override
     public void copyTo(@NotNull WireOut wire) {
-        wire.bytes().write(bytes, bytes().readPosition(), bytes().readLimit());
+        if (wire instanceof TextWire) {
+            wire.bytes().write(bytes, bytes.readPosition(), bytes.readRemaining());
+            return;
+        }
+        new TextCopier(bytes, use8bit).copyTo(wire);
     }
 
     @NotNull
@@ -213,21 +293,21 @@ public class TextWire implements Wire, InternalWireIn {
 
     @NotNull
     private StopCharsTester getEscapingEndOfText() {
-        StopCharsTester escaping = ESCAPED_END_OF_TEXT.get();
+        StopCharsTester escaping = escapedEndOfText;
         // reset it.
         escaping.isStopChar(' ', ' ');
         return escaping;
     }
 
     private StopCharTester getEscapingQuotes() {
-        StopCharTester sct = ESCAPED_QUOTES.get();
+        StopCharTester sct = escapedQuotes;
         // reset it.
         sct.isStopChar(' ');
         return sct;
     }
 
     private StopCharTester getEscapingSingleQuotes() {
-        StopCharTester sct = ESCAPED_SINGLE_QUOTES.get();
+        StopCharTester sct = escapedSingleQuotes;
         // reset it.
         sct.isStopChar(' ');
         return sct;
@@ -236,16 +316,19 @@ public class TextWire implements Wire, InternalWireIn {
     void consumeWhiteSpace() {
         for (; ; ) {
             int codePoint = peekCode();
-            if (codePoint == '#') {
+            int cls = TextCharClass.classOf(codePoint);
+            if (cls == 0) {
+                break;
+            } else if (codePoint == ' ') {
+                bytes.readPosition(TextCharClass.skipSpaces(bytes, bytes.readPosition(), bytes.readLimit()));
+            } else if ((cls & TextCharClass.COMMENT) != 0) {
                 //noinspection StatementWithEmptyBody
                 while (readCode() >= ' ') ;
                 this.lineStart = bytes.readPosition();
-            } else if (Character.isWhitespace(codePoint) || codePoint == ',') {
-                if (codePoint == '\n' || codePoint == '\r')
+            } else {
+                if ((cls & TextCharClass.NEW_LINE) != 0)
                     this.lineStart = bytes.readPosition() + 1;
                 bytes.readSkip(1);
-            } else {
-                break;
             }
         }
     }
@@ -387,76 +470,91 @@ public class TextWire implements Wire, InternalWireIn {
     void escape(@NotNull CharSequence s) {
         Quotes quotes = needsQuotes(s);
         if (quotes == Quotes.NONE) {
-            escape0(s, quotes);
+            escape0(s, quotes, firstEscape);
             return;
         }
         bytes.append(quotes.q);
-        escape0(s, quotes);
+        escape0(s, quotes, firstEscape);
         bytes.append(quotes.q);
     }
 
-    private void escape0(@NotNull CharSequence s, TextWire.Quotes quotes) {
-        for (int i = 0; i < s.length(); i++) {
+    /**
+     * Write the text, copying each run of characters which need no escaping in one call.
+     * Characters above 127 are written as UTF-8 unless the wire is 8-bit.
+     */
+    private void escape0(@NotNull CharSequence s, @NotNull TextWire.Quotes quotes, int from) {
+        int length = s.length();
+        int start = 0;
+        for (int i = from; i < length; i++) {
             char ch = s.charAt(i);
-            switch (ch) {
-                case '"':
-                    if (ch == quotes.q) {
-                        bytes.append('\\').append(ch);
-                    } else {
-                        bytes.append(ch);
-                    }
-                    break;
-                case '\'':
-                    if (ch == quotes.q) {
-                        bytes.append('\\').append(ch);
-                    } else {
-                        bytes.append(ch);
-                    }
-                    break;
-                case '\\':
-                    bytes.append('\\').append(ch);
-                    break;
-                case '\b':
-                    bytes.append("\\b");
-                    break;
-                case '\t':
-                    bytes.append("\\t");
-                    break;
-                case '\r':
-                    bytes.append("\\r");
-                    break;
-                case '\n':
-                    bytes.append("\\n");
-                    break;
-                default:
-                    if (ch > 127) {
-                        bytes.append("\\u");
-                        bytes.append(HEX[(ch >> 12) & 0xF]);
-                        bytes.append(HEX[(ch >> 8) & 0xF]);
-                        bytes.append(HEX[(ch >> 4) & 0xF]);
-                        bytes.append(HEX[ch & 0xF]);
-                    } else {
-                        bytes.append(ch);
-                    }
-                    break;
+            int esc;
+            if (ch < 128) {
+                esc = ESCAPE_CHARS[ch];
+                if (esc == 0 || ((ch == '"' || ch == '\'') && ch != quotes.q))
+                    continue;
+            } else if (use8bit) {
+                esc = 'u';
+            } else {
+                continue;
+            }
+            appendRun(s, start, i);
+            bytes.append('\\').append((char) esc);
+            if (esc == 'u') {
+                bytes.append(HEX[(ch >> 12) & 0xF]);
+                bytes.append(HEX[(ch >> 8) & 0xF]);
+                bytes.append(HEX[(ch >> 4) & 0xF]);
+                bytes.append(HEX[ch & 0xF]);
             }
+            start = i + 1;
         }
+        appendRun(s, start, length);
     }
 
-    Quotes needsQuotes(@NotNull CharSequence s) {
-        Quotes quotes = Quotes.NONE;
-        if (s.length() == 0)
-            return Quotes.DOUBLE;
+    private void appendRun(@NotNull CharSequence s, int start, int end) {
+        if (start >= end)
+            return;
+        if (use8bit)
+            bytes.append8bit(s, start, end);
+        else
+            bytes.append(s, start, end);
+    }
 
-        if (STARTS_QUOTE_CHARS.get(s.charAt(0)))
+    /**
+     * Scans the text once to choose the quotes and find the first character to escape.
+     */
+    Quotes needsQuotes(@NotNull CharSequence s) {
+        int length = s.length();
+        if (length == 0) {
+            firstEscape = 0;
             return Quotes.DOUBLE;
-        for (int i = 1; i < s.length(); i++) {
+        }
+        Quotes quotes = STARTS_QUOTE_CHARS.get(s.charAt(0)) ? Quotes.DOUBLE : Quotes.NONE;
+        int escape = length;
+        int doubleQuote = length;
+        for (int i = 0; i < length; i++) {
             char ch = s.charAt(i);
-            if (QUOTE_CHARS.get(ch))
-                return Quotes.DOUBLE;
-            if (ch == '"')
-                quotes = Quotes.SINGLE;
+            if (ch >= 128) {
+                if (use8bit && escape > i)
+                    escape = i;
+                continue;
+            }
+            if (ESCAPE_CHARS[ch] == 0 && !QUOTE_CHARS.get(ch))
+                continue;
+            if (i > 0) {
+                if (QUOTE_CHARS.get(ch))
+                    quotes = Quotes.DOUBLE;
+                else if (ch == '"' && quotes == Quotes.NONE)
+                    quotes = Quotes.SINGLE;
+            }
+            if (ch == '"') {
+                if (doubleQuote > i)
+                    doubleQuote = i;
+            } else if (ch != '\'' && ESCAPE_CHARS[ch] != 0 && escape > i) {
+                escape = i;
+            }
         }
+        // a single quote never needs escaping as it is only written inside double quotes.
+        firstEscape = quotes == Quotes.DOUBLE ? Math.min(escape, doubleQuote) : escape;
         return quotes;
     }
 
@@ -882,7 +980,7 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public WireOut float32(float f) {
             prependSeparator();
-            bytes.append(f);
+            TextNumbers.append(bytes, f);
             elementSeparator();
 
             return TextWire.this;
@@ -892,7 +990,7 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public WireOut float64(double d) {
             prependSeparator();
-            bytes.append(d);
+            TextNumbers.append(bytes, d);
             elementSeparator();
 
             return TextWire.this;
@@ -998,6 +1096,66 @@ public class TextWire implements Wire, InternalWireIn {
             throw new UnsupportedOperationException("todo");
         }
 
+        @NotNull
+        @Override
+        public WireOut float64forBinding(double value) {
+            prependSeparator();
+            TextDoubleReference.write(bytes, value);
+            elementSeparator();
+            return TextWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut float64forBinding(double value, @NotNull DoubleValue doubleValue) {
+            prependSeparator();
+            long position = bytes.writePosition();
+            TextDoubleReference.write(bytes, value);
+            ((Byteable) doubleValue).bytesStore(bytes, position, bytes.writePosition() - position);
+            elementSeparator();
+            return TextWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut boolForBinding(boolean value) {
+            prependSeparator();
+            TextBooleanReference.write(bytes, value);
+            elementSeparator();
+            return TextWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut boolForBinding(boolean value, @NotNull BooleanValue booleanValue) {
+            prependSeparator();
+            long position = bytes.writePosition();
+            TextBooleanReference.write(bytes, value);
+            ((Byteable) booleanValue).bytesStore(bytes, position, bytes.writePosition() - position);
+            elementSeparator();
+            return TextWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int8forBinding(byte value) {
+            prependSeparator();
+            TextByteReference.write(bytes, value);
+            elementSeparator();
+            return TextWire.this;
+        }
+
+        @NotNull
+        @Override
+        public WireOut int8forBinding(byte value, @NotNull ByteValue byteValue) {
+            prependSeparator();
+            long position = bytes.writePosition();
+            TextByteReference.write(bytes, value);
+            ((Byteable) byteValue).bytesStore(bytes, position, bytes.writePosition() - position);
+            elementSeparator();
+            return TextWire.this;
+        }
+
         @NotNull
         @Override
         public WireOut sequence(@NotNull Consumer<ValueOut> writer) {
@@ -1282,7 +1440,7 @@ public class TextWire implements Wire, InternalWireIn {
                     }
                     // trim trailing spaces.
                     while (a.length() > 0)
-                        if (Character.isWhitespace(a.charAt(a.length() - 1)))
+                        if (TextCharClass.isWhitespace(a.charAt(a.length() - 1)))
                             AppendableUtil.setLength(a, a.length() - 1);
                         else
                             break;
@@ -1314,7 +1472,7 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public WireIn int8(@NotNull ByteConsumer i) {
             consumeWhiteSpace();
-            i.accept((byte) bytes.parseLong());
+            i.accept((byte) TextNumbers.parseLong(bytes));
             return TextWire.this;
         }
 
@@ -1502,7 +1660,7 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint8(@NotNull ShortConsumer i) {
             consumeWhiteSpace();
-            i.accept((short) bytes.parseLong());
+            i.accept((short) TextNumbers.parseLong(bytes));
             return TextWire.this;
         }
 
@@ -1510,7 +1668,7 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public WireIn int16(@NotNull ShortConsumer i) {
             consumeWhiteSpace();
-            i.accept((short) bytes.parseLong());
+            i.accept((short) TextNumbers.parseLong(bytes));
             return TextWire.this;
         }
 
@@ -1518,7 +1676,7 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint16(@NotNull IntConsumer i) {
             consumeWhiteSpace();
-            i.accept((int) bytes.parseLong());
+            i.accept((int) TextNumbers.parseLong(bytes));
             return TextWire.this;
         }
 
@@ -1526,7 +1684,7 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public WireIn int32(@NotNull IntConsumer i) {
             consumeWhiteSpace();
-            i.accept((int) bytes.parseLong());
+            i.accept((int) TextNumbers.parseLong(bytes));
             return TextWire.this;
         }
 
@@ -1534,7 +1692,7 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public WireIn uint32(@NotNull LongConsumer i) {
             consumeWhiteSpace();
-            i.accept(bytes.parseLong());
+            i.accept(TextNumbers.parseLong(bytes));
             return TextWire.this;
         }
 
@@ -1542,7 +1700,7 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public WireIn int64(@NotNull LongConsumer i) {
             consumeWhiteSpace();
-            i.accept(bytes.parseLong());
+            i.accept(TextNumbers.parseLong(bytes));
             return TextWire.this;
         }
 
@@ -1550,7 +1708,7 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public WireIn float32(@NotNull FloatConsumer v) {
             consumeWhiteSpace();
-            v.accept((float) bytes.parseDouble());
+            v.accept((float) TextNumbers.parseDouble(bytes));
             return TextWire.this;
         }
 
@@ -1558,7 +1716,7 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public WireIn float64(@NotNull DoubleConsumer v) {
             consumeWhiteSpace();
-            v.accept(bytes.parseDouble());
+            v.accept(TextNumbers.parseDouble(bytes));
             return TextWire.this;
         }
 
@@ -1655,6 +1813,42 @@ public class TextWire implements Wire, InternalWireIn {
             return int64(value);
         }
 
+        @NotNull
+        @Override
+        public WireIn float64(@Nullable DoubleValue value, @NotNull Consumer<DoubleValue> setter) {
+            if (!(value instanceof TextDoubleReference))
+                setter.accept(value = new TextDoubleReference());
+            return bindTemplate((Byteable) value);
+        }
+
+        @NotNull
+        @Override
+        public WireIn bool(@Nullable BooleanValue value, @NotNull Consumer<BooleanValue> setter) {
+            if (!(value instanceof TextBooleanReference))
+                setter.accept(value = new TextBooleanReference());
+            return bindTemplate((Byteable) value);
+        }
+
+        @NotNull
+        @Override
+        public WireIn int8(@Nullable ByteValue value, @NotNull Consumer<ByteValue> setter) {
+            if (!(value instanceof TextByteReference))
+                setter.accept(value = new TextByteReference());
+            return bindTemplate((Byteable) value);
+        }
+
+        @NotNull
+        private WireIn bindTemplate(@NotNull Byteable b) {
+            consumeWhiteSpace();
+            long length = b.maxSize();
+            b.bytesStore(bytes, bytes.readPosition(), length);
+            bytes.readSkip(length);
+            consumeWhiteSpace();
+            if (peekCode() == ',')
+                bytes.readSkip(1);
+            return TextWire.this;
+        }
+
         @NotNull
         @Override
         public WireIn int32(IntValue value, @NotNull Consumer<IntValue> setter) {
@@ -1831,10 +2025,10 @@ public class TextWire implements Wire, InternalWireIn {
                     throw new ClassCastException("Cannot convert " + sb + " to ReadMarshallable.");
 
                 Class<ReadMarshallable> clazz1 = (Class<ReadMarshallable>) clazz;
-                final ReadMarshallable m = ObjectUtils.newInstance(clazz1);
+                final ReadMarshallable m = instanceProvider.acquire(clazz1);
 
                 marshallable(m);
-                return readResolve(m);
+                return Wires.readResolve(instanceProvider, m);
             } catch (Exception e) {
                 throw new IORuntimeException(e);
             }
@@ -1951,13 +2145,13 @@ public class TextWire implements Wire, InternalWireIn {
         @Override
         public long int64() {
             consumeWhiteSpace();
-            return bytes.parseLong();
+            return TextNumbers.parseLong(bytes);
         }
 
         @Override
         public double float64() {
             consumeWhiteSpace();
-            return bytes.parseDouble();
+            return TextNumbers.parseDouble(bytes);
         }
 
         @Override
@@ -2017,14 +2211,13 @@ public class TextWire implements Wire, InternalWireIn {
             }
 
             if (ReadMarshallable.class.isAssignableFrom(clazz)) {
-                final Object v;
-                if (using == null)
-                    v = ObjectUtils.newInstance(clazz);
-                else
-                    v = using;
-
+                if (using != null) {
+                    valueIn.marshallable((ReadMarshallable) using);
+                    return readResolve(using);
+                }
+                final Object v = instanceProvider.acquire(clazz);
                 valueIn.marshallable((ReadMarshallable) v);
-                return readResolve(v);
+                return Wires.readResolve(instanceProvider, v);
 
             } else if (StringBuilder.class.isAssignableFrom(clazz)) {
                 StringBuilder builder = (using == null)
@@ -147,6 +147,31 @@ public interface ValueIn {
     @NotNull
     WireIn int64array(@Nullable LongArrayValues values, @NotNull Consumer<LongArrayValues> setter);
 
+    @NotNull
+    default WireIn int64striped(@Nullable BinaryLongStripedReference values, @NotNull Consumer<BinaryLongStripedReference> setter) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support striped counters");
+    }
+
+    @NotNull
+    default WireIn int64queue(@Nullable BinaryLongQueueReference queue, @NotNull Consumer<BinaryLongQueueReference> setter) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int64 queues");
+    }
+
+    @NotNull
+    default WireIn int64map(@Nullable BinaryLongLongMapReference map, @NotNull Consumer<BinaryLongLongMapReference> setter) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int64 maps");
+    }
+
+    @NotNull
+    default WireIn int32array(@Nullable BinaryIntArrayReference values, @NotNull Consumer<BinaryIntArrayReference> setter) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int32 arrays");
+    }
+
+    @NotNull
+    default WireIn float64array(@Nullable BinaryDoubleArrayReference values, @NotNull Consumer<BinaryDoubleArrayReference> setter) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support float64 arrays");
+    }
+
     @NotNull
     WireIn int64(@Nullable LongValue value);
 
@@ -156,9 +181,32 @@ public interface ValueIn {
     @NotNull
     WireIn int32(@Nullable IntValue value, @NotNull Consumer<IntValue> setter);
 
+    @NotNull
+    default WireIn float64(@Nullable DoubleValue value, @NotNull Consumer<DoubleValue> setter) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support float64 bindings");
+    }
+
+    @NotNull
+    default WireIn bool(@Nullable BooleanValue value, @NotNull Consumer<BooleanValue> setter) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support bool bindings");
+    }
+
+    @NotNull
+    default WireIn int8(@Nullable ByteValue value, @NotNull Consumer<ByteValue> setter) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int8 bindings");
+    }
+
     @NotNull
     WireIn sequence(@NotNull Consumer<ValueIn> reader);
 
+    /**
+     * Read a sequence with a reader which doesn't need to capture t, see ValueOut.sequence(t, writer)
+     */
+    @NotNull
+    default <T> WireIn sequence(T t, @NotNull BiConsumer<T, ValueIn> reader) {
+        return sequence(v -> reader.accept(t, v));
+    }
+
     <T> T applyToMarshallable(Function<WireIn, T> marshallableReader);
 
     @Nullable
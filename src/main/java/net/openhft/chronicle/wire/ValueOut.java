@@ -128,6 +128,64 @@ public interface ValueOut {
     @NotNull
     WireOut int64array(long capacity, LongArrayValues values);
 
+    /**
+     * Write a striped counter, see BinaryLongStripedReference.
+     *
+     * @param stripes the number of stripes, a power of 2.
+     */
+    @NotNull
+    default WireOut int64striped(int stripes) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support striped counters");
+    }
+
+    /**
+     * Write an empty append only array of int64, see BinaryLongQueueReference.
+     */
+    @NotNull
+    default WireOut int64queue(long capacity) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int64 queues");
+    }
+
+    @NotNull
+    default WireOut int64queue(long capacity, @NotNull BinaryLongQueueReference queue) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int64 queues");
+    }
+
+    /**
+     * Write an empty map of int64 to int64, see BinaryLongLongMapReference.
+     *
+     * @param capacity the number of slots, a power of 2.
+     */
+    @NotNull
+    default WireOut int64map(long capacity) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int64 maps");
+    }
+
+    @NotNull
+    default WireOut int64map(long capacity, @NotNull BinaryLongLongMapReference map) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int64 maps");
+    }
+
+    @NotNull
+    default WireOut int32array(long capacity) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int32 arrays");
+    }
+
+    @NotNull
+    default WireOut int32array(long capacity, @NotNull BinaryIntArrayReference values) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int32 arrays");
+    }
+
+    @NotNull
+    default WireOut float64array(long capacity) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support float64 arrays");
+    }
+
+    @NotNull
+    default WireOut float64array(long capacity, @NotNull BinaryDoubleArrayReference values) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support float64 arrays");
+    }
+
     @NotNull
     WireOut float32(float f);
 
@@ -172,9 +230,48 @@ public interface ValueOut {
     @NotNull
     WireOut int64forBinding(long value, LongValue longValue);
 
+    @NotNull
+    default WireOut float64forBinding(double value) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support float64 bindings");
+    }
+
+    @NotNull
+    default WireOut float64forBinding(double value, @NotNull DoubleValue doubleValue) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support float64 bindings");
+    }
+
+    @NotNull
+    default WireOut boolForBinding(boolean value) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support bool bindings");
+    }
+
+    @NotNull
+    default WireOut boolForBinding(boolean value, @NotNull BooleanValue booleanValue) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support bool bindings");
+    }
+
+    @NotNull
+    default WireOut int8forBinding(byte value) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int8 bindings");
+    }
+
+    @NotNull
+    default WireOut int8forBinding(byte value, @NotNull ByteValue byteValue) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support int8 bindings");
+    }
+
     @NotNull
     WireOut sequence(Consumer<ValueOut> writer);
 
+    /**
+     * Write a sequence with a writer which doesn't need to capture t, e.g. a static method
+     * reference, so nothing is allocated per call.
+     */
+    @NotNull
+    default <T> WireOut sequence(T t, @NotNull BiConsumer<T, ValueOut> writer) {
+        return sequence(v -> writer.accept(t, v));
+    }
+
     @NotNull
     default WireOut array(Consumer<ValueOut> writer, Class arrayType) {
         throw new UnsupportedOperationException();
@@ -15,34 +15,188 @@
  */
 package net.openhft.chronicle.wire;
 
-import net.openhft.chronicle.wire.util.CharSequenceComparator;
+import net.openhft.chronicle.bytes.BytesStore;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.TreeMap;
 import java.util.function.Consumer;
 
 /**
  * A simple parser to associate actions based on events/field names received.
+ * <p>
+ * Names are held in an open addressing hash table which can be searched with the name as a
+ * CharSequence, or as 8-bit bytes still in the wire.  Codes from 0 to 1023 index an array
+ * directly, other codes are in an open addressing table of ints, so neither lookup boxes.
  */
 public class VanillaWireParser implements WireParser {
-    private final Map<CharSequence, Consumer<ValueIn>> namedConsumer = new TreeMap<>(CharSequenceComparator.INSTANCE);
-    private final Map<Integer, Consumer<ValueIn>> numberedConsumer = new HashMap<>();
+    static final int MAX_DENSE_CODE = 1 << 10;
+    private static final Consumer[] NO_CONSUMERS = {};
+
+    @NotNull
+    private String[] names = new String[16];
+    @NotNull
+    private int[] nameHashes = new int[16];
+    @NotNull
+    private Consumer<ValueIn>[] namedConsumers = new Consumer[16];
+    private int namedCount = 0;
+
+    @NotNull
+    private Consumer<ValueIn>[] denseConsumers = NO_CONSUMERS;
+
+    @NotNull
+    private int[] codes = new int[16];
+    @NotNull
+    private Consumer<ValueIn>[] codedConsumers = new Consumer[16];
+    private int codedCount = 0;
+
+    static int hash(@NotNull CharSequence name) {
+        int h = 0;
+        for (int i = 0; i < name.length(); i++)
+            h = 31 * h + name.charAt(i);
+        return spread(h);
+    }
+
+    static int hash(@NotNull BytesStore bytes, long offset, int length) {
+        int h = 0;
+        for (int i = 0; i < length; i++)
+            h = 31 * h + bytes.readUnsignedByte(offset + i);
+        return spread(h);
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
 
     @Override
     public void register(@NotNull WireKey key, Consumer<ValueIn> valueInConsumer) {
-        namedConsumer.put(key.name(), valueInConsumer);
-        numberedConsumer.put(key.code(), valueInConsumer);
+        putNamed(key.name().toString(), valueInConsumer);
+        putCoded(key.code(), valueInConsumer);
+    }
+
+    @Nullable
+    @Override
+    public Consumer<ValueIn> lookup(@NotNull CharSequence name) {
+        int hash = hash(name);
+        int mask = names.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            String n = names[i];
+            if (n == null)
+                return null;
+            if (nameHashes[i] == hash && matches(n, name))
+                return namedConsumers[i];
+        }
     }
 
+    @Nullable
     @Override
-    public Consumer<ValueIn> lookup(CharSequence name) {
-        return namedConsumer.get(name);
+    public Consumer<ValueIn> lookup(@NotNull BytesStore bytes, long offset, int length) {
+        int hash = hash(bytes, offset, length);
+        int mask = names.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            String n = names[i];
+            if (n == null)
+                return null;
+            if (nameHashes[i] == hash && matches(n, bytes, offset, length))
+                return namedConsumers[i];
+        }
     }
 
+    @Nullable
     @Override
     public Consumer<ValueIn> lookup(int number) {
-        return numberedConsumer.get(number);
+        if (number >= 0 && number < MAX_DENSE_CODE)
+            return number < denseConsumers.length ? denseConsumers[number] : null;
+        int mask = codes.length - 1;
+        for (int i = spread(number) & mask; ; i = (i + 1) & mask) {
+            Consumer<ValueIn> consumer = codedConsumers[i];
+            if (consumer == null || codes[i] == number)
+                return consumer;
+        }
+    }
+
+    private static boolean matches(@NotNull String n, @NotNull CharSequence name) {
+        if (n.length() != name.length())
+            return false;
+        for (int i = 0; i < n.length(); i++)
+            if (n.charAt(i) != name.charAt(i))
+                return false;
+        return true;
+    }
+
+    private static boolean matches(@NotNull String n, @NotNull BytesStore bytes, long offset, int length) {
+        if (n.length() != length)
+            return false;
+        for (int i = 0; i < length; i++)
+            if (n.charAt(i) != bytes.readUnsignedByte(offset + i))
+                return false;
+        return true;
+    }
+
+    private void putNamed(@NotNull String name, Consumer<ValueIn> consumer) {
+        int hash = hash(name);
+        int mask = names.length - 1;
+        int i = hash & mask;
+        for (; names[i] != null; i = (i + 1) & mask) {
+            if (nameHashes[i] == hash && names[i].equals(name)) {
+                namedConsumers[i] = consumer;
+                return;
+            }
+        }
+        names[i] = name;
+        nameHashes[i] = hash;
+        namedConsumers[i] = consumer;
+        // keep the table at most half full so probes stay short.
+        if (++namedCount * 2 > names.length)
+            resizeNamed();
+    }
+
+    private void resizeNamed() {
+        String[] names0 = names;
+        Consumer<ValueIn>[] consumers0 = namedConsumers;
+        names = new String[names0.length * 2];
+        nameHashes = new int[names.length];
+        namedConsumers = new Consumer[names.length];
+        namedCount = 0;
+        for (int i = 0; i < names0.length; i++)
+            if (names0[i] != null)
+                putNamed(names0[i], consumers0[i]);
+    }
+
+    private void putCoded(int code, Consumer<ValueIn> consumer) {
+        if (code >= 0 && code < MAX_DENSE_CODE) {
+            if (code >= denseConsumers.length) {
+                Consumer<ValueIn>[] dense = new Consumer[Math.max(16, Integer.highestOneBit(code) * 2)];
+                System.arraycopy(denseConsumers, 0, dense, 0, denseConsumers.length);
+                denseConsumers = dense;
+            }
+            denseConsumers[code] = consumer;
+            return;
+        }
+        if (consumer == null)
+            throw new IllegalArgumentException("A consumer is required for code " + code);
+        int mask = codes.length - 1;
+        int i = spread(code) & mask;
+        for (; codedConsumers[i] != null; i = (i + 1) & mask) {
+            if (codes[i] == code) {
+                codedConsumers[i] = consumer;
+                return;
+            }
+        }
+        codes[i] = code;
+        codedConsumers[i] = consumer;
+        if (++codedCount * 2 > codes.length)
+            resizeCoded();
+    }
+
+    private void resizeCoded() {
+        int[] codes0 = codes;
+        Consumer<ValueIn>[] consumers0 = codedConsumers;
+        codes = new int[codes0.length * 2];
+        codedConsumers = new Consumer[codes.length];
+        codedCount = 0;
+        for (int i = 0; i < codes0.length; i++)
+            if (consumers0[i] != null)
+                putCoded(codes0[i], consumers0[i]);
     }
 }
@@ -0,0 +1,180 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.IORuntimeException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferUnderflowException;
+
+import static net.openhft.chronicle.wire.Wires.*;
+
+/**
+ * Writes size prefixed documents as YAML to an Appendable, a Writer or another Bytes as it goes,
+ * rather than building one String.  One scratch TextWire is reused to transcode binary documents.
+ * <p>
+ * This class is not thread safe.
+ */
+public class WireDumper {
+    private final Bytes<?> textBytes = Bytes.elasticByteBuffer();
+    private final TextWire textWire = new TextWire(textBytes);
+    private final char[] buffer = new char[4096];
+    private int lastChar = '\n';
+
+    /**
+     * Dump all the documents between the readPosition and readLimit.
+     */
+    public void dump(@NotNull Bytes bytes, @NotNull Appendable out) {
+        dump(bytes, bytes.readPosition(), bytes.readRemaining(), 0, Long.MAX_VALUE, out);
+    }
+
+    /**
+     * Dump a range of documents.
+     *
+     * @param bytes        containing the documents
+     * @param position     of the first document header
+     * @param length       of the region to dump
+     * @param fromIndex    the number of documents to skip before dumping
+     * @param maxDocuments the maximum number of documents to dump.
+     * @param out          to write to
+     * @return the position after the last document read.
+     */
+    public long dump(@NotNull Bytes bytes, long position, long length, long fromIndex, long maxDocuments,
+                     @NotNull Appendable out) {
+        final long limit0 = bytes.readLimit();
+        final long position0 = bytes.readPosition();
+        try {
+            bytes.readPosition(position);
+            long limit2 = Math.min(limit0, position + length);
+            bytes.readLimit(limit2);
+            long missing = position + length - limit2;
+            BinaryWire binaryWire = null;
+            for (long index = 0; bytes.readRemaining() >= 4 && index - fromIndex < maxDocuments; index++) {
+                long header = bytes.readUnsignedInt();
+                int len = lengthOf(header);
+                if (index < fromIndex) {
+                    bytes.readSkip(Math.min(len, bytes.readRemaining()));
+                    continue;
+                }
+                String type = isData(header)
+                        ? isReady(header) ? "!!data" : "!!not-ready-data!"
+                        : isReady(header) ? "!!meta-data" : "!!not-ready-meta-data!";
+                boolean binary = bytes.readByte(bytes.readPosition()) < ' ';
+
+                append(out, "--- ");
+                append(out, type);
+                if (binary)
+                    append(out, " #binary");
+                if (missing > 0) {
+                    append(out, " # missing: ");
+                    append(out, Long.toString(missing));
+                }
+                if (len > bytes.readRemaining()) {
+                    append(out, " # len: ");
+                    append(out, Integer.toString(len));
+                    append(out, ", remaining: ");
+                    append(out, Long.toString(bytes.readRemaining()));
+                }
+                append(out, "\n");
+
+                Bytes text = bytes;
+
+                if (binary) {
+                    if (binaryWire == null)
+                        binaryWire = new BinaryWire(bytes);
+                    textBytes.clear();
+                    long readLimit = bytes.readLimit();
+                    try {
+                        bytes.readLimit(bytes.readPosition() + len);
+                        binaryWire.copyTo(textWire);
+                    } finally {
+                        bytes.readLimit(readLimit);
+                    }
+                    text = textBytes;
+                    len = (int) text.readRemaining();
+                }
+                try {
+                    appendText(out, text, len);
+                } catch (IOException e) {
+                    throw new IORuntimeException(e);
+                } catch (Exception e) {
+                    append(out, " ");
+                    append(out, e.toString());
+                }
+                if (lastChar != '\n')
+                    append(out, "\n");
+            }
+            return bytes.readPosition();
+
+        } finally {
+            bytes.readLimit(limit0);
+            bytes.readPosition(position0);
+        }
+    }
+
+    private void appendText(@NotNull Appendable out, @NotNull Bytes text, int len) throws IOException {
+        if (len <= 0)
+            return;
+        if (out instanceof Bytes) {
+            long n = Math.min(len, text.readRemaining());
+            if (n > 0) {
+                ((Bytes) out).write(text, text.readPosition(), n);
+                text.readSkip(n);
+                lastChar = text.readUnsignedByte(text.readPosition() - 1);
+            }
+            if (n < len)
+                throw new BufferUnderflowException();
+            return;
+        }
+        while (len > 0) {
+            int n = Math.min(len, buffer.length);
+            int i = 0;
+            try {
+                for (; i < n; i++)
+                    buffer[i] = (char) text.readUnsignedByte();
+            } finally {
+                if (i > 0) {
+                    append(out, buffer, i);
+                    lastChar = buffer[i - 1];
+                }
+            }
+            len -= n;
+        }
+    }
+
+    private static void append(@NotNull Appendable out, @NotNull char[] chars, int length) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(chars, 0, length);
+        } else if (out instanceof Writer) {
+            ((Writer) out).write(chars, 0, length);
+        } else {
+            for (int i = 0; i < length; i++)
+                out.append(chars[i]);
+        }
+    }
+
+    private void append(@NotNull Appendable out, @NotNull String s) {
+        try {
+            out.append(s);
+        } catch (IOException e) {
+            throw new IORuntimeException(e);
+        }
+        lastChar = s.charAt(s.length() - 1);
+    }
+}
@@ -18,6 +18,8 @@ package net.openhft.chronicle.wire;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.Consumer;
+
 /**
  * The defines the stand interface for writing and reading sequentially to/from a Bytes stream. <p> Created by peter.lawrey on
  * 12/01/15.
@@ -53,6 +55,19 @@ public interface WireIn extends WireCommon {
     @NotNull
     ValueIn read(@NotNull StringBuilder name);
 
+    /**
+     * Read the next event name and find the parser's handler for it.  The value can then be read
+     * with getValueIn().  Wires which can, look the name or number up without copying it.
+     *
+     * @return the handler or null if the parser doesn't have one.
+     */
+    @Nullable
+    default Consumer<ValueIn> readEventHandler(@NotNull WireParser parser) {
+        StringBuilder sb = Wires.SBP.acquireStringBuilder();
+        readEventName(sb);
+        return parser.lookup(sb);
+    }
+
     /**
      * Obtain the value in (for internal use)
      */
@@ -77,14 +92,40 @@ public interface WireIn extends WireCommon {
         return this;
     }
 
+    /**
+     * @return the provider of the instances typed and nested objects are read into.
+     */
+    @NotNull
+    InstanceProvider instanceProvider();
+
+    /**
+     * Use a provider which can recycle instances rather than create one for each object read.
+     * Every wire acquires the instances it creates from its provider, while objects read into an
+     * existing instance don't use it.
+     */
+    void instanceProvider(@NotNull InstanceProvider instanceProvider);
+
     default boolean readDocument(@Nullable ReadMarshallable metaDataConsumer,
                                  @Nullable ReadMarshallable dataConsumer) {
         return Wires.readData(this, metaDataConsumer, dataConsumer);
     }
 
+    default boolean readDocument(@NotNull EventNameFilter filter,
+                                 @Nullable ReadMarshallable metaDataConsumer,
+                                 @Nullable ReadMarshallable dataConsumer) {
+        return Wires.readData(this, filter, metaDataConsumer, dataConsumer);
+    }
+
     default boolean readDocument(long position,
                                  @Nullable ReadMarshallable metaDataConsumer,
                                  @Nullable ReadMarshallable dataConsumer) {
         return Wires.readData(position, this, metaDataConsumer, dataConsumer);
     }
+
+    /**
+     * Copy the next document as is to each of the wires, see {@link Wires#copyDocument(WireIn, boolean, boolean, WireOut...)}
+     */
+    default boolean copyDocument(boolean copyMetaData, @NotNull WireOut... wireOuts) {
+        return Wires.copyDocument(this, copyMetaData, true, wireOuts);
+    }
 }
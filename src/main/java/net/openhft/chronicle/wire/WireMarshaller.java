@@ -0,0 +1,348 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.openhft.chronicle.core.UnsafeMemory.UNSAFE;
+
+/**
+ * Writes and reads the non static, non transient fields of a class, including those of its super
+ * classes, in the order they are declared.
+ * <p>
+ * The fields are found by reflection once per class and cached as an array of accessors holding
+ * each field's offset, with a specialised accessor for each primitive type.  After that a
+ * primitive field is copied between the object and the wire without boxing or reflection.
+ * Nested Marshallables and StringBuilders are read into the existing instance if there is one.
+ */
+public class WireMarshaller<T> {
+    static final ClassValue<WireMarshaller> WIRE_MARSHALLER_CL = new ClassValue<WireMarshaller>() {
+        @NotNull
+        @Override
+        protected WireMarshaller computeValue(Class<?> type) {
+            return new WireMarshaller<>(type);
+        }
+    };
+
+    @NotNull
+    private final FieldAccess[] fields;
+
+    WireMarshaller(@NotNull Class<T> tClass) {
+        List<FieldAccess> list = new ArrayList<>();
+        addFields(tClass, list);
+        fields = list.toArray(new FieldAccess[list.size()]);
+    }
+
+    @NotNull
+    public static <T> WireMarshaller<T> of(@NotNull Class<T> tClass) {
+        return WIRE_MARSHALLER_CL.get(tClass);
+    }
+
+    private static void addFields(@NotNull Class clazz, @NotNull List<FieldAccess> list) {
+        if (clazz == Object.class || clazz == null)
+            return;
+        addFields(clazz.getSuperclass(), list);
+        for (Field field : clazz.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+                continue;
+            list.add(FieldAccess.create(field));
+        }
+    }
+
+    public void writeMarshallable(@NotNull T t, @NotNull WireOut out) {
+        for (FieldAccess field : fields)
+            field.write(t, out);
+    }
+
+    public void readMarshallable(@NotNull T t, @NotNull WireIn in) {
+        for (FieldAccess field : fields)
+            field.read(t, in);
+    }
+
+    static abstract class FieldAccess {
+        @NotNull
+        final WireKey key;
+        final long offset;
+
+        FieldAccess(@NotNull Field field) {
+            String name = field.getName();
+            key = () -> name;
+            offset = UNSAFE.objectFieldOffset(field);
+        }
+
+        @NotNull
+        static FieldAccess create(@NotNull Field field) {
+            Class<?> type = field.getType();
+            if (type.isPrimitive()) {
+                switch (type.getName()) {
+                    case "boolean":
+                        return new BooleanFieldAccess(field);
+                    case "byte":
+                        return new ByteFieldAccess(field);
+                    case "char":
+                        return new CharFieldAccess(field);
+                    case "short":
+                        return new ShortFieldAccess(field);
+                    case "int":
+                        return new IntFieldAccess(field);
+                    case "float":
+                        return new FloatFieldAccess(field);
+                    case "long":
+                        return new LongFieldAccess(field);
+                    case "double":
+                        return new DoubleFieldAccess(field);
+                    default:
+                        throw new UnsupportedOperationException("type " + type);
+                }
+            }
+            if (type == String.class)
+                return new StringFieldAccess(field);
+            if (type == StringBuilder.class)
+                return new StringBuilderFieldAccess(field);
+            if (type.isEnum())
+                return new EnumFieldAccess(field);
+            return new ObjectFieldAccess(field);
+        }
+
+        void write(Object o, @NotNull WireOut out) {
+            getValue(o, out.write(key));
+        }
+
+        void read(Object o, @NotNull WireIn in) {
+            setValue(o, in.read(key));
+        }
+
+        protected abstract void getValue(Object o, ValueOut write);
+
+        protected abstract void setValue(Object o, ValueIn read);
+
+        @NotNull
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "{" + key.name() + "}";
+        }
+    }
+
+    static class BooleanFieldAccess extends FieldAccess {
+        BooleanFieldAccess(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.bool(UNSAFE.getBoolean(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            UNSAFE.putBoolean(o, offset, read.bool());
+        }
+    }
+
+    static class ByteFieldAccess extends FieldAccess {
+        ByteFieldAccess(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.int8(UNSAFE.getByte(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            UNSAFE.putByte(o, offset, read.int8());
+        }
+    }
+
+    static class CharFieldAccess extends FieldAccess {
+        CharFieldAccess(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.uint16checked(UNSAFE.getChar(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            UNSAFE.putChar(o, offset, (char) read.uint16());
+        }
+    }
+
+    static class ShortFieldAccess extends FieldAccess {
+        ShortFieldAccess(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.int16(UNSAFE.getShort(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            UNSAFE.putShort(o, offset, read.int16());
+        }
+    }
+
+    static class IntFieldAccess extends FieldAccess {
+        IntFieldAccess(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.int32(UNSAFE.getInt(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            UNSAFE.putInt(o, offset, read.int32());
+        }
+    }
+
+    static class FloatFieldAccess extends FieldAccess {
+        FloatFieldAccess(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.float32(UNSAFE.getFloat(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            UNSAFE.putFloat(o, offset, read.float32());
+        }
+    }
+
+    static class LongFieldAccess extends FieldAccess {
+        LongFieldAccess(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.int64(UNSAFE.getLong(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            UNSAFE.putLong(o, offset, read.int64());
+        }
+    }
+
+    static class DoubleFieldAccess extends FieldAccess {
+        DoubleFieldAccess(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.float64(UNSAFE.getDouble(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            UNSAFE.putDouble(o, offset, read.float64());
+        }
+    }
+
+    static class StringFieldAccess extends FieldAccess {
+        StringFieldAccess(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.text((String) UNSAFE.getObject(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            UNSAFE.putObject(o, offset, read.text());
+        }
+    }
+
+    static class StringBuilderFieldAccess extends FieldAccess {
+        StringBuilderFieldAccess(@NotNull Field field) {
+            super(field);
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.text((StringBuilder) UNSAFE.getObject(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            StringBuilder sb = (StringBuilder) UNSAFE.getObject(o, offset);
+            if (sb == null)
+                UNSAFE.putObject(o, offset, sb = new StringBuilder());
+            read.textTo(sb);
+        }
+    }
+
+    static class EnumFieldAccess extends FieldAccess {
+        private final Class type;
+
+        EnumFieldAccess(@NotNull Field field) {
+            super(field);
+            type = field.getType();
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.asEnum((Enum) UNSAFE.getObject(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            UNSAFE.putObject(o, offset, read.asEnum(type));
+        }
+    }
+
+    static class ObjectFieldAccess extends FieldAccess {
+        private final Class type;
+
+        ObjectFieldAccess(@NotNull Field field) {
+            super(field);
+            type = field.getType();
+        }
+
+        @Override
+        protected void getValue(Object o, @NotNull ValueOut write) {
+            write.object(UNSAFE.getObject(o, offset));
+        }
+
+        @Override
+        protected void setValue(Object o, @NotNull ValueIn read) {
+            Object using = UNSAFE.getObject(o, offset);
+            Object value = read.object(using, type);
+            if (value != using)
+                UNSAFE.putObject(o, offset, value);
+        }
+    }
+}
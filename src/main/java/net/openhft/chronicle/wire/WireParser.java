@@ -15,6 +15,7 @@
  */
 package net.openhft.chronicle.wire;
 
+import net.openhft.chronicle.bytes.BytesStore;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.function.Consumer;
@@ -31,18 +32,32 @@ public interface WireParser {
     }
 
     default void parse(@NotNull WireIn wireIn) {
-        StringBuilder sb = Wires.SBP.acquireStringBuilder();
-        ValueIn valueIn = wireIn.read(sb);
-        Consumer<ValueIn> consumer = lookup(sb);
+        long start = wireIn.bytes().readPosition();
+        Consumer<ValueIn> consumer = wireIn.readEventHandler(this);
         if (consumer == null)
             consumer = lookup(DEFAULT.name());
-        if (consumer == null)
+        if (consumer == null) {
+            // read the name again, only for the message.
+            StringBuilder sb = Wires.acquireStringBuilder();
+            wireIn.bytes().readPosition(start);
+            wireIn.read(sb);
             throw new IllegalArgumentException("Unhandled event type " + sb);
-        consumer.accept(valueIn);
+        }
+        consumer.accept(wireIn.getValueIn());
     }
 
     Consumer<ValueIn> lookup(CharSequence name);
 
+    /**
+     * Lookup a name held as 8-bit characters, without copying it.
+     */
+    default Consumer<ValueIn> lookup(@NotNull BytesStore bytes, long offset, int length) {
+        StringBuilder sb = Wires.acquireStringBuilder();
+        for (int i = 0; i < length; i++)
+            sb.append((char) bytes.readUnsignedByte(offset + i));
+        return lookup(sb);
+    }
+
     default void setDefault(Consumer<ValueIn> valueInConsumer) {
         register(DEFAULT, valueInConsumer);
     }
@@ -63,6 +63,16 @@ public enum Wires {
         return (E) EnumInterner.ENUM_INTERNER.get(eClass).intern(cs);
     }
 
+    /**
+     * readResolve an instance obtained from the provider, returning it to the provider if it was replaced.
+     */
+    static <T> T readResolve(@NotNull InstanceProvider instanceProvider, @NotNull Object acquired) {
+        T resolved = ReadResolvable.readResolve(acquired);
+        if (resolved != acquired)
+            instanceProvider.release(acquired);
+        return resolved;
+    }
+
     public static StringBuilder acquireStringBuilder() {
         return SBP.acquireStringBuilder();
     }
@@ -118,6 +128,17 @@ public enum Wires {
     public static boolean readData(@NotNull WireIn wireIn,
                                    @Nullable ReadMarshallable metaDataConsumer,
                                    @Nullable ReadMarshallable dataConsumer) {
+        return readData(wireIn, null, metaDataConsumer, dataConsumer);
+    }
+
+    /**
+     * As {@link #readData(WireIn, ReadMarshallable, ReadMarshallable)} except data documents which
+     * the filter rejects are skipped by their length without being decoded.
+     */
+    public static boolean readData(@NotNull WireIn wireIn,
+                                   @Nullable EventNameFilter filter,
+                                   @Nullable ReadMarshallable metaDataConsumer,
+                                   @Nullable ReadMarshallable dataConsumer) {
         final Bytes<?> bytes = wireIn.bytes();
         boolean read = false;
         while (bytes.readRemaining() >= 4) {
@@ -132,6 +153,10 @@ public enum Wires {
                 if (dataConsumer == null) {
                     return false;
 
+                } else if (filter != null && ready && !filter.test(bytes, bytes.readPosition(), len)) {
+                    bytes.readSkip(len);
+                    read = true;
+
                 } else {
                     ((InternalWireIn) wireIn).setReady(ready);
                     bytes.readWithLength(len, b -> dataConsumer.readMarshallable(wireIn));
@@ -182,6 +207,48 @@ public enum Wires {
         }
     }
 
+    /**
+     * Copy the next document, header included, from the wireIn to every wireOut without decoding
+     * it. Each copy is written with the NOT_READY bit set and published with an ordered write once
+     * the body has been copied, so a reader of the target never sees a partial document.
+     *
+     * @param wireIn       to read the document from.
+     * @param copyMetaData whether meta data documents are copied.
+     * @param copyData     whether data documents are copied.
+     * @param wireOuts     to copy the document to.
+     * @return true if a document was consumed, whether it was copied or filtered out, false if no
+     * complete document is available yet.
+     */
+    public static boolean copyDocument(@NotNull WireIn wireIn,
+                                       boolean copyMetaData,
+                                       boolean copyData,
+                                       @NotNull WireOut... wireOuts) {
+        final Bytes<?> bytes = wireIn.bytes();
+        if (bytes.readRemaining() < 4)
+            return false;
+        long position = bytes.readPosition();
+        int header = bytes.readVolatileInt(position);
+        if (!isKnownLength(header) || !isReady(header))
+            return false;
+        final int len = lengthOf(header);
+        if (4L + len > bytes.readRemaining())
+            return false;
+
+        if (isData(header) ? copyData : copyMetaData) {
+            for (WireOut wireOut : wireOuts)
+                copyDocument(bytes, position, header, len, wireOut.bytes());
+        }
+        bytes.readSkip(4L + len);
+        return true;
+    }
+
+    private static void copyDocument(@NotNull Bytes<?> from, long position, int header, int len, @NotNull Bytes<?> to) {
+        long toPosition = to.writePosition();
+        to.writeOrderedInt(header | NOT_READY);
+        to.write(from, position + 4, len);
+        to.writeOrderedInt(toPosition, header);
+    }
+
     public static String fromSizePrefixedBlobs(@NotNull Bytes bytes) {
         long position = bytes.readPosition();
         return fromSizePrefixedBlobs(bytes, position, bytes.readRemaining());
@@ -207,65 +274,15 @@ public enum Wires {
     @NotNull
     private static String fromSizePrefixedBlobs(@NotNull Bytes bytes, long position, long length) {
         StringBuilder sb = new StringBuilder();
+        new WireDumper().dump(bytes, position, length, 0, Long.MAX_VALUE, sb);
+        return sb.toString();
+    }
 
-        final long limit0 = bytes.readLimit();
-        final long position0 = bytes.readPosition();
-        try {
-            bytes.readPosition(position);
-            long limit2 = Math.min(limit0, position + length);
-            bytes.readLimit(limit2);
-            long missing = position + length - limit2;
-            while (bytes.readRemaining() >= 4) {
-                long header = bytes.readUnsignedInt();
-                int len = lengthOf(header);
-                String type = isData(header)
-                        ? isReady(header) ? "!!data" : "!!not-ready-data!"
-                        : isReady(header) ? "!!meta-data" : "!!not-ready-meta-data!";
-                boolean binary = bytes.readByte(bytes.readPosition()) < ' ';
-
-                sb.append("--- ").append(type).append(binary ? " #binary" : "");
-                if (missing > 0)
-                    sb.append(" # missing: ").append(missing);
-                if (len > bytes.readRemaining())
-                    sb.append(" # len: ").append(len).append(", remaining: ").append(bytes.readRemaining());
-                sb.append("\n");
-
-                Bytes textBytes = bytes;
-
-                if (binary) {
-                    Bytes bytes2 = Bytes.elasticByteBuffer();
-                    TextWire textWire = new TextWire(bytes2);
-                    long readLimit = bytes.readLimit();
-
-                    try {
-                        bytes.readLimit(bytes.readPosition() + len);
-                        new BinaryWire(bytes).copyTo(textWire);
-                    } finally {
-                        bytes.readLimit(readLimit);
-                    }
-                    textBytes = bytes2;
-                    len = (int) textBytes.readRemaining();
-                }
-                try {
-                    for (int i = 0; i < len; i++) {
-                        int ch = textBytes.readUnsignedByte();
-//                        if (binary)
-//                            sb.append(RandomDataInput.charToString[ch]);
-//                        else
-                            sb.append((char) ch);
-                    }
-                } catch (Exception e) {
-                    sb.append(" ").append(e);
-                }
-                if (sb.charAt(sb.length() - 1) != '\n')
-                    sb.append('\n');
-            }
-
-            return sb.toString();
-        } finally {
-            bytes.readLimit(limit0);
-            bytes.readPosition(position0);
-        }
+    /**
+     * Write the documents as text to an Appendable as they are read, rather than building a String.
+     */
+    public static void fromSizePrefixedBlobs(@NotNull Bytes bytes, @NotNull Appendable out) {
+        new WireDumper().dump(bytes, out);
     }
 
     private static boolean isKnownLength(long len) {
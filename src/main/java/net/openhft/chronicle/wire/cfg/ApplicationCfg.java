@@ -16,6 +16,8 @@
 
 package net.openhft.chronicle.wire.cfg;
 
+import net.openhft.chronicle.wire.ReadMarshallable;
+import net.openhft.chronicle.wire.TextTree;
 import net.openhft.chronicle.wire.ValueIn;
 import net.openhft.chronicle.wire.WireIn;
 import org.jetbrains.annotations.NotNull;
@@ -61,6 +63,23 @@ public class ApplicationCfg implements MapInstallable {
         readMarshallable("", wire);
     }
 
+    /**
+     * Read only the installables under node, leaving the rest of the document undecoded.
+     *
+     * @param path the prefix for the paths of the installables.
+     */
+    public void readMarshallable(@NotNull TextTree tree, int node, String path) {
+        for (int child = tree.firstChild(node); child >= 0; child = tree.nextSibling(child)) {
+            String path2 = path + "/" + tree.key(child);
+            if (tree.isTyped(child)) {
+                ReadMarshallable o = tree.typedMarshallable(child);
+                installableMap.put(path2, (MapInstallable) o);
+            } else if (tree.kind(child) == TextTree.MAP) {
+                readMarshallable(tree, child, path2);
+            }
+        }
+    }
+
     private void readMarshallable(String path, WireIn wire) {
         StringBuilder name = new StringBuilder();
         while (wire.hasMore()) {
@@ -0,0 +1,48 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.NativeBytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BinaryDoubleArrayReferenceTest {
+    @Test
+    public void getSetValues() {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(1024)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            wire.write(() -> "prices").float64array(64);
+
+            BinaryDoubleArrayReference[] array = {null};
+            wire.read(() -> "prices").float64array(null, a -> array[0] = a);
+            assertEquals(64, array[0].getCapacity());
+            for (int i = 0; i < 64; i++)
+                array[0].setValueAt(i, i / 4.0);
+            for (int i = 0; i < 64; i++)
+                assertEquals(i / 4.0, array[0].getValueAt(i), 0.0);
+
+            assertTrue(array[0].compareAndSet(2, 0.5, 1.5));
+            assertFalse(array[0].compareAndSet(2, 0.5, 2.5));
+            assertEquals(2.0, array[0].addValueAt(2, 0.5), 0.0);
+
+            double[] dst = new double[3];
+            array[0].getValues(dst, 1, 3);
+            assertArrayEquals(new double[]{0.25, 2.0, 0.75}, dst, 0.0);
+        }
+    }
+}
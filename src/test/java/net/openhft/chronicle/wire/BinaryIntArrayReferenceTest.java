@@ -0,0 +1,50 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.NativeBytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BinaryIntArrayReferenceTest {
+    @Test
+    public void getSetValues() {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(1024)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            BinaryIntArrayReference written = new BinaryIntArrayReference();
+            wire.write(() -> "counts").int32array(128, written);
+            assertEquals(128 * 4 + 8, written.maxSize());
+            for (int i = 0; i < 128; i++)
+                written.setValueAt(i, i + 1);
+
+            BinaryIntArrayReference[] array = {null};
+            wire.read(() -> "counts").int32array(null, a -> array[0] = a);
+            assertEquals(128, array[0].getCapacity());
+            for (int i = 0; i < 128; i++)
+                assertEquals(i + 1, array[0].getValueAt(i));
+
+            assertTrue(array[0].compareAndSet(5, 6, 60));
+            assertFalse(array[0].compareAndSet(5, 6, 61));
+            assertEquals(65, array[0].addValueAt(5, 5));
+
+            int[] dst = new int[3];
+            array[0].getValues(dst, 4, 3);
+            assertArrayEquals(new int[]{5, 65, 7}, dst);
+        }
+    }
+}
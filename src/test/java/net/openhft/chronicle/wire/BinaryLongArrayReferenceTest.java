@@ -19,7 +19,7 @@ import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.NativeBytes;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class BinaryLongArrayReferenceTest {
     @Test
@@ -39,4 +39,27 @@ public class BinaryLongArrayReferenceTest {
                 assertEquals(i + 1, array.getValueAt(i));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getValues() {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(256)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            wire.write(() -> "values").int64array(16);
+
+            BinaryLongArrayReference[] array = {null};
+            wire.read(() -> "values").int64array(null, a -> array[0] = (BinaryLongArrayReference) a);
+            for (int i = 0; i < 16; i++)
+                array[0].setValueAt(i, i * 10);
+
+            long[] dst = new long[4];
+            array[0].getValues(dst, 12, 4);
+            assertArrayEquals(new long[]{120, 130, 140, 150}, dst);
+            try {
+                array[0].getValues(dst, 13, 4);
+                fail();
+            } catch (IndexOutOfBoundsException expected) {
+                // past the capacity
+            }
+        }
+    }
+}
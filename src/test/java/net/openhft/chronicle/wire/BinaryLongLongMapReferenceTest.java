@@ -0,0 +1,94 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.NativeBytes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.openhft.chronicle.wire.BinaryLongLongMapReference.NO_ENTRY;
+import static org.junit.Assert.*;
+
+public class BinaryLongLongMapReferenceTest {
+    @Test
+    public void putGet() {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(1024)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            wire.write(() -> "orders").int64map(16);
+
+            BinaryLongLongMapReference[] map = {null};
+            wire.read(() -> "orders").int64map(null, m -> map[0] = m);
+            assertEquals(16, map[0].getCapacity());
+            assertEquals(0, map[0].size());
+            assertEquals(-1, map[0].get(0, -1));
+
+            for (int i = 0; i < 16; i++)
+                assertTrue(map[0].put(i * 1000L, i));
+            assertFalse(map[0].put(-1, 1));
+            assertEquals(16, map[0].size());
+
+            for (int i = 0; i < 16; i++)
+                assertEquals(i, map[0].get(i * 1000L, -1));
+            assertFalse(map[0].containsKey(1));
+
+            assertTrue(map[0].put(2000, 22));
+            assertEquals(22, map[0].get(2000, -1));
+            assertEquals(22, map[0].putIfAbsent(2000, 23));
+            assertTrue(map[0].compareAndSwapValue(2000, 22, 24));
+            assertFalse(map[0].compareAndSwapValue(2000, 22, 25));
+            assertEquals(24, map[0].get(2000, -1));
+            assertEquals(16, map[0].size());
+        }
+    }
+
+    @Test
+    public void concurrentPut() throws InterruptedException {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(64 << 10)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            BinaryLongLongMapReference map = new BinaryLongLongMapReference();
+            wire.write(() -> "slots").int64map(2048, map);
+
+            int threads = 4, keys = 1000;
+            List<Thread> list = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < keys; i++)
+                        map.putIfAbsent(i, i * 2);
+                });
+                thread.start();
+                list.add(thread);
+            }
+            for (Thread thread : list)
+                thread.join();
+
+            assertEquals(keys, map.size());
+            for (int i = 0; i < keys; i++)
+                assertEquals(i * 2, map.get(i, -1));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reservedKey() {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(256)) {
+            BinaryLongLongMapReference map = new BinaryLongLongMapReference();
+            new BinaryWire(bytes).write(() -> "map").int64map(4, map);
+            map.put(NO_ENTRY, 1);
+        }
+    }
+}
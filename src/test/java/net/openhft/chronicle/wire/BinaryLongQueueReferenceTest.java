@@ -0,0 +1,83 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.NativeBytes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static net.openhft.chronicle.wire.BinaryLongQueueReference.NOT_PUBLISHED;
+import static org.junit.Assert.*;
+
+public class BinaryLongQueueReferenceTest {
+    @Test
+    public void append() {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(256)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            wire.write(() -> "index").int64queue(4);
+
+            BinaryLongQueueReference[] queue = {null};
+            wire.read(() -> "index").int64queue(null, q -> queue[0] = q);
+            assertEquals(4, queue[0].getCapacity());
+            assertEquals(0, queue[0].getUsed());
+            assertEquals(NOT_PUBLISHED, queue[0].getVolatileValueAt(0));
+
+            assertEquals(0, queue[0].append(0));
+            assertEquals(1, queue[0].append(128));
+            assertEquals(2, queue[0].append(-1));
+            assertEquals(3, queue[0].append(512));
+            assertEquals(-1, queue[0].append(640));
+            assertEquals(4, queue[0].getUsed());
+
+            long[] dst = new long[4];
+            assertEquals(3, queue[0].getValues(dst, 1, 4));
+            assertArrayEquals(new long[]{128, -1, 512, 0}, dst);
+            assertEquals(0, queue[0].getVolatileValueAt(0));
+        }
+    }
+
+    @Test
+    public void concurrentAppend() throws InterruptedException {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(64 << 10)) {
+            BinaryLongQueueReference queue = new BinaryLongQueueReference();
+            new BinaryWire(bytes).write(() -> "index").int64queue(4000, queue);
+
+            int threads = 4, appends = 1000;
+            List<Thread> list = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int base = t * appends;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < appends; i++)
+                        assertTrue(queue.append(base + i) >= 0);
+                });
+                thread.start();
+                list.add(thread);
+            }
+            for (Thread thread : list)
+                thread.join();
+
+            long[] values = new long[threads * appends];
+            assertEquals(values.length, queue.getValues(values, 0, values.length));
+            Arrays.sort(values);
+            for (int i = 0; i < values.length; i++)
+                assertEquals(i, values[i]);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.NativeBytes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class BinaryLongStripedReferenceTest {
+    @Test
+    public void concurrentAdd() throws InterruptedException {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(4096)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            wire.write(() -> "trades").int64striped(16);
+
+            BinaryLongStripedReference[] counter = {null};
+            wire.read(() -> "trades").int64striped(null, c -> counter[0] = c);
+            assertEquals(16, counter[0].stripes());
+            counter[0].reset();
+
+            int threads = 8, adds = 100_000;
+            List<Thread> list = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < adds; i++)
+                        counter[0].increment();
+                });
+                thread.start();
+                list.add(thread);
+            }
+            for (Thread thread : list)
+                thread.join();
+            assertEquals((long) threads * adds, counter[0].sum());
+
+            counter[0].add(-5);
+            assertEquals((long) threads * adds - 5, counter[0].sum());
+        }
+    }
+
+    @Test
+    public void stripesStartOnACacheLine() {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(4096)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            for (int i = 0; i < 3; i++) {
+                wire.write(() -> "n").int8(i);
+                wire.write(() -> "trades").int64striped(4);
+            }
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals(i, wire.read(() -> "n").int8());
+                long[] start = {0};
+                wire.read(() -> "trades").int64striped(null, c -> start[0] = bytes.readPosition());
+                assertEquals(0, (start[0] + 8) & 63);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unalignedStripes() {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(4096)) {
+            bytes.writeByte((byte) 0);
+            BinaryLongArrayReference.lazyWrite(bytes, BinaryLongStripedReference.capacityFor(4));
+            new BinaryLongStripedReference().bytesStore(bytes, 1, bytes.writePosition() - 1);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stripesPowerOf2() {
+        BinaryLongStripedReference.capacityFor(12);
+    }
+}
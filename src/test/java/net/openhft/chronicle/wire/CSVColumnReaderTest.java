@@ -0,0 +1,111 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.wire.CSVColumnReader.ColumnType;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class CSVColumnReaderTest {
+    @Test
+    public void readColumns() {
+        Bytes<?> bytes = Bytes.from(
+                "Symbol,Company,Price,Change,Date,Time,Updated,Day's Volume\n" +
+                        "III,\"3i Group, plc\",479.4,12,2015-09-01,08:00:01.5,2015-09-01T08:00:01.250Z,2387043\n" +
+                        "3IN,3i Infrastructure,164.7,0.1,1969-12-31,23:59,1999-12-31 23:59:59,429433\r\n" +
+                        "AA,AA,,5.7,2000-02-29,00:00:00,2000-02-29,\n");
+        Map<String, ColumnType> types = new LinkedHashMap<>();
+        types.put("Symbol", ColumnType.TEXT);
+        types.put("Price", ColumnType.DOUBLE);
+        types.put("Date", ColumnType.DATE);
+        types.put("Time", ColumnType.TIME);
+        types.put("Updated", ColumnType.DATE_TIME);
+        types.put("Day's Volume", ColumnType.LONG);
+        CSVColumnReader reader = new CSVColumnReader(bytes, types);
+        assertEquals(8, reader.header().size());
+
+        assertEquals(2, reader.read(2));
+        assertEquals(1, reader.read());
+        assertEquals(0, reader.read());
+        assertEquals(3, reader.rows());
+
+        assertEquals("III", reader.text("Symbol", 0));
+        assertEquals("AA", reader.text("Symbol", 2));
+
+        double[] prices = reader.doubles("Price");
+        assertEquals(479.4, prices[0], 0.0);
+        assertEquals(164.7, prices[1], 0.0);
+        assertEquals(Double.NaN, prices[2], 0.0);
+
+        long[] dates = reader.longs("Date");
+        assertEquals(LocalDate.of(2015, 9, 1).toEpochDay(), dates[0]);
+        assertEquals(-1, dates[1]);
+        assertEquals(LocalDate.of(2000, 2, 29).toEpochDay(), dates[2]);
+
+        long[] times = reader.longs("Time");
+        assertEquals(LocalTime.of(8, 0, 1, 500_000_000).toNanoOfDay(), times[0]);
+        assertEquals(LocalTime.of(23, 59).toNanoOfDay(), times[1]);
+        assertEquals(0, times[2]);
+
+        long[] updated = reader.longs("Updated");
+        assertEquals(LocalDateTime.of(2015, 9, 1, 8, 0, 1, 250_000_000).toInstant(ZoneOffset.UTC).toEpochMilli(), updated[0]);
+        assertEquals(LocalDateTime.of(1999, 12, 31, 23, 59, 59).toInstant(ZoneOffset.UTC).toEpochMilli(), updated[1]);
+        assertEquals(LocalDate.of(2000, 2, 29).toEpochDay() * 86_400_000L, updated[2]);
+
+        long[] volumes = reader.longs("Day's Volume");
+        assertEquals(2387043, volumes[0]);
+        assertEquals(429433, volumes[1]);
+        assertEquals(0, volumes[2]);
+    }
+
+    @Test
+    public void doubledQuotes() {
+        Bytes<?> bytes = Bytes.from(
+                "Name,Note,Qty\n" +
+                        "\"say \"\"hi\"\", then go\",\"a\\tb\",1\n" +
+                        "\"\"\"\"\"\",plain,2\n");
+        Map<String, ColumnType> types = new LinkedHashMap<>();
+        types.put("Name", ColumnType.TEXT);
+        types.put("Note", ColumnType.TEXT);
+        types.put("Qty", ColumnType.LONG);
+        CSVColumnReader reader = new CSVColumnReader(bytes, types);
+        assertEquals(2, reader.read());
+
+        assertEquals("say \"hi\", then go", reader.text("Name", 0));
+        assertEquals("a\tb", reader.text("Note", 0));
+        assertEquals("\"\"", reader.text("Name", 1));
+        assertEquals("plain", reader.text("Note", 1));
+        assertEquals(1, reader.longs("Qty")[0]);
+        assertEquals(2, reader.longs("Qty")[1]);
+    }
+
+    @Test
+    public void indexOfDelimiter() {
+        assertEquals(8, CSVColumnReader.indexOfDelimiter(0x4141414141414141L));
+        assertEquals(0, CSVColumnReader.indexOfDelimiter(0x414141414141412CL));
+        assertEquals(3, CSVColumnReader.indexOfDelimiter(0x2C4141410A414141L));
+        assertEquals(7, CSVColumnReader.indexOfDelimiter(0x0D41414141414141L));
+    }
+}
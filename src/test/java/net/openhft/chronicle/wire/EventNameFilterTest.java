@@ -0,0 +1,67 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventNameFilterTest {
+    static List<String> readAccepted(Function<Bytes, Wire> wireType) {
+        Bytes bytes = Bytes.elasticByteBuffer();
+        Wire wire = wireType.apply(bytes);
+        for (String event : "order,quote,trade,heartbeat,order".split(","))
+            wire.writeDocument(false, w -> w.writeEventName(() -> event).text(event + "-value"));
+
+        EventNameFilter filter = EventNameFilter.of(() -> "order", () -> "trade");
+        List<String> accepted = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        while (wire.readDocument(filter, null, w -> accepted.add(w.read(sb).text())))
+            ;
+        return accepted;
+    }
+
+    @Test
+    public void binary() {
+        assertEquals(Arrays.asList("order-value", "trade-value", "order-value"), readAccepted(BinaryWire::new));
+    }
+
+    @Test
+    public void text() {
+        assertEquals(Arrays.asList("order-value", "trade-value", "order-value"), readAccepted(TextWire::new));
+    }
+
+    @Test
+    public void keyWithoutAName() {
+        Bytes bytes = Bytes.elasticByteBuffer();
+        Wire wire = new TextWire(bytes);
+        wire.writeDocument(false, w -> w.writeEventName(() -> "order").text("order-value"));
+        wire.writeDocument(false, w -> w.writeEventName(() -> "quote").text("quote-value"));
+
+        EventNameFilter filter = EventNameFilter.of(() -> null, () -> "order");
+        List<String> accepted = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        while (wire.readDocument(filter, null, w -> accepted.add(w.read(sb).text())))
+            ;
+        assertEquals(Arrays.asList("order-value"), accepted);
+    }
+}
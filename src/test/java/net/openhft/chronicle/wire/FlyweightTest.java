@@ -0,0 +1,103 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.NativeBytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FlyweightTest {
+    @Test
+    public void tableOfRecords() {
+        Flyweight<Order> flyweight = Flyweight.of(Order.class);
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(4096)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            long[] starts = new long[11];
+            for (int i = 0; i < 10; i++) {
+                starts[i] = bytes.writePosition();
+                flyweight.writePlaceholders(wire);
+            }
+            starts[10] = bytes.writePosition();
+
+            Order order = flyweight.newInstance();
+            for (int i = 0; i < 10; i++) {
+                ((Byteable) order).bytesStore(bytes, starts[i], starts[i + 1] - starts[i]);
+                order.setPrice(100 + i / 4.0);
+                order.setQty(i * 10);
+                order.setOrderedState(1);
+            }
+
+            for (int i = 0; i < 10; i++) {
+                ((Byteable) order).bytesStore(bytes, starts[i], starts[i + 1] - starts[i]);
+                assertEquals(100 + i / 4.0, order.getPrice(), 0.0);
+                assertEquals(i * 10, order.getQty());
+                assertEquals(1, order.getVolatileState());
+            }
+
+            assertTrue(order.compareAndSwapState(1, 2));
+            assertFalse(order.compareAndSwapState(1, 3));
+            assertEquals(95, order.addQty(5));
+            assertEquals(100.5, order.addPrice(-1.75), 0.0);
+            assertEquals("Order { price: 100.5, qty: 95, state: 2 }", order.toString());
+        }
+    }
+
+    @Test
+    public void writeAndBind() {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(256)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            Order order = Flyweight.of(Order.class).write(wire, null);
+            order.setQty(7);
+
+            // the region is an ordinary document
+            assertEquals(0.0, wire.read(() -> "price").float64(), 0.0);
+            assertEquals(7, wire.read(() -> "qty").int64());
+            assertEquals(0, wire.read(() -> "state").int32());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedMethod() {
+        Flyweight.of(Unsupported.class);
+    }
+
+    interface Order {
+        double getPrice();
+
+        void setPrice(double price);
+
+        double addPrice(double delta);
+
+        long getQty();
+
+        void setQty(long qty);
+
+        long addQty(long delta);
+
+        int getVolatileState();
+
+        void setOrderedState(int state);
+
+        boolean compareAndSwapState(int expected, int state);
+    }
+
+    interface Unsupported {
+        String getName();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.NativeBytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ForBindingTest {
+    @Test
+    public void binary() {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(256)) {
+            Wire wire = new BinaryWire(bytes);
+            wire.write(() -> "price").float64forBinding(1.25)
+                    .write(() -> "halted").boolForBinding(false)
+                    .write(() -> "state").int8forBinding((byte) 3);
+
+            // readable as an ordinary document
+            assertEquals(1.25, wire.read(() -> "price").float64(), 0.0);
+            assertFalse(wire.read(() -> "halted").bool());
+            assertEquals(3, wire.read(() -> "state").int8());
+
+            bytes.readPosition(0);
+            checkBindings(wire);
+
+            bytes.readPosition(0);
+            assertEquals(2.5, wire.read(() -> "price").float64(), 0.0);
+            assertTrue(wire.read(() -> "halted").bool());
+            assertEquals(-2, wire.read(() -> "state").int8());
+        }
+    }
+
+    @Test
+    public void text() {
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(256)) {
+            Wire wire = new TextWire(bytes);
+            wire.write(() -> "price").float64forBinding(1.25)
+                    .write(() -> "halted").boolForBinding(false)
+                    .write(() -> "state").int8forBinding((byte) 3);
+            assertEquals("price: !!atomic { version: 00000000, value: 1.25                     }\n" +
+                    "halted: !!atomic { version: 00000000, value: false }\n" +
+                    "state: !!atomic { version: 00000000, value: 0003 }\n", bytes.toString());
+
+            checkBindings(wire);
+            bytes.readPosition(0);
+            assertEquals("price: !!atomic { version: 00000004, value: 2.5                      }\n" +
+                    "halted: !!atomic { version: 00000002, value: true  }\n" +
+                    "state: !!atomic { version: 00000006, value: -002 }\n", bytes.toString());
+        }
+    }
+
+    private static void checkBindings(Wire wire) {
+        DoubleValue[] price = {null};
+        BooleanValue[] halted = {null};
+        ByteValue[] state = {null};
+        wire.read(() -> "price").float64(null, v -> price[0] = v);
+        wire.read(() -> "halted").bool(null, v -> halted[0] = v);
+        wire.read(() -> "state").int8(null, v -> state[0] = v);
+
+        assertEquals(1.25, price[0].getVolatileValue(), 0.0);
+        assertTrue(price[0].compareAndSwapValue(1.25, 2.0));
+        assertFalse(price[0].compareAndSwapValue(1.25, 3.0));
+        assertEquals(2.5, price[0].addValue(0.5), 0.0);
+
+        assertFalse(halted[0].getVolatileValue());
+        assertTrue(halted[0].compareAndSwapValue(false, true));
+        assertFalse(halted[0].compareAndSwapValue(false, true));
+        assertTrue(halted[0].getValue());
+
+        assertEquals(3, state[0].getVolatileValue());
+        state[0].setOrderedValue((byte) -1);
+        assertTrue(state[0].compareAndSwapValue((byte) -1, (byte) -3));
+        assertEquals(-2, state[0].addValue((byte) 1));
+    }
+}
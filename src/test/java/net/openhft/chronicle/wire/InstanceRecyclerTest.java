@@ -0,0 +1,85 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InstanceRecyclerTest {
+    @Test
+    public void recyclesTypedMarshallables() {
+        recyclesTypedMarshallables(WireType.BINARY);
+        recyclesTypedMarshallables(WireType.TEXT);
+        recyclesTypedMarshallables(WireType.JSON);
+    }
+
+    private static void recyclesTypedMarshallables(WireType wireType) {
+        try (Bytes<?> bytes = Bytes.allocateElasticDirect(256)) {
+            Wire wire = wireType.apply(bytes);
+            assertSame(InstanceProvider.NEW_INSTANCE, wire.instanceProvider());
+            InstanceRecycler recycler = new InstanceRecycler();
+            wire.instanceProvider(recycler);
+
+            for (int i = 1; i <= 3; i++) {
+                Event event = new Event();
+                event.id = i;
+                event.detail.value = i * 10;
+                wire.write(() -> "event").typedMarshallable(event);
+            }
+
+            Event first = wire.read(() -> "event").typedMarshallable();
+            assertEquals(1, first.id);
+            Detail detail = first.detail;
+            recycler.release(first);
+            assertEquals(1, recycler.available(Event.class));
+
+            Event second = wire.read(() -> "event").typedMarshallable();
+            assertSame(first, second);
+            assertSame(detail, second.detail);
+            assertEquals(2, second.id);
+            assertEquals(20, second.detail.value);
+            assertEquals(0, recycler.available(Event.class));
+
+            // not released so a new instance is needed.
+            Event third = wire.read(() -> "event").typedMarshallable();
+            assertNotSame(second, third);
+            assertEquals(3, third.id);
+            assertEquals(30, third.detail.value);
+        }
+    }
+
+    @Test
+    public void maxPerClass() {
+        InstanceRecycler recycler = new InstanceRecycler(1);
+        recycler.release(new Event());
+        recycler.release(new Event());
+        assertEquals(1, recycler.available(Event.class));
+        assertNotNull(recycler.acquire(Event.class));
+        assertEquals(0, recycler.available(Event.class));
+        assertNotNull(recycler.acquire(Event.class));
+    }
+
+    public static class Detail implements Marshallable {
+        long value;
+    }
+
+    public static class Event implements Marshallable {
+        final Detail detail = new Detail();
+        int id;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JSONWireTest {
+    @Test
+    public void ndjsonWriteRead() {
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+        JSONWire wire = JSONWire.ndjson(bytes);
+        for (int i = 0; i < 3; i++) {
+            final int n = i;
+            wire.writeDocument(false, w -> w.write(() -> "id").int64(n)
+                    .write(() -> "name").text("line\n" + n)
+                    .write(() -> "nested").marshallable(m -> m.write(() -> "x").float64(n / 2.0)));
+        }
+        String text = bytes.toString();
+        String[] lines = text.split("\n");
+        assertEquals(3, lines.length);
+        for (String line : lines) {
+            assertTrue(line, line.startsWith("{"));
+            assertTrue(line, line.endsWith("}"));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Double> xs = new ArrayList<>();
+        while (wire.readDocument(null, w -> {
+            ids.add(w.read(() -> "id").int64());
+            names.add(w.read(() -> "name").text());
+            w.read(() -> "nested").marshallable(m -> xs.add(m.read(() -> "x").float64()));
+        })) ;
+        assertEquals(Arrays.asList(0L, 1L, 2L), ids);
+        assertEquals(Arrays.asList("line\n0", "line\n1", "line\n2"), names);
+        assertEquals(Arrays.asList(0.0, 0.5, 1.0), xs);
+    }
+
+    @Test
+    public void ndjsonSkipsBlankLines() {
+        Bytes bytes = Bytes.elasticByteBuffer();
+        bytes.append("{\"id\":1}\n\n  \r\n{\"id\":2}\r\n{\"id\":3}");
+        JSONWire wire = JSONWire.ndjson(bytes);
+        List<Long> ids = new ArrayList<>();
+        ReadMarshallable reader = w -> ids.add(w.read(() -> "id").int64());
+        while (wire.readDocument(null, reader)) ;
+        // the last line is left until its newline is written.
+        assertEquals(Arrays.asList(1L, 2L), ids);
+        assertFalse(wire.readDocument(null, reader));
+
+        bytes.append("\n");
+        assertTrue(wire.readDocument(null, reader));
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids);
+        assertFalse(wire.readDocument(null, reader));
+    }
+
+    @Test
+    public void ndjsonFromFile() throws IOException {
+        File file = File.createTempFile("ndjson", ".json");
+        file.deleteOnExit();
+        try (FileWriter fw = new FileWriter(file)) {
+            fw.write("{\"id\":1}\n{\"id\":2}\n{\"id\":3");
+        }
+        List<Long> ids = new ArrayList<>();
+        assertEquals(2, JSONWire.ndjsonFromFile(file.getAbsolutePath(),
+                w -> ids.add(w.read(() -> "id").int64())));
+        assertEquals(Arrays.asList(1L, 2L), ids);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times reading a generated CSV file with an increasing number of threads.
+ * <p>
+ * Usage: ParallelIngestMain [rows] [chunkSize]
+ */
+public class ParallelIngestMain {
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        long chunkSize = args.length > 1 ? Long.parseLong(args[1]) : 16 << 20;
+
+        File file = File.createTempFile("ingest", ".csv");
+        file.deleteOnExit();
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file), 1 << 20)) {
+            bw.write("id,symbol,price,volume\n");
+            for (int i = 0; i < rows; i++)
+                bw.write(i + ",SYM" + (i % 1000) + "," + (i % 10000) / 100.0 + "," + i * 7L + "\n");
+        }
+        System.out.printf("%,d rows, %,d bytes%n", rows, file.length());
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                for (int run = 0; run < 3; run++) {
+                    LongAdder sum = new LongAdder();
+                    long start = System.nanoTime();
+                    long count = new ParallelIngest(file, ParallelIngest.Format.CSV)
+                            .chunkSize(chunkSize)
+                            .pool(pool)
+                            .ingest(w -> {
+                                long id = w.read(() -> "id").int64();
+                                w.read(() -> "symbol").text();
+                                w.read(() -> "price").float64();
+                                return id + w.read(() -> "volume").int64();
+                            }, sum::add);
+                    long time = System.nanoTime() - start;
+                    System.out.printf("threads: %d, rows: %,d, took %.3f s, %.1f MB/s%n",
+                            threads, count, time / 1e9, file.length() * 1e3 / time);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
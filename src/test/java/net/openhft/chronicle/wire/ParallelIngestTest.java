@@ -0,0 +1,133 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelIngestTest {
+    private static File write(String text) throws IOException {
+        File file = File.createTempFile("ingest", ".tmp");
+        file.deleteOnExit();
+        try (FileWriter fw = new FileWriter(file)) {
+            fw.write(text);
+        }
+        return file;
+    }
+
+    @Test
+    public void csv() throws IOException {
+        StringBuilder sb = new StringBuilder("id,name,value\n");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String name = i % 7 == 0 ? "line\n" + i : i % 5 == 0 ? "a, " + i : "n" + i;
+            String quoted = i % 7 == 0 || i % 5 == 0 ? "\"" + name + "\"" : name;
+            sb.append(i).append(',').append(quoted).append(',').append(i / 4.0).append('\n');
+            expected.add(i + ":" + name + ":" + i / 4.0);
+        }
+        File file = write(sb.toString());
+        Function<WireIn, String> reader = w -> w.read(() -> "id").int64()
+                + ":" + w.read(() -> "name").text()
+                + ":" + w.read(() -> "value").float64();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int chunkSize : new int[]{16, 100, 1 << 20}) {
+                List<String> ordered = new ArrayList<>();
+                long count = new ParallelIngest(file, ParallelIngest.Format.CSV)
+                        .chunkSize(chunkSize)
+                        .pool(pool)
+                        .ordered(true)
+                        .ingest(reader, ordered::add);
+                assertEquals(200, count);
+                assertEquals(expected, ordered);
+
+                List<String> unordered = Collections.synchronizedList(new ArrayList<>());
+                new ParallelIngest(file, ParallelIngest.Format.CSV)
+                        .chunkSize(chunkSize)
+                        .pool(pool)
+                        .ingest(reader, unordered::add);
+                Collections.sort(unordered);
+                List<String> sorted = new ArrayList<>(expected);
+                Collections.sort(sorted);
+                assertEquals(sorted, unordered);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void csvBackslashOnlyEscapesInQuotes() throws IOException {
+        StringBuilder sb = new StringBuilder("id,path\n");
+        Set<Long> recordStarts = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            recordStarts.add((long) sb.length());
+            if (i % 3 == 0)
+                sb.append(i).append(",C:\\temp\\\n");
+            else if (i % 3 == 1)
+                sb.append(i).append(",\"say \\\"hi\\\"\nthere\"\n");
+            else
+                sb.append(i).append(",\"ends with \\\\\"\n");
+        }
+        File file = write(sb.toString());
+        long size = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel fc = raf.getChannel();
+            for (int chunkSize : new int[]{5, 7, 16, 31, 100}) {
+                long[] starts = new ParallelIngest(file, ParallelIngest.Format.CSV)
+                        .chunkSize(chunkSize)
+                        .chunkStarts(fc, size);
+                assertEquals(0, starts[0]);
+                assertEquals(size, starts[starts.length - 1]);
+                for (int i = 1; i < starts.length - 1; i++)
+                    assertTrue("chunk " + i + " starts at " + starts[i], recordStarts.contains(starts[i]));
+            }
+        }
+    }
+
+    @Test
+    public void yaml() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            sb.append("---\nname: n").append(i).append('\n');
+            expected.add("n" + i);
+        }
+        List<String> names = new ArrayList<>();
+        long count = new ParallelIngest(write(sb.toString()), ParallelIngest.Format.YAML)
+                .chunkSize(40)
+                .ordered(true)
+                .ingest(w -> w.read(() -> "name").text(), names::add);
+        assertEquals(50, count);
+        assertEquals(expected, names);
+    }
+}
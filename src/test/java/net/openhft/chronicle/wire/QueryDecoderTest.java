@@ -0,0 +1,68 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QueryDecoderTest {
+    @Test
+    public void parse() {
+        QueryDecoder decoder = new QueryDecoder();
+        int symbol = decoder.register("symbol");
+        int qty = decoder.register("qty");
+        int price = decoder.register("price");
+        int live = decoder.register("live");
+        int note = decoder.register("note");
+        assertEquals(qty, decoder.register("qty"));
+
+        decoder.parse(Bytes.from("?symbol=EUR%2FUSD&qty=1000000&price=1.1234&live=TRUE&other=x&note=a+b%20c"));
+        StringBuilder sb = new StringBuilder();
+        assertEquals("EUR/USD", decoder.textTo(symbol, sb).toString());
+        assertTrue(decoder.bytesMatch(symbol, Bytes.from("EUR/USD")));
+        assertEquals(1_000_000, decoder.int64(qty, -1));
+        assertEquals(1.1234, decoder.float64(price, Double.NaN), 0.0);
+        assertTrue(decoder.bool(live, false));
+        assertEquals("a b c", decoder.textTo(note, sb).toString());
+        assertEquals(1, decoder.unknownKeys());
+
+        // values from the previous query are not kept.
+        decoder.parse(Bytes.from("qty=&symbol=GBP%2fUSD&symbol=%ZZ"));
+        assertTrue(decoder.has(qty));
+        assertEquals(-1, decoder.int64(qty, -1));
+        assertEquals("%ZZ", decoder.textTo(symbol, sb).toString());
+        assertFalse(decoder.has(price));
+        assertNull(decoder.bytes(price));
+        assertEquals(Double.NaN, decoder.float64(price, Double.NaN), 0.0);
+        assertFalse(decoder.bool(live, false));
+        assertEquals(0, decoder.unknownKeys());
+    }
+
+    @Test
+    public void manyKeys() {
+        QueryDecoder decoder = new QueryDecoder();
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, decoder.register("key" + i));
+            query.append("key").append(i).append('=').append(i * 3).append('&');
+        }
+        decoder.parse(Bytes.from(query.toString()));
+        for (int i = 0; i < 100; i++)
+            assertEquals(i * 3, decoder.int64(i, -1));
+    }
+}
@@ -16,6 +16,7 @@
 
 package net.openhft.chronicle.wire;
 
+import net.openhft.chronicle.bytes.Bytes;
 import net.openhft.chronicle.bytes.NativeBytes;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
@@ -65,4 +66,16 @@ public class QueryWireTest {
             wp.parse(wire);
         assertEquals(new ArrayList<>(Arrays.asList(true, 12345L, "Hello World", 12.345)), results);
     }
+
+    @Test
+    public void readPercentEncoded() {
+        QueryWire wire = createWire();
+        bytes.append("na%6De=Hello+World%21&path=%2Fa%2Fb%26c&caf%C3%A9=%E2%82%AC1");
+        StringBuilder name = new StringBuilder();
+        wire.read(name).text(s -> assertEquals("Hello World!", s));
+        assertEquals("name", name.toString());
+        wire.read(() -> "path").bytesMatch(Bytes.from("/a/b&c"), b -> assertTrue(b));
+        wire.read(name).text(s -> assertEquals("\u20ac1", s));
+        assertEquals("caf\u00e9", name.toString());
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ResumableTextReaderTest {
+    @Test
+    public void fragments() {
+        Bytes bytes = Bytes.elasticByteBuffer();
+        TextWire wire = new TextWire(bytes);
+        ResumableTextReader reader = new ResumableTextReader(wire);
+        List<String> values = new ArrayList<>();
+        StringBuilder name = new StringBuilder();
+        ReadMarshallable entry = w -> {
+            String value = w.read(name).text();
+            values.add(name + "=" + value);
+        };
+
+        bytes.append("first: \"hello, ");
+        assertFalse(reader.readEntry(entry));
+        assertTrue(reader.isPartial());
+
+        bytes.append("world\"\nsecond: tw");
+        assertTrue(reader.readEntry(entry));
+        assertFalse(reader.readEntry(entry));
+
+        bytes.append("o\n");
+        assertTrue(reader.readEntry(entry));
+        assertFalse(reader.readEntry(entry));
+
+        // the last entry received is delivered without waiting for another.
+        bytes.append("third: 3\n");
+        assertTrue(reader.readEntry(entry));
+        assertFalse(reader.readEntry(entry));
+        assertFalse(reader.isPartial());
+
+        bytes.append("# comment\n");
+        assertFalse(reader.readEntry(entry));
+        assertFalse(reader.isPartial());
+        assertEquals(Arrays.asList("first=hello, world", "second=two", "third=3"), values);
+    }
+
+    @Test
+    public void nestedMarshallable() {
+        Bytes bytes = Bytes.elasticByteBuffer();
+        ResumableTextReader reader = new ResumableTextReader(new TextWire(bytes));
+        List<Long> values = new ArrayList<>();
+        ReadMarshallable entry = w -> w.read(() -> "outer").marshallable(
+                m -> values.add(m.read(() -> "value").int64()));
+
+        bytes.append("outer: {\n  value: 1");
+        assertFalse(reader.readEntry(entry));
+        bytes.append("23\n}\n");
+        assertTrue(reader.readEntry(entry));
+        assertEquals(Arrays.asList(123L), values);
+        assertFalse(reader.readEntry(entry));
+    }
+
+    @Test
+    public void indentedBlockWaitsForTheNextEntry() {
+        Bytes bytes = Bytes.elasticByteBuffer();
+        ResumableTextReader reader = new ResumableTextReader(new TextWire(bytes));
+        List<Long> values = new ArrayList<>();
+        ReadMarshallable entry = w -> w.read(() -> "outer").marshallable(
+                m -> values.add(m.read(() -> "value").int64()));
+
+        bytes.append("outer:\n  value: 1\n");
+        // the block may have more indented lines.
+        assertFalse(reader.readEntry(entry));
+        bytes.append("outer: { value: 2 }\n");
+        assertTrue(reader.readEntry(entry));
+        assertTrue(reader.readEntry(entry));
+        assertEquals(Arrays.asList(1L, 2L), values);
+    }
+
+    @Test
+    public void jsonEndsAtTheClosingBracket() {
+        Bytes bytes = Bytes.elasticByteBuffer();
+        ResumableTextReader reader = new ResumableTextReader(new JSONWire(bytes));
+        List<Long> values = new ArrayList<>();
+        ReadMarshallable entry = w -> w.getValueIn().marshallable(o -> o.read(() -> "outer").marshallable(
+                m -> values.add(m.read(() -> "value").int64())));
+
+        bytes.append("{\"outer\": {\"value\": 1");
+        assertFalse(reader.readEntry(entry));
+        assertTrue(reader.isPartial());
+        // no trailing new line or later entry is needed.
+        bytes.append("}}");
+        assertTrue(reader.readEntry(entry));
+        assertEquals(Arrays.asList(1L), values);
+        assertFalse(reader.readEntry(entry));
+    }
+
+    @Test
+    public void nestedFlowInBlockMapping() {
+        Bytes bytes = Bytes.elasticByteBuffer();
+        ResumableTextReader reader = new ResumableTextReader(new TextWire(bytes));
+        List<String> values = new ArrayList<>();
+        ReadMarshallable entry = w -> w.read(() -> "outer").marshallable(m -> {
+            m.read(() -> "inner").marshallable(i -> values.add("a=" + i.read(() -> "a").int64()));
+            values.add("b=" + m.read(() -> "b").int64());
+        });
+
+        bytes.append("outer:\n  inner: {a: 1}\n  b: 2\nnext: 3\n");
+        assertTrue(reader.readEntry(entry));
+        assertEquals(Arrays.asList("a=1", "b=2"), values);
+        assertFalse(reader.isPartial());
+    }
+
+    @Test
+    public void apostropheInPlainScalar() {
+        Bytes bytes = Bytes.elasticByteBuffer();
+        ResumableTextReader reader = new ResumableTextReader(new TextWire(bytes));
+        List<String> values = new ArrayList<>();
+        ReadMarshallable entry = w -> values.add(w.read(() -> "msg").text());
+
+        bytes.append("msg: don't\nmsg: 'it''s quoted'\nmsg: done\n");
+        assertTrue(reader.readEntry(entry));
+        assertTrue(reader.readEntry(entry));
+        assertTrue(reader.readEntry(entry));
+        assertFalse(reader.readEntry(entry));
+        assertEquals(3, values.size());
+        assertEquals("don't", values.get(0));
+        assertEquals("done", values.get(2));
+    }
+}
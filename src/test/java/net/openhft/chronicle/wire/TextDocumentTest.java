@@ -61,8 +61,8 @@ public class TextDocumentTest {
         assertEquals("--- !!meta-data\n" +
                 "header: {\n" +
                 "  uuid: "+wheader.uuid+",\n" +
-                "  writeByte: !!atomic { locked: false, value: 00000000000000000512 },\n" +
-                "  readByte: !!atomic { locked: false, value: 00000000000000001024 },\n" +
+                "  writeByte: !!atomic { version: 00000000, value: 00000000000000000512 },\n" +
+                "  readByte: !!atomic { version: 00000000, value: 00000000000000001024 },\n" +
                 "  created: " + wheader.created+"\n" +
                 "}\n", Wires.fromSizePrefixedBlobs(bytes));
         wire.readDocument(w -> w.read(() -> "header").marshallable(rheader), null);
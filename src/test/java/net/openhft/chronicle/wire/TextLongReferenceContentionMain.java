@@ -0,0 +1,68 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.NativeBytesStore;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the throughput of TextLongReference under contention, with one to
+ * availableProcessors threads each doing a mix of addValue and getValue on the same counter.
+ * <p>
+ * Usage: TextLongReferenceContentionMain [operations per thread] [reads per write]
+ */
+public class TextLongReferenceContentionMain {
+    public static void main(String[] args) throws InterruptedException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int readsPerWrite = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        TextLongReference value = new TextLongReference();
+        try (NativeBytesStore bytesStore = NativeBytesStore.nativeStoreWithFixedCapacity(value.maxSize())) {
+            value.bytesStore(bytesStore, 0, value.maxSize());
+            int processors = Runtime.getRuntime().availableProcessors();
+            for (int threads = 1; threads <= processors; threads *= 2) {
+                for (int run = 0; run < 3; run++) {
+                    value.setValue(0);
+                    AtomicLong blackhole = new AtomicLong();
+                    Thread[] ts = new Thread[threads];
+                    for (int t = 0; t < threads; t++) {
+                        TextLongReference ref = new TextLongReference();
+                        ref.bytesStore(bytesStore, 0, ref.maxSize());
+                        ts[t] = new Thread(() -> {
+                            long sum = 0;
+                            for (int i = 0; i < operations; i++) {
+                                if (i % (readsPerWrite + 1) == 0)
+                                    ref.addValue(1);
+                                else
+                                    sum += ref.getValue();
+                            }
+                            blackhole.addAndGet(sum);
+                        });
+                    }
+                    long start = System.nanoTime();
+                    for (Thread t : ts)
+                        t.start();
+                    for (Thread t : ts)
+                        t.join();
+                    long time = System.nanoTime() - start;
+                    System.out.printf("threads: %d, %,d ops/s, value: %,d%n",
+                            threads, (long) (1e9 * threads * operations / time), value.getValue());
+                }
+            }
+        }
+    }
+}
@@ -19,6 +19,13 @@ import net.openhft.chronicle.bytes.NativeBytesStore;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 public class TextLongReferenceTest {
 
     @Test
@@ -37,4 +44,47 @@ public class TextLongReferenceTest {
             Assert.assertEquals(expected, value.getValue());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testConcurrentAdd() throws InterruptedException, ExecutionException {
+        final TextLongReference value = new TextLongReference();
+        ExecutorService service = Executors.newCachedThreadPool();
+        try (NativeBytesStore bytesStore = NativeBytesStore.nativeStoreWithFixedCapacity(value.maxSize())) {
+            value.bytesStore(bytesStore, 0, value.maxSize());
+            int threads = 4, adds = 10_000;
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                // each thread has its own reference to the same memory, as another process would.
+                TextLongReference ref = new TextLongReference();
+                ref.bytesStore(bytesStore, 0, ref.maxSize());
+                futures.add(service.submit(() -> {
+                    int outOfRange = 0;
+                    for (int i = 0; i < adds; i++) {
+                        ref.addValue(1);
+                        long v = ref.getValue();
+                        if (v <= 0 || v > threads * adds)
+                            outOfRange++;
+                    }
+                    return outOfRange;
+                }));
+            }
+            // check on this thread as a failed assertion in another thread doesn't fail the test.
+            for (Future<Integer> future : futures)
+                Assert.assertEquals(0, (int) future.get());
+            Assert.assertEquals(threads * adds, value.getValue());
+            Assert.assertTrue(value.compareAndSwapValue(threads * adds, 7));
+            Assert.assertFalse(value.compareAndSwapValue(threads * adds, 1));
+            Assert.assertEquals(7, value.getValue());
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSeqLockVersion() {
+        for (long v : new long[]{0, 1, 9, 12345678, 99_999_999})
+            Assert.assertEquals(v, TextSeqLock.decode(TextSeqLock.encode(v)));
+        // wraps around
+        Assert.assertEquals(0, TextSeqLock.decode(TextSeqLock.encode(100_000_000)));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TextNumbersTest {
+    @Test
+    public void appendDouble() {
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+        for (double d : new double[]{1, 10.5, -1234.56, 0.001, 9999999.5, 12.345}) {
+            bytes.clear();
+            TextNumbers.append(bytes, d);
+            assertEquals(Double.toString(d), bytes.toString());
+        }
+    }
+
+    @Test
+    public void appendFloat() {
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+        for (float f : new float[]{1, 0.1f, -3.3f, 123456.0f}) {
+            bytes.clear();
+            TextNumbers.append(bytes, f);
+            assertEquals(Float.toString(f), bytes.toString());
+        }
+    }
+
+    @Test
+    public void roundTrip() {
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+        Random random = new Random(1);
+        for (int i = 0; i < 100000; i++) {
+            double d = i % 2 == 0
+                    ? Math.round(random.nextDouble() * 1e8) / 100.0
+                    : -Math.round(random.nextDouble() * 1e12) / 1e8;
+            bytes.clear();
+            TextNumbers.append(bytes, d);
+            bytes.append('\n');
+            assertEquals(d, TextNumbers.parseDouble(bytes), 0.0);
+            assertEquals(0, bytes.readRemaining());
+        }
+    }
+
+    @Test
+    public void parseDouble() {
+        Bytes<?> bytes = Bytes.from(" 1234.56,-0.5}1e3 NaN ");
+        assertEquals(1234.56, TextNumbers.parseDouble(bytes), 0.0);
+        assertEquals(-0.5, TextNumbers.parseDouble(bytes), 0.0);
+        assertEquals(1e3, TextNumbers.parseDouble(bytes), 0.0);
+        assertEquals(Double.NaN, TextNumbers.parseDouble(bytes), 0.0);
+    }
+
+    @Test
+    public void writeInPlace() {
+        Bytes<?> bytes = Bytes.elasticByteBuffer();
+        bytes.append("[                        ]");
+        for (double d : new double[]{1234.5, -0.001, 12.345, 0.0, -0.0, 1e10, Double.NaN, Double.NEGATIVE_INFINITY}) {
+            TextNumbers.write(bytes, 1, 24, d);
+            assertEquals(d, TextNumbers.parseDouble(bytes, 1, 25), 0.0);
+            assertEquals(']', bytes.readUnsignedByte(25));
+        }
+        TextNumbers.write(bytes, 1, 24, -1234.56);
+        assertEquals("[-1234.56                ]", bytes.toString());
+    }
+
+    @Test
+    public void parseLong() {
+        Bytes<?> bytes = Bytes.from("1,-12345678 123456789012,0\n999999999999999999&12345678901234567890 42");
+        assertEquals(1, TextNumbers.parseLong(bytes));
+        assertEquals(-12345678, TextNumbers.parseLong(bytes));
+        assertEquals(123456789012L, TextNumbers.parseLong(bytes));
+        assertEquals(0, TextNumbers.parseLong(bytes));
+        assertEquals(999999999999999999L, TextNumbers.parseLong(bytes));
+        // too long for the fast path, parsed by Bytes.parseLong()
+        TextNumbers.parseLong(bytes);
+        assertEquals(42, TextNumbers.parseLong(bytes));
+        assertEquals(0, bytes.readRemaining());
+    }
+
+    @Test
+    public void leadingDigits() {
+        assertEquals(8, TextNumbers.leadingDigits(word("12345678")));
+        assertEquals(3, TextNumbers.leadingDigits(word("123:4567")));
+        assertEquals(0, TextNumbers.leadingDigits(word("/1234567")));
+        assertEquals(2, TextNumbers.leadingDigits(word("12\u00ff45678")));
+        assertEquals(12345678, TextNumbers.eightDigits(word("12345678")));
+    }
+
+    private static long word(String s) {
+        long word = 0;
+        for (int i = 7; i >= 0; i--)
+            word = (word << 8) | (s.charAt(i) & 0xFF);
+        return word;
+    }
+}
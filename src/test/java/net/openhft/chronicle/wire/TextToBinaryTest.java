@@ -0,0 +1,110 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TextToBinaryTest {
+    @Test
+    public void textToBinary() {
+        TextWire tw = TextWire.from("# comment\n" +
+                "name: hello\n" +
+                "int: 123\n" +
+                "neg: -12\n" +
+                "float: 1.5\n" +
+                "flag: true\n" +
+                "nothing: !!null \"\"\n" +
+                "quoted: \"a, b\\n\"\n" +
+                "notNumber: 12:30\n" +
+                "nested: {\n" +
+                "  x: 1,\n" +
+                "  y: [ 1, 2.5, three ]\n" +
+                "}\n" +
+                "typed: !Point { x: 3, y: 4 }\n" +
+                "list:\n" +
+                "  - a\n" +
+                "  - b: 2\n");
+        BinaryWire bw = new BinaryWire(Bytes.elasticByteBuffer());
+        tw.copyTo(bw);
+        assertEquals(0, tw.bytes().readRemaining());
+
+        assertEquals("hello", bw.read(() -> "name").text());
+        assertEquals(123, bw.read(() -> "int").int64());
+        assertEquals(-12, bw.read(() -> "neg").int64());
+        assertEquals(1.5, bw.read(() -> "float").float64(), 0.0);
+        assertTrue(bw.read(() -> "flag").bool());
+        assertNull(bw.read(() -> "nothing").text());
+        assertEquals("a, b\n", bw.read(() -> "quoted").text());
+        assertEquals("12:30", bw.read(() -> "notNumber").text());
+        bw.read(() -> "nested").marshallable(w -> {
+            assertEquals(1, w.read(() -> "x").int64());
+            w.read(() -> "y").sequence(v -> {
+                assertEquals(1, v.int64());
+                assertEquals(2.5, v.float64(), 0.0);
+                assertEquals("three", v.text());
+            });
+        });
+        StringBuilder type = new StringBuilder();
+        ValueIn typed = bw.read(() -> "typed").type(type);
+        assertEquals("Point", type.toString());
+        typed.marshallable(w -> {
+            assertEquals(3, w.read(() -> "x").int64());
+            assertEquals(4, w.read(() -> "y").int64());
+        });
+        bw.read(() -> "list").sequence(v -> {
+            assertEquals("a", v.text());
+            v.marshallable(w -> assertEquals(2, w.read(() -> "b").int64()));
+        });
+        assertFalse(bw.hasMore());
+    }
+
+    @Test
+    public void nineteenDigitIntegers() {
+        TextWire tw = TextWire.from("max: 9223372036854775807\n" +
+                "min: -9223372036854775808\n" +
+                "nanos: 1700000000123456789\n" +
+                "negNanos: -1700000000123456789\n" +
+                "tooBig: 9223372036854775808\n");
+        BinaryWire bw = new BinaryWire(Bytes.elasticByteBuffer());
+        tw.copyTo(bw);
+
+        assertEquals(Long.MAX_VALUE, bw.read(() -> "max").int64());
+        assertEquals(Long.MIN_VALUE, bw.read(() -> "min").int64());
+        assertEquals(1700000000123456789L, bw.read(() -> "nanos").int64());
+        assertEquals(-1700000000123456789L, bw.read(() -> "negNanos").int64());
+        assertEquals(9223372036854775808.0, bw.read(() -> "tooBig").float64(), 0.0);
+        assertFalse(bw.hasMore());
+    }
+
+    @Test
+    public void jsonToBinary() {
+        JSONWire jw = JSONWire.from("{\"a\":1,\"b\":[true,null,\"x\\\"y\"],\"c\":{\"d\":-2.5e3}}");
+        BinaryWire bw = new BinaryWire(Bytes.elasticByteBuffer());
+        jw.copyTo(bw);
+
+        assertEquals(1, bw.read(() -> "a").int64());
+        bw.read(() -> "b").sequence(v -> {
+            assertTrue(v.bool());
+            assertNull(v.text());
+            assertEquals("x\"y", v.text());
+        });
+        bw.read(() -> "c").marshallable(w -> assertEquals(-2500, w.read(() -> "d").float64(), 0.0));
+        assertFalse(bw.hasMore());
+    }
+}
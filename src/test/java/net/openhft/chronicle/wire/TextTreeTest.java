@@ -0,0 +1,60 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class TextTreeTest {
+    @Test
+    public void navigate() {
+        TextWire wire = TextWire.from("# comment\n" +
+                "name: test\n" +
+                "server:\n" +
+                "  host: localhost\n" +
+                "  port: 8080\n" +
+                "list:\n" +
+                "  - a\n" +
+                "  - b: 1\n" +
+                "    c: 2\n" +
+                "flow: { x: 1, y: \"two, three\" }\n" +
+                "seq: [ 1, 2, 3 ]\n");
+        TextTree tree = TextTree.of(wire);
+        assertEquals(TextTree.MAP, tree.kind(tree.root()));
+        assertEquals("test", tree.text(tree.find("name")));
+        assertEquals("localhost", tree.text(tree.find("server/host")));
+        assertEquals(8080, tree.int64(tree.find("/server/port")));
+        assertEquals(TextTree.LIST, tree.kind(tree.find("list")));
+        assertEquals(2, tree.childCount(tree.find("list")));
+        assertEquals("a", tree.text(tree.find("list/0")));
+        assertEquals(2, tree.int64(tree.find("list/1/c")));
+        assertEquals(1, tree.int64(tree.find("flow/x")));
+        assertEquals("two, three", tree.text(tree.find("flow/y")));
+        assertEquals(Arrays.asList(1L, 2L, 3L), tree.object(tree.find("seq")));
+        assertEquals(-1, tree.find("server/missing"));
+        assertEquals(-1, tree.find("list/2"));
+
+        Map map = (Map) tree.object(tree.root());
+        assertEquals("[name, server, list, flow, seq]", new ArrayList<>(map.keySet()).toString());
+        // the wire is left where it was.
+        assertEquals(0, wire.bytes().readPosition());
+    }
+}
@@ -87,6 +87,22 @@ public class TextWireTest {
         assertEquals(" leadingspace", wire.read().text());
     }
 
+    @Test
+    public void testEscapedText() {
+        String[] texts = {"a, b\tc\nd", "x: \"quoted\" \\ end", "it's", "price: 10€", "café", "plain text"};
+        Wire wire = createWire();
+        for (String text : texts)
+            wire.write().text(text);
+        assertFalse(wire.toString().contains("\\u"));
+        for (String text : texts)
+            assertEquals(text, wire.read().text());
+
+        Wire wire8bit = new TextWire(nativeBytes(), true);
+        wire8bit.write().text("naïve: x");
+        assertTrue(wire8bit.toString().contains("\\u00EF"));
+        assertEquals("naïve: x", wire8bit.read().text());
+    }
+
     private void expectWithSnakeYaml(String expected, @NotNull Wire wire) {
         String s = wire.toString();
         Object load = null;
@@ -0,0 +1,125 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+public class VanillaWireParserTest {
+    @Test
+    public void lookupManyNamesAndCodes() {
+        VanillaWireParser parser = new VanillaWireParser();
+        List<Consumer<ValueIn>> consumers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Consumer<ValueIn> consumer = v -> {
+            };
+            consumers.add(consumer);
+            int code = i * 37 - 2000;
+            parser.register(new WireKey() {
+                @Override
+                public CharSequence name() {
+                    return "event" + code;
+                }
+
+                @Override
+                public int code() {
+                    return code;
+                }
+            }, consumer);
+        }
+        for (int i = 0; i < 200; i++) {
+            int code = i * 37 - 2000;
+            assertSame(consumers.get(i), parser.lookup(new StringBuilder("event" + code)));
+            assertSame(consumers.get(i), parser.lookup(code));
+            Bytes<byte[]> name = Bytes.wrapForRead(("xx" + "event" + code).getBytes());
+            assertSame(consumers.get(i), parser.lookup(name, 2, (int) name.readRemaining() - 2));
+        }
+        assertNull(parser.lookup("event"));
+        assertNull(parser.lookup(1 << 20));
+        assertNull(parser.lookup(1));
+    }
+
+    @Test
+    public void parseBinaryNamesWithDefault() {
+        try (Bytes<?> bytes = Bytes.allocateElasticDirect(256)) {
+            Wire wire = new BinaryWire(bytes);
+            wire.write(() -> "price").float64(1.5)
+                    .write(() -> "unknown").int32(7)
+                    .write(() -> "qty").int32(10);
+
+            List<Object> results = new ArrayList<>();
+            WireParser parser = WireParser.wireParser();
+            parser.register(() -> "price", v -> v.float64(results::add));
+            parser.register(() -> "qty", v -> v.int32(results::add));
+            parser.setDefault(v -> results.add("default=" + v.int32()));
+            while (wire.hasMore())
+                parser.parse(wire);
+            assertEquals(Arrays.asList(1.5, "default=7", 10), results);
+        }
+    }
+
+    @Test
+    public void parseBinaryFieldNumbers() {
+        try (Bytes<?> bytes = Bytes.allocateElasticDirect(256)) {
+            Wire wire = new BinaryWire(bytes, false, true, false);
+            wire.write(Events.second).int64(2)
+                    .write(Events.first).int64(1);
+
+            List<Object> results = new ArrayList<>();
+            WireParser parser = WireParser.wireParser();
+            parser.register(Events.first, v -> results.add("first=" + v.int64()));
+            parser.register(Events.second, v -> results.add("second=" + v.int64()));
+            while (wire.hasMore())
+                parser.parse(wire);
+            assertEquals(Arrays.asList("second=2", "first=1"), results);
+        }
+    }
+
+    @Test
+    public void unhandled() {
+        try (Bytes<?> bytes = Bytes.allocateElasticDirect(256)) {
+            assertUnhandled(new TextWire(bytes));
+            bytes.clear();
+            assertUnhandled(new BinaryWire(bytes));
+        }
+    }
+
+    private static void assertUnhandled(Wire wire) {
+        wire.write(() -> "unknown").int32(7);
+        try {
+            WireParser.wireParser().parse(wire);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals("Unhandled event type unknown", expected.getMessage());
+        }
+    }
+
+    enum Events implements WireKey {
+        first, second;
+
+        @Override
+        public int code() {
+            return ordinal();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire;
+
+import net.openhft.chronicle.bytes.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WireMarshallerTest {
+    static void roundTrip(Wire wire) {
+        Order order = new Order();
+        order.id = 123456789012L;
+        order.qty = 100;
+        order.price = 12.5;
+        order.flag = true;
+        order.b = -3;
+        order.s = 1234;
+        order.c = 'X';
+        order.f = 1.5f;
+        order.symbol = "EURUSD";
+        order.note.append("note");
+        order.side = Side.SELL;
+        order.leg.price = 1.25;
+        order.leg.qty = 25;
+        order.ignored = 99;
+
+        wire.write(() -> "order").marshallable(order);
+
+        Order order2 = new Order();
+        Leg leg = order2.leg;
+        wire.read(() -> "order").marshallable(order2);
+
+        assertEquals(123456789012L, order2.id);
+        assertEquals(100, order2.qty);
+        assertEquals(12.5, order2.price, 0.0);
+        assertTrue(order2.flag);
+        assertEquals(-3, order2.b);
+        assertEquals(1234, order2.s);
+        assertEquals('X', order2.c);
+        assertEquals(1.5f, order2.f, 0.0f);
+        assertEquals("EURUSD", order2.symbol);
+        assertEquals("note", order2.note.toString());
+        assertEquals(Side.SELL, order2.side);
+        assertSame(leg, order2.leg);
+        assertEquals(1.25, order2.leg.price, 0.0);
+        assertEquals(25, order2.leg.qty);
+        assertEquals(0, order2.ignored);
+    }
+
+    @Test
+    public void binaryRoundTrip() {
+        try (Bytes<?> bytes = Bytes.allocateElasticDirect(256)) {
+            roundTrip(new BinaryWire(bytes));
+        }
+    }
+
+    @Test
+    public void textRoundTrip() {
+        try (Bytes<?> bytes = Bytes.allocateElasticDirect(256)) {
+            roundTrip(new TextWire(bytes));
+        }
+    }
+
+    @Test
+    public void fieldsInDeclaredOrderWithSuperClassFirst() {
+        try (Bytes<?> bytes = Bytes.allocateElasticDirect(256)) {
+            Wire wire = new TextWire(bytes);
+            Leg leg = new Leg();
+            leg.price = 2.5;
+            leg.qty = 3;
+            leg.legId = 7;
+            leg.writeMarshallable(wire);
+            assertEquals("price: 2.5\n" +
+                    "qty: 3\n" +
+                    "legId: 7\n", bytes.toString());
+        }
+    }
+
+    @Test
+    public void cachedPerClass() {
+        assertSame(WireMarshaller.of(Order.class), WireMarshaller.of(Order.class));
+    }
+
+    enum Side {
+        BUY, SELL
+    }
+
+    static class Quote implements Marshallable {
+        double price;
+        int qty;
+    }
+
+    static class Leg extends Quote {
+        int legId;
+    }
+
+    static class Order implements Marshallable {
+        static int counter;
+        final StringBuilder note = new StringBuilder();
+        final Leg leg = new Leg();
+        long id;
+        int qty;
+        double price;
+        boolean flag;
+        byte b;
+        short s;
+        char c;
+        float f;
+        String symbol;
+        Side side;
+        transient int ignored;
+    }
+}
@@ -3,7 +3,7 @@ package net.openhft.chronicle.wire;
 import net.openhft.chronicle.bytes.Bytes;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class WiresTest {
 
@@ -45,4 +45,43 @@ public class WiresTest {
                 "--- !!data #binary\n" +
                 "userid: peter\n", actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCopyDocument() {
+        Bytes bytes = Bytes.elasticByteBuffer();
+        Wire in = new BinaryWire(bytes);
+        in.writeDocument(true, w -> w.write(() -> "csp").text("csp://hello-world"));
+        in.writeDocument(false, w -> w.write(() -> "reply").text("Hello World"));
+
+        Bytes bytes1 = Bytes.elasticByteBuffer();
+        Bytes bytes2 = Bytes.elasticByteBuffer();
+        Wire out1 = new BinaryWire(bytes1);
+        Wire out2 = new BinaryWire(bytes2);
+
+        assertTrue(Wires.copyDocument(in, false, true, out1, out2));
+        assertTrue(Wires.copyDocument(in, false, true, out1, out2));
+        assertFalse(Wires.copyDocument(in, false, true, out1, out2));
+
+        String expected = "--- !!data #binary\n" +
+                "reply: Hello World\n";
+        assertEquals(expected, Wires.fromSizePrefixedBlobs(bytes1));
+        assertEquals(expected, Wires.fromSizePrefixedBlobs(bytes2));
+    }
+
+    @Test
+    public void testDumpRange() {
+        Bytes bytes = Bytes.elasticByteBuffer();
+        Wire out = new BinaryWire(bytes);
+        for (int i = 0; i < 5; i++) {
+            int n = i;
+            out.writeDocument(false, w -> w.write(() -> "n").int32(n));
+        }
+
+        StringBuilder sb = new StringBuilder();
+        new WireDumper().dump(bytes, bytes.readPosition(), bytes.readRemaining(), 2, 2, sb);
+        assertEquals("--- !!data #binary\n" +
+                "n: 2\n" +
+                "--- !!data #binary\n" +
+                "n: 3\n", sb.toString());
+    }
+}
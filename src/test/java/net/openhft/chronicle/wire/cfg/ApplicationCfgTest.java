@@ -0,0 +1,63 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire.cfg;
+
+import net.openhft.chronicle.core.pool.ClassAliasPool;
+import net.openhft.chronicle.wire.TextTree;
+import net.openhft.chronicle.wire.TextWire;
+import net.openhft.chronicle.wire.WireIn;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ApplicationCfgTest {
+    @Test
+    public void readSubtree() {
+        ClassAliasPool.CLASS_ALIASES.addAlias(Named.class);
+        TextTree tree = TextTree.of(TextWire.from("services: {\n" +
+                "  cache: !Named { name: cache },\n" +
+                "  nested: {\n" +
+                "    db: !Named { name: db }\n" +
+                "  }\n" +
+                "}\n" +
+                "other: !NotAClass { name: other }\n"));
+
+        // other would fail if it were decoded.
+        ApplicationCfg cfg = new ApplicationCfg();
+        cfg.readMarshallable(tree, tree.find("services"), "");
+        assertEquals(Arrays.asList("/cache", "/nested/db"), new ArrayList<>(cfg.installableMap.keySet()));
+        assertEquals("db", ((Named) cfg.installableMap.get("/nested/db")).name);
+    }
+
+    public static class Named implements MapInstallable {
+        String name;
+
+        @Override
+        public Object install(String path, Map<String, Object> assetTree) {
+            return name;
+        }
+
+        @Override
+        public void readMarshallable(@NotNull WireIn wire) throws IllegalStateException {
+            name = wire.read(() -> "name").text();
+        }
+    }
+}
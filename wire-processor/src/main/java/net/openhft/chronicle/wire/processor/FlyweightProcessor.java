@@ -0,0 +1,274 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates a {@code <Interface>Flyweight} for each interface annotated with
+ * {@code net.openhft.chronicle.wire.GenerateFlyweight}.
+ * <p>
+ * The generated class implements the accessors which net.openhft.chronicle.wire.Flyweight
+ * supports, getXxx, getVolatileXxx, setXxx, setOrderedXxx, compareAndSwapXxx and addXxx, as reads
+ * and writes of the bound bytes at an address found when it is bound.  Flyweight finds the layout
+ * and uses the generated class in place of a proxy, so no call is reflective or boxes a value.
+ */
+@SupportedAnnotationTypes(FlyweightProcessor.ANNOTATION)
+public class FlyweightProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "net.openhft.chronicle.wire.GenerateFlyweight";
+
+    private Elements elements;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        elements = processingEnv.getElementUtils();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.INTERFACE) {
+                    error("@GenerateFlyweight only applies to interfaces", element);
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (UnsupportedElementException e) {
+                    error(e.getMessage(), e.element);
+                } catch (IOException e) {
+                    error("Unable to write the flyweight, " + e, element);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        if (!type.getTypeParameters().isEmpty())
+            throw new UnsupportedElementException("Generic interfaces are not supported", type);
+
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String flyweight = WireTypes.generatedName(type, "Flyweight");
+        String typeName = type.getQualifiedName().toString();
+
+        // property name to type, in the same order as Flyweight.
+        Map<String, TypeKind> properties = new TreeMap<>();
+        StringBuilder body = new StringBuilder();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getEnclosingElement().getKind() != ElementKind.INTERFACE
+                    || !method.getModifiers().contains(Modifier.ABSTRACT))
+                continue;
+            generateMethod(method, properties, body);
+        }
+
+        StringBuilder fields = new StringBuilder();
+        StringBuilder bind = new StringBuilder();
+        for (String name : properties.keySet()) {
+            String index = constantName(name) + "_INDEX";
+            fields.append("    private static final int ").append(index).append(" = FLYWEIGHT.indexOf(\"")
+                    .append(name).append("\");\n");
+            bind.append("        this.").append(name).append("Address = offset + layout[").append(index).append("];\n");
+        }
+        fields.append("\n    private BytesStore bytes;\n")
+                .append("    private long offset;\n")
+                .append("    private long length;\n")
+                .append("    private long[] layout;\n");
+        for (String name : properties.keySet())
+            fields.append("    private long ").append(name).append("Address;\n");
+
+        try (Writer out = processingEnv.getFiler()
+                .createSourceFile(packageName.isEmpty() ? flyweight : packageName + "." + flyweight, type)
+                .openWriter()) {
+            if (!packageName.isEmpty())
+                out.append("package ").append(packageName).append(";\n\n");
+            out.append("import net.openhft.chronicle.bytes.Byteable;\n")
+                    .append("import net.openhft.chronicle.bytes.BytesStore;\n")
+                    .append("import net.openhft.chronicle.wire.Flyweight;\n\n")
+                    .append("/**\n * Generated by ").append(FlyweightProcessor.class.getName())
+                    .append(" for ").append(typeName).append(", do not edit.\n */\n")
+                    .append("public final class ").append(flyweight).append(" implements ").append(typeName)
+                    .append(", Byteable {\n")
+                    .append("    private static final Flyweight<").append(typeName).append("> FLYWEIGHT = Flyweight.of(")
+                    .append(typeName).append(".class);\n")
+                    .append(fields)
+                    .append("\n    @Override\n    public void bytesStore(BytesStore bytes, long offset, long length) {\n")
+                    .append("        long[] layout = FLYWEIGHT.layout(bytes, offset, length);\n")
+                    .append(bind)
+                    .append("        this.bytes = bytes;\n")
+                    .append("        this.offset = offset;\n")
+                    .append("        this.length = length;\n")
+                    .append("        this.layout = layout;\n    }\n\n")
+                    .append("    @Override\n    public long maxSize() {\n        return length;\n    }\n")
+                    .append(body)
+                    .append("\n    @Override\n    public String toString() {\n")
+                    .append("        return FLYWEIGHT.toString(bytes, offset, layout);\n    }\n")
+                    .append("}\n");
+        }
+    }
+
+    private static String constantName(String name) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (Character.isUpperCase(ch) && i > 0)
+                sb.append('_');
+            sb.append(Character.toUpperCase(ch));
+        }
+        return sb.toString();
+    }
+
+    private void generateMethod(ExecutableElement method, Map<String, TypeKind> properties, StringBuilder body) {
+        String methodName = method.getSimpleName().toString();
+        List<? extends VariableElement> params = method.getParameters();
+        Kind kind = Kind.of(methodName, params.size());
+        if (kind == null)
+            throw new UnsupportedElementException("Unsupported method " + methodName, method);
+        String name = methodName.substring(kind.prefix.length());
+        name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+
+        TypeKind type = kind == Kind.GET || kind == Kind.GET_VOLATILE
+                ? method.getReturnType().getKind()
+                : params.get(0).asType().getKind();
+        if (type != TypeKind.INT && type != TypeKind.LONG && type != TypeKind.DOUBLE)
+            throw new UnsupportedElementException(methodName + " must use int, long or double", method);
+        TypeKind returns = method.getReturnType().getKind();
+        switch (kind) {
+            case SET:
+            case SET_ORDERED:
+                if (returns != TypeKind.VOID)
+                    throw new UnsupportedElementException(methodName + " must return void", method);
+                break;
+            case CAS:
+                if (type == TypeKind.DOUBLE)
+                    throw new UnsupportedElementException(methodName + " compare and swap of a double isn't supported", method);
+                if (params.get(1).asType().getKind() != type || returns != TypeKind.BOOLEAN)
+                    throw new UnsupportedElementException(methodName + " must be boolean compareAndSwapXxx(expected, value)", method);
+                break;
+            case ADD:
+                if (returns != type)
+                    throw new UnsupportedElementException(methodName + " must return the new value", method);
+                break;
+        }
+        TypeKind previous = properties.put(name, type);
+        if (previous != null && previous != type)
+            throw new UnsupportedElementException(methodName + " doesn't match the type of " + name + ", " + previous, method);
+
+        String javaType = type.name().toLowerCase();
+        body.append("\n    @Override\n    public ").append(method.getReturnType()).append(" ").append(methodName).append("(");
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0)
+                body.append(", ");
+            body.append(javaType).append(" ").append(params.get(i).getSimpleName());
+        }
+        body.append(") {\n");
+        String address = name + "Address";
+        String[] args = new String[params.size()];
+        for (int i = 0; i < args.length; i++)
+            args[i] = params.get(i).getSimpleName().toString();
+        if (type == TypeKind.DOUBLE)
+            body.append(doubleAccess(kind, address, args));
+        else
+            body.append(access(kind, type == TypeKind.INT ? "Int" : "Long", address, args));
+        body.append("    }\n");
+    }
+
+    private static String access(Kind kind, String size, String address, String[] args) {
+        switch (kind) {
+            case GET:
+                return "        return bytes.read" + size + "(" + address + ");\n";
+            case GET_VOLATILE:
+                return "        return bytes.readVolatile" + size + "(" + address + ");\n";
+            case SET:
+                return "        bytes.write" + size + "(" + address + ", " + args[0] + ");\n";
+            case SET_ORDERED:
+                return "        bytes.writeOrdered" + size + "(" + address + ", " + args[0] + ");\n";
+            case CAS:
+                return "        return bytes.compareAndSwap" + size + "(" + address + ", " + args[0] + ", " + args[1] + ");\n";
+            default:
+                return "        return bytes.addAndGet" + size + "(" + address + ", " + args[0] + ");\n";
+        }
+    }
+
+    private static String doubleAccess(Kind kind, String address, String[] args) {
+        switch (kind) {
+            case GET:
+                return "        return Double.longBitsToDouble(bytes.readLong(" + address + "));\n";
+            case GET_VOLATILE:
+                return "        return Double.longBitsToDouble(bytes.readVolatileLong(" + address + "));\n";
+            case SET:
+                return "        bytes.writeLong(" + address + ", Double.doubleToRawLongBits(" + args[0] + "));\n";
+            case SET_ORDERED:
+                return "        bytes.writeOrderedLong(" + address + ", Double.doubleToRawLongBits(" + args[0] + "));\n";
+            default:
+                return "        for (; ; ) {\n"
+                        + "            long bits = bytes.readVolatileLong(" + address + ");\n"
+                        + "            double value = Double.longBitsToDouble(bits) + " + args[0] + ";\n"
+                        + "            if (bytes.compareAndSwapLong(" + address + ", bits, Double.doubleToRawLongBits(value)))\n"
+                        + "                return value;\n"
+                        + "        }\n";
+        }
+    }
+
+    /**
+     * The accessor prefixes, in the order Flyweight matches them.
+     */
+    enum Kind {
+        GET_VOLATILE("getVolatile", 0),
+        GET("get", 0),
+        SET_ORDERED("setOrdered", 1),
+        SET("set", 1),
+        CAS("compareAndSwap", 2),
+        ADD("add", 1);
+
+        final String prefix;
+        final int args;
+
+        Kind(String prefix, int args) {
+            this.prefix = prefix;
+            this.args = args;
+        }
+
+        static Kind of(String name, int args) {
+            for (Kind kind : values()) {
+                if (name.startsWith(kind.prefix) && name.length() > kind.prefix.length()
+                        && Character.isUpperCase(name.charAt(kind.prefix.length()))
+                        && args == kind.args)
+                    return kind;
+            }
+            return null;
+        }
+    }
+}
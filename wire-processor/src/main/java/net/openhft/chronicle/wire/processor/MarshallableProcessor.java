@@ -0,0 +1,280 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Class>Marshaller} for each class annotated with
+ * {@code net.openhft.chronicle.wire.GenerateMarshallable}.
+ * <p>
+ * The generated code writes each field with a WireKey from an enum whose code is its ordinal, and
+ * reads it with the ValueIn method which returns the value, so it has no lambdas to allocate or
+ * keep in transient fields.  Nested Marshallables, StringBuilders, Bytes and collections are read
+ * into the existing instance when there is one.  Collections are written and read with static
+ * methods passed as method references, which don't capture anything.
+ */
+@SupportedAnnotationTypes(MarshallableProcessor.ANNOTATION)
+public class MarshallableProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "net.openhft.chronicle.wire.GenerateMarshallable";
+
+    private Elements elements;
+    private Types types;
+    private WireTypes wireTypes;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        wireTypes = new WireTypes(elements, types);
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    error("@GenerateMarshallable only applies to classes", element);
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (UnsupportedElementException e) {
+                    error(e.getMessage(), e.element);
+                } catch (IOException e) {
+                    error("Unable to write the marshaller, " + e, element);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String marshaller = WireTypes.generatedName(type, "Marshaller");
+        String typeName = type.getQualifiedName().toString();
+
+        List<VariableElement> fields = ElementFilter.fieldsIn(type.getEnclosedElements());
+        StringBuilder keys = new StringBuilder();
+        StringBuilder write = new StringBuilder();
+        StringBuilder read = new StringBuilder();
+        StringBuilder helpers = new StringBuilder();
+        for (VariableElement field : fields) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT))
+                continue;
+            String name = field.getSimpleName().toString();
+            if (keys.length() > 0)
+                keys.append(", ");
+            keys.append(name);
+            generateField(type, marshaller, field, name, write, read, helpers);
+        }
+
+        try (Writer out = processingEnv.getFiler()
+                .createSourceFile(packageName.isEmpty() ? marshaller : packageName + "." + marshaller, type)
+                .openWriter()) {
+            if (!packageName.isEmpty())
+                out.append("package ").append(packageName).append(";\n\n");
+            out.append("import net.openhft.chronicle.wire.ValueIn;\n")
+                    .append("import net.openhft.chronicle.wire.ValueOut;\n")
+                    .append("import net.openhft.chronicle.wire.WireIn;\n")
+                    .append("import net.openhft.chronicle.wire.WireKey;\n")
+                    .append("import net.openhft.chronicle.wire.WireOut;\n\n")
+                    .append("/**\n * Generated by ").append(MarshallableProcessor.class.getName())
+                    .append(" for ").append(typeName).append(", do not edit.\n */\n")
+                    .append("public final class ").append(marshaller).append(" {\n")
+                    .append("    private ").append(marshaller).append("() {\n    }\n\n")
+                    .append("    public static void writeMarshallable(").append(typeName).append(" o, WireOut wire) {\n")
+                    .append(write)
+                    .append("    }\n\n")
+                    .append("    public static void readMarshallable(").append(typeName).append(" o, WireIn wire) {\n")
+                    .append(read)
+                    .append("    }\n")
+                    .append(helpers)
+                    .append("\n    enum Fields implements WireKey {\n        ").append(keys).append(";\n\n")
+                    .append("        @Override\n        public int code() {\n            return ordinal();\n        }\n    }\n")
+                    .append("}\n");
+        }
+    }
+
+    private void generateField(TypeElement type, String marshaller, VariableElement field, String name,
+                               StringBuilder write, StringBuilder read, StringBuilder helpers) {
+        TypeMirror t = field.asType();
+        String key = "Fields." + name;
+        String get = getter(type, field, name);
+
+        String writeScalar = wireTypes.writeScalar(t, get);
+        if (writeScalar != null) {
+            write.append("        wire.write(").append(key).append(")").append(writeScalar).append(";\n");
+            String readScalar = wireTypes.readScalar(t, "wire.read(" + key + ")");
+            if (readScalar != null) {
+                read.append("        ").append(setter(type, field, name, readScalar)).append(";\n");
+                return;
+            }
+        }
+
+        // read into the existing instance, creating one if needed.
+        String typeName = t.toString();
+        String create;
+        String readInto;
+        String cap = WireTypes.capitalize(name);
+        if (isCollection(t)) {
+            TypeMirror element = elementType(field, t);
+            write.append("        wire.write(").append(key).append(").sequence(").append(get)
+                    .append(", ").append(marshaller).append("::write").append(cap).append(");\n");
+            create = "new " + collectionImplementation(t) + "<>()";
+            readInto = ".sequence(v, " + marshaller + "::read" + cap + ")";
+            generateCollectionHelpers(field, t, element, cap, helpers);
+        } else if (wireTypes.isType(t, StringBuilder.class.getName())) {
+            create = "new StringBuilder()";
+            readInto = ".textTo(v)";
+        } else if (wireTypes.isType(t, WireTypes.BYTES)) {
+            create = WireTypes.BYTES + ".elasticByteBuffer()";
+            readInto = ".textTo(v)";
+        } else if (wireTypes.isAssignable(t, WireTypes.READ_MARSHALLABLE)) {
+            create = "new " + types.erasure(t) + "()";
+            readInto = ".marshallable(v)";
+        } else {
+            throw new UnsupportedElementException("Unsupported field type " + t, field);
+        }
+        if (writeScalar == null && !isCollection(t))
+            throw new UnsupportedElementException("Unable to write a field of type " + t, field);
+
+        read.append("        {\n")
+                .append("            ").append(typeName).append(" v = ").append(get).append(";\n");
+        if (field.getModifiers().contains(Modifier.FINAL)) {
+            read.append("            if (v == null)\n")
+                    .append("                throw new IllegalStateException(\"").append(name).append(" is null\");\n");
+        } else {
+            read.append("            if (v == null) {\n")
+                    .append("                v = ").append(create).append(";\n")
+                    .append("                ").append(setter(type, field, name, "v")).append(";\n");
+            if (isCollection(t))
+                read.append("            } else {\n                v.clear();\n");
+            read.append("            }\n");
+        }
+        if (isCollection(t) && field.getModifiers().contains(Modifier.FINAL))
+            read.append("            v.clear();\n");
+        read.append("            wire.read(").append(key).append(")").append(readInto).append(";\n")
+                .append("        }\n");
+    }
+
+    private void generateCollectionHelpers(VariableElement field, TypeMirror t, TypeMirror element, String cap,
+                                           StringBuilder helpers) {
+        String writeElement = wireTypes.writeScalar(element, "e");
+        String readElement = wireTypes.readScalar(element, "in");
+        String elementName = element.toString();
+        if (writeElement == null
+                || wireTypes.isType(element, StringBuilder.class.getName())
+                || wireTypes.isType(element, WireTypes.BYTES))
+            throw new UnsupportedElementException("Unsupported collection element type " + element, field);
+
+        helpers.append("\n    private static void write").append(cap).append("(").append(t).append(" c, ValueOut out) {\n")
+                .append("        if (c == null)\n            return;\n");
+        if (wireTypes.isAssignable(t, List.class.getName())) {
+            helpers.append("        for (int i = 0, n = c.size(); i < n; i++) {\n")
+                    .append("            ").append(elementName).append(" e = c.get(i);\n");
+        } else {
+            helpers.append("        for (").append(elementName).append(" e : c) {\n");
+        }
+        helpers.append("            out").append(writeElement).append(";\n")
+                .append("        }\n    }\n");
+
+        helpers.append("\n    private static void read").append(cap).append("(").append(t).append(" c, ValueIn in) {\n")
+                .append("        while (in.hasNextSequenceItem()) {\n");
+        if (readElement != null) {
+            helpers.append("            c.add(").append(readElement).append(");\n");
+        } else {
+            // a nested Marshallable
+            helpers.append("            ").append(elementName).append(" e = new ").append(types.erasure(element)).append("();\n")
+                    .append("            in.marshallable(e);\n")
+                    .append("            c.add(e);\n");
+        }
+        helpers.append("        }\n    }\n");
+    }
+
+    private boolean isCollection(TypeMirror t) {
+        return t.getKind() == TypeKind.DECLARED && wireTypes.isAssignable(t, "java.util.Collection");
+    }
+
+    private TypeMirror elementType(VariableElement field, TypeMirror t) {
+        List<? extends TypeMirror> args = ((DeclaredType) t).getTypeArguments();
+        if (args.size() != 1 || args.get(0).getKind() != TypeKind.DECLARED)
+            throw new UnsupportedElementException("Collections need an element type e.g. List<String>", field);
+        return args.get(0);
+    }
+
+    private String collectionImplementation(TypeMirror t) {
+        TypeElement element = (TypeElement) types.asElement(t);
+        if (element.getKind() == ElementKind.CLASS && !element.getModifiers().contains(Modifier.ABSTRACT))
+            return types.erasure(t).toString();
+        if (wireTypes.isAssignable(t, "java.util.List"))
+            return "java.util.ArrayList";
+        if (wireTypes.isAssignable(t, "java.util.SortedSet"))
+            return "java.util.TreeSet";
+        if (wireTypes.isAssignable(t, "java.util.Set"))
+            return "java.util.LinkedHashSet";
+        if (wireTypes.isAssignable(t, "java.util.Queue"))
+            return "java.util.ArrayDeque";
+        return "java.util.ArrayList";
+    }
+
+    private String getter(TypeElement type, VariableElement field, String name) {
+        if (!field.getModifiers().contains(Modifier.PRIVATE))
+            return "o." + name;
+        String cap = WireTypes.capitalize(name);
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            String methodName = method.getSimpleName().toString();
+            if (method.getParameters().isEmpty() && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && (methodName.equals("get" + cap) || methodName.equals("is" + cap)))
+                return "o." + methodName + "()";
+        }
+        throw new UnsupportedElementException("Private field " + name + " needs a get" + cap + "() method", field);
+    }
+
+    private String setter(TypeElement type, VariableElement field, String name, String value) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (!modifiers.contains(Modifier.PRIVATE) && !modifiers.contains(Modifier.FINAL))
+            return "o." + name + " = " + value;
+        String cap = WireTypes.capitalize(name);
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals("set" + cap) && method.getParameters().size() == 1
+                    && !method.getModifiers().contains(Modifier.PRIVATE))
+                return "o.set" + cap + "(" + value + ")";
+        }
+        throw new UnsupportedElementException("Field " + name + " needs to be non final or have a set" + cap + " method", field);
+    }
+}
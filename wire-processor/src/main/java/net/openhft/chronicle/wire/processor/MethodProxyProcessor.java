@@ -0,0 +1,333 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates a {@code <Interface>Writer} and a {@code <Interface>Reader} for each interface
+ * annotated with {@code net.openhft.chronicle.wire.GenerateMethodProxy}.
+ * <p>
+ * The writer implements the interface by writing a document per call, with the method name as
+ * the event name and the arguments as its value, or a sequence of them if there is more than one.
+ * The arguments are held in fields while a WriteMarshallable created once per method writes
+ * them, so a call doesn't allocate.
+ * <p>
+ * The reader looks up each event in a WireParser, without copying the name where the wire
+ * supports it, and dispatches it to a method which reads the arguments into fields, reusing any
+ * Marshallable, StringBuilder or Bytes from the previous call, and calls the target.
+ */
+@SupportedAnnotationTypes(MethodProxyProcessor.ANNOTATION)
+public class MethodProxyProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "net.openhft.chronicle.wire.GenerateMethodProxy";
+    private static final String OBJECT_UTILS = "net.openhft.chronicle.core.util.ObjectUtils";
+
+    private Elements elements;
+    private Types types;
+    private WireTypes wireTypes;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        wireTypes = new WireTypes(elements, types);
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.INTERFACE) {
+                    error("@GenerateMethodProxy only applies to interfaces", element);
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (UnsupportedElementException e) {
+                    error(e.getMessage(), e.element);
+                } catch (IOException e) {
+                    error("Unable to write the method proxies, " + e, element);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void error(String message, Element element) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        if (!type.getTypeParameters().isEmpty())
+            throw new UnsupportedElementException("Generic interfaces are not supported", type);
+
+        List<ExecutableElement> methods = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (method.getEnclosingElement().getKind() != ElementKind.INTERFACE
+                    || !method.getModifiers().contains(Modifier.ABSTRACT))
+                continue;
+            if (method.getReturnType().getKind() != TypeKind.VOID)
+                throw new UnsupportedElementException("Methods must return void", method);
+            if (!method.getTypeParameters().isEmpty())
+                throw new UnsupportedElementException("Generic methods are not supported", method);
+            if (!names.add(method.getSimpleName().toString()))
+                throw new UnsupportedElementException("Overloaded methods are not supported as the name is the event", method);
+            methods.add(method);
+        }
+
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        generateWriter(type, packageName, methods);
+        generateReader(type, packageName, methods);
+    }
+
+    private void generateWriter(TypeElement type, String packageName, List<ExecutableElement> methods) throws IOException {
+        String writer = WireTypes.generatedName(type, "Writer");
+        StringBuilder fields = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        for (ExecutableElement method : methods) {
+            String name = method.getSimpleName().toString();
+            String cap = WireTypes.capitalize(name);
+            List<? extends VariableElement> params = method.getParameters();
+            fields.append("    private final WriteMarshallable ").append(name).append("Writer = this::write").append(cap).append(";\n");
+            for (int i = 0; i < params.size(); i++)
+                fields.append("    private ").append(params.get(i).asType()).append(" ").append(arg(name, i)).append(";\n");
+
+            body.append("\n    @Override\n    public void ").append(name).append("(");
+            for (int i = 0; i < params.size(); i++) {
+                if (i > 0)
+                    body.append(", ");
+                body.append(params.get(i).asType()).append(" ").append(params.get(i).getSimpleName());
+            }
+            body.append(") {\n");
+            boolean references = false;
+            for (int i = 0; i < params.size(); i++) {
+                body.append("        this.").append(arg(name, i)).append(" = ").append(params.get(i).getSimpleName()).append(";\n");
+                references |= !params.get(i).asType().getKind().isPrimitive();
+            }
+            if (references) {
+                body.append("        try {\n")
+                        .append("            wire.writeDocument(false, ").append(name).append("Writer);\n")
+                        .append("        } finally {\n");
+                for (int i = 0; i < params.size(); i++)
+                    if (!params.get(i).asType().getKind().isPrimitive())
+                        body.append("            this.").append(arg(name, i)).append(" = null;\n");
+                body.append("        }\n");
+            } else {
+                body.append("        wire.writeDocument(false, ").append(name).append("Writer);\n");
+            }
+            body.append("    }\n");
+
+            body.append("\n    private void write").append(cap).append("(WireOut wire) {\n")
+                    .append("        wire.writeEventName(Events.").append(name).append(")");
+            if (params.isEmpty()) {
+                body.append(".text(\"\");\n    }\n");
+            } else if (params.size() == 1) {
+                body.append(writeValue(params.get(0), "this." + arg(name, 0))).append(";\n    }\n");
+            } else {
+                body.append(".sequence(this, ").append(writer).append("::write").append(cap).append("Args);\n    }\n");
+                body.append("\n    private static void write").append(cap).append("Args(").append(writer).append(" w, ValueOut out) {\n");
+                for (int i = 0; i < params.size(); i++)
+                    body.append("        out").append(writeValue(params.get(i), "w." + arg(name, i))).append(";\n");
+                body.append("    }\n");
+            }
+        }
+
+        String typeName = type.getQualifiedName().toString();
+        try (Writer out = processingEnv.getFiler()
+                .createSourceFile(qualified(packageName, writer), type).openWriter()) {
+            if (!packageName.isEmpty())
+                out.append("package ").append(packageName).append(";\n\n");
+            out.append("import net.openhft.chronicle.wire.ValueOut;\n")
+                    .append("import net.openhft.chronicle.wire.WireKey;\n")
+                    .append("import net.openhft.chronicle.wire.WireOut;\n")
+                    .append("import net.openhft.chronicle.wire.WriteMarshallable;\n\n")
+                    .append("/**\n * Generated by ").append(MethodProxyProcessor.class.getName())
+                    .append(" for ").append(typeName).append(", do not edit.\n */\n")
+                    .append("public final class ").append(writer).append(" implements ").append(typeName).append(" {\n")
+                    .append("    private final WireOut wire;\n")
+                    .append(fields)
+                    .append("\n    public ").append(writer).append("(WireOut wire) {\n")
+                    .append("        this.wire = wire;\n    }\n")
+                    .append(body)
+                    .append(events(methods))
+                    .append("}\n");
+        }
+    }
+
+    private void generateReader(TypeElement type, String packageName, List<ExecutableElement> methods) throws IOException {
+        String reader = WireTypes.generatedName(type, "Reader");
+        StringBuilder fields = new StringBuilder();
+        StringBuilder register = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        for (ExecutableElement method : methods) {
+            String name = method.getSimpleName().toString();
+            String cap = WireTypes.capitalize(name);
+            List<? extends VariableElement> params = method.getParameters();
+            for (int i = 0; i < params.size(); i++)
+                fields.append("    private ").append(params.get(i).asType()).append(" ").append(arg(name, i)).append(";\n");
+            register.append("        parser.register(Events.").append(name).append(", this::").append(name).append(");\n");
+
+            body.append("\n    private void ").append(name).append("(ValueIn in) {\n");
+            if (params.isEmpty()) {
+                body.append("        in.textTo(text);\n");
+            } else if (params.size() == 1) {
+                readValue(body, params.get(0), "this." + arg(name, 0), "        ");
+            } else {
+                body.append("        in.sequence(this, ").append(reader).append("::read").append(cap).append("Args);\n");
+            }
+            body.append("        target.").append(name).append("(");
+            for (int i = 0; i < params.size(); i++) {
+                if (i > 0)
+                    body.append(", ");
+                body.append("this.").append(arg(name, i));
+            }
+            body.append(");\n    }\n");
+
+            if (params.size() > 1) {
+                body.append("\n    private static void read").append(cap).append("Args(").append(reader).append(" r, ValueIn in) {\n");
+                for (int i = 0; i < params.size(); i++)
+                    readValue(body, params.get(i), "r." + arg(name, i), "        ");
+                body.append("    }\n");
+            }
+        }
+
+        String typeName = type.getQualifiedName().toString();
+        try (Writer out = processingEnv.getFiler()
+                .createSourceFile(qualified(packageName, reader), type).openWriter()) {
+            if (!packageName.isEmpty())
+                out.append("package ").append(packageName).append(";\n\n");
+            out.append("import net.openhft.chronicle.wire.ReadMarshallable;\n")
+                    .append("import net.openhft.chronicle.wire.ValueIn;\n")
+                    .append("import net.openhft.chronicle.wire.WireIn;\n")
+                    .append("import net.openhft.chronicle.wire.WireKey;\n")
+                    .append("import net.openhft.chronicle.wire.WireParser;\n\n")
+                    .append("import java.util.function.Consumer;\n\n")
+                    .append("/**\n * Generated by ").append(MethodProxyProcessor.class.getName())
+                    .append(" for ").append(typeName).append(", do not edit.\n")
+                    .append(" * <p>\n * Arguments are reused between calls so the target shouldn't retain them.\n */\n")
+                    .append("public final class ").append(reader).append(" implements ReadMarshallable {\n")
+                    .append("    private final WireParser parser = WireParser.wireParser();\n")
+                    .append("    private final StringBuilder text = new StringBuilder();\n")
+                    .append("    private final ").append(typeName).append(" target;\n")
+                    .append(fields)
+                    .append("\n    public ").append(reader).append("(").append(typeName).append(" target) {\n")
+                    .append("        this.target = target;\n")
+                    .append(register)
+                    .append("    }\n\n")
+                    .append("    /**\n     * Read the next document, calling the target for each event in it.\n")
+                    .append("     *\n     * @return true if a document was read.\n     */\n")
+                    .append("    public boolean readOne(WireIn wire) {\n")
+                    .append("        return wire.readDocument(null, this);\n    }\n\n")
+                    .append("    @Override\n    public void readMarshallable(WireIn wire) {\n")
+                    .append("        while (wire.hasMore()) {\n")
+                    .append("            Consumer<ValueIn> handler = wire.readEventHandler(parser);\n")
+                    .append("            // not an event of this interface, skip the rest of the document.\n")
+                    .append("            if (handler == null)\n")
+                    .append("                return;\n")
+                    .append("            handler.accept(wire.getValueIn());\n")
+                    .append("        }\n    }\n")
+                    .append(body)
+                    .append(events(methods))
+                    .append("}\n");
+        }
+    }
+
+    private static String qualified(String packageName, String name) {
+        return packageName.isEmpty() ? name : packageName + "." + name;
+    }
+
+    private static String arg(String method, int i) {
+        return method + "Arg" + i;
+    }
+
+    private static String events(List<ExecutableElement> methods) {
+        StringBuilder sb = new StringBuilder("\n    enum Events implements WireKey {\n        ");
+        for (int i = 0; i < methods.size(); i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(methods.get(i).getSimpleName());
+        }
+        return sb.append(";\n\n")
+                .append("        @Override\n        public int code() {\n            return ordinal();\n        }\n    }\n")
+                .toString();
+    }
+
+    private boolean isConcrete(TypeMirror t) {
+        Element element = types.asElement(t);
+        return element != null && element.getKind() == ElementKind.CLASS
+                && !element.getModifiers().contains(Modifier.ABSTRACT);
+    }
+
+    private boolean readsInPlace(TypeMirror t) {
+        return wireTypes.isType(t, StringBuilder.class.getName())
+                || wireTypes.isType(t, WireTypes.BYTES)
+                || (isConcrete(t) && wireTypes.isAssignable(t, WireTypes.READ_MARSHALLABLE)
+                && wireTypes.isAssignable(t, WireTypes.WRITE_MARSHALLABLE));
+    }
+
+    private String writeValue(VariableElement param, String value) {
+        TypeMirror t = param.asType();
+        if (t.getKind() == TypeKind.TYPEVAR)
+            throw new UnsupportedElementException("Type variables are not supported", param);
+        if (wireTypes.readScalar(t, "in") != null || readsInPlace(t))
+            return wireTypes.writeScalar(t, value);
+        return ".object(" + value + ")";
+    }
+
+    private void readValue(StringBuilder body, VariableElement param, String field, String indent) {
+        TypeMirror t = param.asType();
+        String scalar = wireTypes.readScalar(t, "in");
+        if (scalar != null) {
+            body.append(indent).append(field).append(" = ").append(scalar).append(";\n");
+            return;
+        }
+        if (!readsInPlace(t)) {
+            body.append(indent).append(field).append(" = in.object(").append(field).append(", ")
+                    .append(types.erasure(t)).append(".class);\n");
+            return;
+        }
+        String create;
+        String readInto;
+        if (wireTypes.isType(t, StringBuilder.class.getName())) {
+            create = "new StringBuilder()";
+            readInto = "textTo";
+        } else if (wireTypes.isType(t, WireTypes.BYTES)) {
+            create = WireTypes.BYTES + ".elasticByteBuffer()";
+            readInto = "textTo";
+        } else {
+            create = OBJECT_UTILS + ".newInstance(" + types.erasure(t) + ".class)";
+            readInto = "marshallable";
+        }
+        body.append(indent).append("if (").append(field).append(" == null)\n")
+                .append(indent).append("    ").append(field).append(" = ").append(create).append(";\n")
+                .append(indent).append("in.").append(readInto).append("(").append(field).append(");\n");
+    }
+}
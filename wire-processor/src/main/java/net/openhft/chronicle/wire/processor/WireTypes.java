@@ -0,0 +1,152 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire.processor;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * The ValueOut and ValueIn calls used to write and read each type supported in generated code.
+ */
+final class WireTypes {
+    static final String WIRE = "net.openhft.chronicle.wire.";
+    static final String READ_MARSHALLABLE = WIRE + "ReadMarshallable";
+    static final String WRITE_MARSHALLABLE = WIRE + "WriteMarshallable";
+    static final String BYTES = "net.openhft.chronicle.bytes.Bytes";
+
+    private final Elements elements;
+    private final Types types;
+
+    WireTypes(Elements elements, Types types) {
+        this.elements = elements;
+        this.types = types;
+    }
+
+    /**
+     * @return the ValueOut call to write value, or null if it isn't a supported type.
+     */
+    String writeScalar(TypeMirror t, String value) {
+        switch (t.getKind()) {
+            case BOOLEAN:
+                return ".bool(" + value + ")";
+            case BYTE:
+                return ".int8(" + value + ")";
+            case SHORT:
+                return ".int16(" + value + ")";
+            case CHAR:
+                return ".uint16checked(" + value + ")";
+            case INT:
+                return ".int32(" + value + ")";
+            case LONG:
+                return ".int64(" + value + ")";
+            case FLOAT:
+                return ".float32(" + value + ")";
+            case DOUBLE:
+                return ".float64(" + value + ")";
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+        if (boxed(t) != null)
+            return ".object(" + value + ")";
+        if (isType(t, String.class.getName()) || isType(t, StringBuilder.class.getName()) || isType(t, BYTES))
+            return ".text(" + value + ")";
+        if (isEnum(t))
+            return ".asEnum(" + value + ")";
+        if (isAssignable(t, WRITE_MARSHALLABLE))
+            return ".marshallable(" + value + ")";
+        return null;
+    }
+
+    /**
+     * @return an expression reading a value of type t from in, or null if it has to be read into an instance.
+     */
+    String readScalar(TypeMirror t, String in) {
+        switch (t.getKind()) {
+            case BOOLEAN:
+                return in + ".bool()";
+            case BYTE:
+                return in + ".int8()";
+            case SHORT:
+                return in + ".int16()";
+            case CHAR:
+                return "(char) " + in + ".uint16()";
+            case INT:
+                return in + ".int32()";
+            case LONG:
+                return in + ".int64()";
+            case FLOAT:
+                return in + ".float32()";
+            case DOUBLE:
+                return in + ".float64()";
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+        String boxed = boxed(t);
+        if (boxed != null)
+            return in + ".object(" + boxed + ".class)";
+        if (isType(t, String.class.getName()))
+            return in + ".text()";
+        if (isEnum(t))
+            return in + ".asEnum(" + types.erasure(t) + ".class)";
+        return null;
+    }
+
+    String boxed(TypeMirror t) {
+        try {
+            TypeKind kind = types.unboxedType(t).getKind();
+            return kind.isPrimitive() ? types.erasure(t).toString() : null;
+        } catch (IllegalArgumentException notBoxed) {
+            return null;
+        }
+    }
+
+    boolean isEnum(TypeMirror t) {
+        Element element = types.asElement(t);
+        return element != null && element.getKind() == ElementKind.ENUM;
+    }
+
+    boolean isType(TypeMirror t, String className) {
+        return types.erasure(t).toString().equals(className);
+    }
+
+    boolean isAssignable(TypeMirror t, String className) {
+        TypeElement element = elements.getTypeElement(className);
+        return element != null && types.isAssignable(types.erasure(t), types.erasure(element.asType()));
+    }
+
+    /**
+     * @return the simple name of the class generated for type, including the names of any enclosing types.
+     */
+    static String generatedName(TypeElement type, String suffix) {
+        StringBuilder sb = new StringBuilder(type.getSimpleName());
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement())
+            sb.insert(0, e.getSimpleName() + "_");
+        return sb.append(suffix).toString();
+    }
+
+    static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire.processor;
+
+import net.openhft.chronicle.bytes.Byteable;
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.bytes.NativeBytes;
+import net.openhft.chronicle.wire.BinaryWire;
+import net.openhft.chronicle.wire.Flyweight;
+import net.openhft.chronicle.wire.GenerateFlyweight;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * The interface is compiled with the processor by the test compile, so Flyweight uses the
+ * generated class rather than a proxy.
+ */
+public class FlyweightProcessorTest {
+    private static long sumOf(Order order, NativeBytes bytes, long[] starts) {
+        long sum = 0;
+        for (int i = 0; i < starts.length - 1; i++) {
+            ((Byteable) order).bytesStore(bytes, starts[i], starts[i + 1] - starts[i]);
+            order.setOrderedState(i);
+            order.addQty(1);
+            order.addPrice(0.5);
+            sum += order.getQty() + order.getVolatileState() + (long) order.getPrice();
+        }
+        return sum;
+    }
+
+    @Test
+    public void generatedAccessors() {
+        Flyweight<Order> flyweight = Flyweight.of(Order.class);
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(4096)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            Order order = flyweight.write(wire, null);
+            assertTrue(order instanceof FlyweightProcessorTest_OrderFlyweight);
+
+            order.setPrice(100.25);
+            order.setQty(10);
+            order.setOrderedState(1);
+            assertEquals(100.25, order.getPrice(), 0.0);
+            assertEquals(10, order.getQty());
+            assertEquals(1, order.getVolatileState());
+            assertTrue(order.compareAndSwapState(1, 2));
+            assertFalse(order.compareAndSwapState(1, 3));
+            assertEquals(15, order.addQty(5));
+            assertEquals(98.5, order.addPrice(-1.75), 0.0);
+            assertEquals("Order { price: 98.5, qty: 15, state: 2 }", order.toString());
+
+            // the region is an ordinary document
+            assertEquals(98.5, wire.read(() -> "price").float64(), 0.0);
+            assertEquals(15, wire.read(() -> "qty").int64());
+            assertEquals(2, wire.read(() -> "state").int32());
+        }
+    }
+
+    @Test
+    public void accessorsDoNotAllocate() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        Flyweight<Order> flyweight = Flyweight.of(Order.class);
+        try (NativeBytes bytes = Bytes.allocateElasticDirect(4096)) {
+            BinaryWire wire = new BinaryWire(bytes);
+            long[] starts = new long[11];
+            for (int i = 0; i < 10; i++) {
+                starts[i] = bytes.writePosition();
+                flyweight.writePlaceholders(wire);
+            }
+            starts[10] = bytes.writePosition();
+
+            Order order = flyweight.newInstance();
+            // bind to every alignment once so the layouts are cached.
+            sumOf(order, bytes, starts);
+
+            long id = Thread.currentThread().getId();
+            long before = allocations.getThreadAllocatedBytes(id);
+            long sum = 0;
+            for (int i = 0; i < 1000; i++)
+                sum += sumOf(order, bytes, starts);
+            long allocated = allocations.getThreadAllocatedBytes(id) - before;
+            assertTrue(sum > 0);
+            assertEquals(0, allocated);
+        }
+    }
+
+    @GenerateFlyweight
+    interface Order {
+        double getPrice();
+
+        void setPrice(double price);
+
+        double addPrice(double delta);
+
+        long getQty();
+
+        void setQty(long qty);
+
+        long addQty(long delta);
+
+        int getVolatileState();
+
+        void setOrderedState(int state);
+
+        boolean compareAndSwapState(int expected, int state);
+    }
+}
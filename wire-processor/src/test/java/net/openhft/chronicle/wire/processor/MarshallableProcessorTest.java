@@ -0,0 +1,186 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire.processor;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.wire.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * The samples are compiled with the processor by the test compile, so these tests run the code
+ * it generated.
+ */
+public class MarshallableProcessorTest {
+    static Sample sample() {
+        Sample s = new Sample();
+        s.flag = true;
+        s.b = -1;
+        s.s = 12345;
+        s.ch = 'X';
+        s.i = Integer.MIN_VALUE;
+        s.l = 1700000000123456789L;
+        s.f = 1.5f;
+        s.d = 0.1;
+        s.boxed = 42;
+        s.text = "hello, world";
+        s.builder.append("builder");
+        s.side = Side.SELL;
+        s.inner = new Inner(1, "one");
+        s.names = new ArrayList<>(Arrays.asList("a", "b", "c"));
+        s.inners.add(new Inner(2, "two"));
+        s.inners.add(new Inner(3, "three"));
+        s.setHidden(-99);
+        s.ignored = 7;
+        return s;
+    }
+
+    static void assertSample(Sample r) {
+        assertTrue(r.flag);
+        assertEquals(-1, r.b);
+        assertEquals(12345, r.s);
+        assertEquals('X', r.ch);
+        assertEquals(Integer.MIN_VALUE, r.i);
+        assertEquals(1700000000123456789L, r.l);
+        assertEquals(1.5f, r.f, 0.0f);
+        assertEquals(0.1, r.d, 0.0);
+        assertEquals(Integer.valueOf(42), r.boxed);
+        assertEquals("hello, world", r.text);
+        assertEquals("builder", r.builder.toString());
+        assertEquals(Side.SELL, r.side);
+        assertEquals("1 one", r.inner.toString());
+        assertEquals(Arrays.asList("a", "b", "c"), r.names);
+        assertEquals("[2 two, 3 three]", r.inners.toString());
+        assertEquals(-99, r.getHidden());
+        assertEquals(0, r.ignored);
+    }
+
+    private static void roundTrip(Wire wire) {
+        sample().writeMarshallable(wire);
+
+        Sample r = new Sample();
+        Inner inner = new Inner(9, "stale");
+        r.inner = inner;
+        r.builder.append("stale");
+        r.inners.add(new Inner(9, "stale"));
+        r.readMarshallable(wire);
+
+        assertSample(r);
+        // read into the existing instances.
+        assertSame(inner, r.inner);
+        assertFalse(wire.bytes().readRemaining() > 0);
+    }
+
+    @Test
+    public void binaryRoundTrip() {
+        roundTrip(new BinaryWire(Bytes.elasticByteBuffer()));
+    }
+
+    @Test
+    public void numericFieldsRoundTrip() {
+        roundTrip(new BinaryWire(Bytes.elasticByteBuffer(), false, true, false));
+    }
+
+    @Test
+    public void textRoundTrip() {
+        TextWire wire = new TextWire(Bytes.elasticByteBuffer());
+        roundTrip(wire);
+
+        sample().writeMarshallable(wire);
+        String text = wire.toString();
+        assertTrue(text, text.contains("side: SELL"));
+        assertTrue(text, text.contains("hidden: -99"));
+        assertFalse(text, text.contains("ignored"));
+    }
+
+    enum Side {
+        BUY, SELL
+    }
+
+    @GenerateMarshallable
+    static class Inner implements Marshallable {
+        long id;
+        String name;
+
+        Inner() {
+        }
+
+        Inner(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public void readMarshallable(WireIn wire) {
+            MarshallableProcessorTest_InnerMarshaller.readMarshallable(this, wire);
+        }
+
+        @Override
+        public void writeMarshallable(WireOut wire) {
+            MarshallableProcessorTest_InnerMarshaller.writeMarshallable(this, wire);
+        }
+
+        @Override
+        public String toString() {
+            return id + " " + name;
+        }
+    }
+
+    @GenerateMarshallable
+    static class Sample implements Marshallable {
+        static int notWritten;
+        final StringBuilder builder = new StringBuilder();
+        final List<Inner> inners = new ArrayList<>();
+        boolean flag;
+        byte b;
+        short s;
+        char ch;
+        int i;
+        long l;
+        float f;
+        double d;
+        Integer boxed;
+        String text;
+        Side side;
+        Inner inner;
+        List<String> names;
+        transient int ignored;
+        private long hidden;
+
+        public long getHidden() {
+            return hidden;
+        }
+
+        public void setHidden(long hidden) {
+            this.hidden = hidden;
+        }
+
+        @Override
+        public void readMarshallable(WireIn wire) {
+            MarshallableProcessorTest_SampleMarshaller.readMarshallable(this, wire);
+        }
+
+        @Override
+        public void writeMarshallable(WireOut wire) {
+            MarshallableProcessorTest_SampleMarshaller.writeMarshallable(this, wire);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *     Copyright (C) 2015  higherfrequencytrading.com
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package net.openhft.chronicle.wire.processor;
+
+import net.openhft.chronicle.bytes.Bytes;
+import net.openhft.chronicle.wire.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * The listener is compiled with the processor by the test compile, so these tests run the writer
+ * and reader it generated.
+ */
+public class MethodProxyProcessorTest {
+    private static final List<String> EXPECTED = Arrays.asList(
+            "onEmpty",
+            "onText hello",
+            "onPrice EURUSD 1.125 1700000000123456789",
+            "onOrder 1 one",
+            "onSide SELL",
+            "onText world");
+
+    private static void writeCalls(Wire wire) {
+        Listener writer = new MethodProxyProcessorTest_ListenerWriter(wire);
+        writer.onEmpty();
+        writer.onText("hello");
+        writer.onPrice("EURUSD", 1.125, 1700000000123456789L);
+        writer.onOrder(new MarshallableProcessorTest.Inner(1, "one"));
+        writer.onSide(MarshallableProcessorTest.Side.SELL);
+        // an event the reader doesn't know is skipped.
+        wire.writeDocument(false, w -> w.writeEventName(() -> "onUnknown").text("ignored"));
+        writer.onText("world");
+    }
+
+    private static void readCalls(Wire wire) {
+        List<String> calls = new ArrayList<>();
+        MethodProxyProcessorTest_ListenerReader reader = new MethodProxyProcessorTest_ListenerReader(new Listener() {
+            @Override
+            public void onEmpty() {
+                calls.add("onEmpty");
+            }
+
+            @Override
+            public void onText(String text) {
+                calls.add("onText " + text);
+            }
+
+            @Override
+            public void onPrice(String symbol, double price, long time) {
+                calls.add("onPrice " + symbol + " " + price + " " + time);
+            }
+
+            @Override
+            public void onOrder(MarshallableProcessorTest.Inner order) {
+                calls.add("onOrder " + order);
+            }
+
+            @Override
+            public void onSide(MarshallableProcessorTest.Side side) {
+                calls.add("onSide " + side);
+            }
+        });
+        while (reader.readOne(wire)) {
+        }
+        assertEquals(EXPECTED, calls);
+    }
+
+    @Test
+    public void binary() {
+        Wire wire = new BinaryWire(Bytes.elasticByteBuffer());
+        writeCalls(wire);
+        readCalls(wire);
+    }
+
+    @Test
+    public void numericFields() {
+        // the events are looked up by their code.
+        Wire wire = new BinaryWire(Bytes.elasticByteBuffer(), false, true, false);
+        writeCalls(wire);
+        readCalls(wire);
+    }
+
+    @Test
+    public void text() {
+        Wire wire = new TextWire(Bytes.elasticByteBuffer());
+        writeCalls(wire);
+        String text = wire.toString();
+        assertTrue(text, text.contains("onPrice: ["));
+        assertTrue(text, text.contains("onSide: SELL"));
+        readCalls(wire);
+    }
+
+    @Test
+    public void readerIsReused() {
+        Wire wire = new BinaryWire(Bytes.elasticByteBuffer());
+        Listener writer = new MethodProxyProcessorTest_ListenerWriter(wire);
+        writer.onOrder(new MarshallableProcessorTest.Inner(1, "one"));
+        writer.onOrder(new MarshallableProcessorTest.Inner(2, "two"));
+
+        List<MarshallableProcessorTest.Inner> orders = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        MethodProxyProcessorTest_ListenerReader reader = new MethodProxyProcessorTest_ListenerReader(new Listener() {
+            @Override
+            public void onEmpty() {
+            }
+
+            @Override
+            public void onText(String text) {
+            }
+
+            @Override
+            public void onPrice(String symbol, double price, long time) {
+            }
+
+            @Override
+            public void onOrder(MarshallableProcessorTest.Inner order) {
+                orders.add(order);
+                names.add(order.toString());
+            }
+
+            @Override
+            public void onSide(MarshallableProcessorTest.Side side) {
+            }
+        });
+        assertTrue(reader.readOne(wire));
+        assertTrue(reader.readOne(wire));
+        assertFalse(reader.readOne(wire));
+        assertEquals(Arrays.asList("1 one", "2 two"), names);
+        // the argument is read into the same instance each time.
+        assertSame(orders.get(0), orders.get(1));
+    }
+
+    @GenerateMethodProxy
+    interface Listener {
+        void onEmpty();
+
+        void onText(String text);
+
+        void onPrice(String symbol, double price, long time);
+
+        void onOrder(MarshallableProcessorTest.Inner order);
+
+        void onSide(MarshallableProcessorTest.Side side);
+    }
+}